@@ -0,0 +1,45 @@
+package app.popdreviewsvc.benchmark;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.mapper.DtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    @Param({"100", "2000", "20000"})
+    private int contentSize;
+
+    @Param({"10", "100", "1000"})
+    private int listLength;
+
+    private Review review;
+
+    private List<Review> reviews;
+
+    @Setup
+    public void setUp() {
+        reviews = ReviewFixtures.reviewsForMovie(UUID.randomUUID(), listLength, contentSize);
+        review = reviews.get(0);
+    }
+
+    @Benchmark
+    public ReviewResponse fromReview() {
+        return DtoMapper.from(review);
+    }
+
+    @Benchmark
+    public List<ReviewResponse> fromReviewList() {
+        return reviews.stream().map(DtoMapper::from).toList();
+    }
+}
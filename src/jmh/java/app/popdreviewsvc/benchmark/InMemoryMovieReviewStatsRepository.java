@@ -0,0 +1,48 @@
+package app.popdreviewsvc.benchmark;
+
+import app.popdreviewsvc.model.MovieReviewStats;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps review and rating totals per movie in a map, enough for the stats reads and writes of the service.
+ */
+public class InMemoryMovieReviewStatsRepository {
+
+    private final Map<UUID, MovieReviewStats> stats = new HashMap<>();
+
+    public MovieReviewStatsRepository asRepository() {
+        return RepositoryStubs.stub(MovieReviewStatsRepository.class, this);
+    }
+
+    // MongoRepository.findById(ID) erases to findById(Object)
+    public Optional<MovieReviewStats> findById(Object movieId) {
+        return Optional.ofNullable(stats.get((UUID) movieId));
+    }
+
+    public void applyReviewChange(UUID movieId, int reviewsDelta, Integer oldRating, Integer newRating) {
+        MovieReviewStats movieStats = stats.computeIfAbsent(movieId, id -> MovieReviewStats.builder()
+                .movieId(id)
+                .totalReviews(0L)
+                .ratedReviews(0L)
+                .ratingSum(0L)
+                .ratingDistribution(new HashMap<>())
+                .build());
+
+        movieStats.setTotalReviews(movieStats.getTotalReviews() + reviewsDelta);
+        if (oldRating != null) {
+            movieStats.setRatedReviews(movieStats.getRatedReviews() - 1);
+            movieStats.setRatingSum(movieStats.getRatingSum() - oldRating);
+            movieStats.getRatingDistribution().merge(String.valueOf(oldRating), -1L, Long::sum);
+        }
+        if (newRating != null) {
+            movieStats.setRatedReviews(movieStats.getRatedReviews() + 1);
+            movieStats.setRatingSum(movieStats.getRatingSum() + newRating);
+            movieStats.getRatingDistribution().merge(String.valueOf(newRating), 1L, Long::sum);
+        }
+    }
+}
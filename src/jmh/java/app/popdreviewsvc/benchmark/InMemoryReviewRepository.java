@@ -0,0 +1,90 @@
+package app.popdreviewsvc.benchmark;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import org.springframework.data.domain.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * The read and upsert queries {@link app.popdreviewsvc.service.ReviewService} uses, answered from presorted lists,
+ * so service benchmarks measure mapping and caching rather than a database. Upserts only replace the stored review
+ * of a key; they don't re-sort the movie and user lists.
+ */
+public class InMemoryReviewRepository {
+
+    private static final Comparator<Review> LATEST_UPDATED_FIRST = Comparator
+            .comparing(Review::getUpdatedOn, Comparator.reverseOrder())
+            .thenComparing(Review::getId, Comparator.reverseOrder());
+
+    private final Map<UUID, List<Review>> byMovie = new HashMap<>();
+    private final Map<UUID, List<Review>> byUser = new HashMap<>();
+    private final Map<List<UUID>, Review> byKey = new HashMap<>();
+
+    public InMemoryReviewRepository(Collection<Review> reviews) {
+        for (Review review : reviews) {
+            byMovie.computeIfAbsent(review.getMovieId(), id -> new ArrayList<>()).add(review);
+            byUser.computeIfAbsent(review.getUserId(), id -> new ArrayList<>()).add(review);
+            byKey.put(List.of(review.getUserId(), review.getMovieId()), review);
+        }
+        byMovie.values().forEach(movieReviews -> movieReviews.sort(LATEST_UPDATED_FIRST));
+        byUser.values().forEach(userReviews -> userReviews.sort(Comparator.comparing(Review::getCreatedOn, Comparator.reverseOrder())));
+    }
+
+    public ReviewRepository asRepository() {
+        return RepositoryStubs.stub(ReviewRepository.class, this);
+    }
+
+    public Optional<Review> findByUserIdAndMovieId(UUID userId, UUID movieId) {
+        return Optional.ofNullable(byKey.get(List.of(userId, movieId)));
+    }
+
+    public Optional<Review> upsertByUserIdAndMovieId(Review review) {
+        return Optional.ofNullable(byKey.put(List.of(review.getUserId(), review.getMovieId()), review));
+    }
+
+    public List<Review> findAllByMovieIdOrderByUpdatedOnDesc(UUID movieId, Limit limit) {
+        return head(byMovie.getOrDefault(movieId, List.of()), limit.max());
+    }
+
+    public Page<Review> findByMovieIdOrderByUpdatedOnDesc(UUID movieId, Pageable pageable) {
+        List<Review> movieReviews = byMovie.getOrDefault(movieId, List.of());
+        return new PageImpl<>(window(movieReviews, pageable), pageable, movieReviews.size());
+    }
+
+    public Slice<Review> findSliceByMovieIdOrderByUpdatedOnDescIdDesc(UUID movieId, Pageable pageable) {
+        return slice(byMovie.getOrDefault(movieId, List.of()), pageable);
+    }
+
+    public Slice<Review> findSliceByMovieIdAfterCursor(UUID movieId, LocalDateTime updatedOn, UUID id, Pageable pageable) {
+        List<Review> movieReviews = byMovie.getOrDefault(movieId, List.of());
+        Review cursor = Review.builder().updatedOn(updatedOn).id(id).build();
+        int position = Collections.binarySearch(movieReviews, cursor, LATEST_UPDATED_FIRST);
+        int from = position >= 0 ? position + 1 : -position - 1;
+        return slice(movieReviews.subList(from, movieReviews.size()), pageable);
+    }
+
+    public List<Review> findAllByUserId(UUID userId) {
+        return byUser.getOrDefault(userId, List.of());
+    }
+
+    public List<Review> findAllByUserIdOrderByCreatedOnDesc(UUID userId, Limit limit) {
+        return head(byUser.getOrDefault(userId, List.of()), limit.max());
+    }
+
+    private static Slice<Review> slice(List<Review> reviews, Pageable pageable) {
+        List<Review> content = window(reviews, pageable);
+        boolean hasNext = pageable.getOffset() + content.size() < reviews.size();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static List<Review> window(List<Review> reviews, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), reviews.size());
+        return new ArrayList<>(reviews.subList(from, Math.min(from + pageable.getPageSize(), reviews.size())));
+    }
+
+    private static List<Review> head(List<Review> reviews, int max) {
+        return new ArrayList<>(reviews.subList(0, Math.min(max, reviews.size())));
+    }
+}
@@ -0,0 +1,38 @@
+package app.popdreviewsvc.benchmark;
+
+import app.popdreviewsvc.model.ReviewVersion;
+import app.popdreviewsvc.repository.ReviewVersionRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps review versions in a map, so upserts pay for the version bump without a database.
+ */
+public class InMemoryReviewVersionRepository {
+
+    private final Map<String, ReviewVersion> versions = new HashMap<>();
+
+    public ReviewVersionRepository asRepository() {
+        return RepositoryStubs.stub(ReviewVersionRepository.class, this);
+    }
+
+    public void bump(Collection<UUID> movieIds, Collection<UUID> userIds) {
+        movieIds.forEach(movieId -> bump(ReviewVersion.movieKey(movieId)));
+        userIds.forEach(userId -> bump(ReviewVersion.userKey(userId)));
+    }
+
+    public ReviewVersion getCurrent(String key) {
+        ReviewVersion version = versions.get(key);
+        return version != null ? version : ReviewVersion.baseline(key, null);
+    }
+
+    private void bump(String key) {
+        ReviewVersion version = versions.computeIfAbsent(key, k -> new ReviewVersion(k, 0L, Instant.EPOCH));
+        version.setVersion(version.getVersion() + 1);
+        version.setLastModified(Instant.now());
+    }
+}
@@ -0,0 +1,42 @@
+package app.popdreviewsvc.benchmark;
+
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Builds repository interfaces on top of plain objects. A call is forwarded to the target method with the same
+ * name and parameter types; anything else fails, so a benchmark can't silently hit an unimplemented query.
+ */
+@UtilityClass
+public class RepositoryStubs {
+
+    public static <T> T stub(Class<T> repositoryType, Object target) {
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType}, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> self == args[0];
+                    case "hashCode" -> System.identityHashCode(self);
+                    default -> repositoryType.getSimpleName() + " stub backed by " + target.getClass().getSimpleName();
+                };
+            }
+
+            Method targetMethod;
+            try {
+                targetMethod = target.getClass().getMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                throw new UnsupportedOperationException("%s.%s is not stubbed".formatted(repositoryType.getSimpleName(), method.getName()));
+            }
+
+            try {
+                return targetMethod.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+
+        return repositoryType.cast(proxy);
+    }
+}
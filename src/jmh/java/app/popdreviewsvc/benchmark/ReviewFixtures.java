@@ -0,0 +1,71 @@
+package app.popdreviewsvc.benchmark;
+
+import app.popdreviewsvc.model.Review;
+import lombok.experimental.UtilityClass;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic review data for the benchmarks, so runs on different machines and commits measure the same input.
+ */
+@UtilityClass
+public class ReviewFixtures {
+
+    private static final String[] WORDS = {
+            "plot", "acting", "score", "director", "scene", "twist", "pacing", "cinematography",
+            "dialogue", "sequel", "ending", "cast", "villain", "soundtrack", "camera", "story"
+    };
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    public static String content(int size, long seed) {
+        Random random = new Random(seed);
+        StringBuilder content = new StringBuilder(size + 16);
+        while (content.length() < size) {
+            content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        content.setLength(size);
+        return content.toString();
+    }
+
+    public static Review review(UUID userId, UUID movieId, int index, int contentSize) {
+        LocalDateTime timestamp = BASE_TIME.minusMinutes(index);
+
+        return Review.builder()
+                .id(new UUID(movieId.getLeastSignificantBits(), index))
+                .userId(userId)
+                .movieId(movieId)
+                .rating(index % 10 + 1)
+                .title("Review " + index)
+                .content(content(contentSize, index))
+                .createdOn(timestamp)
+                .updatedOn(timestamp)
+                .build();
+    }
+
+    /**
+     * {@code count} reviews of one movie by different users, newest first.
+     */
+    public static List<Review> reviewsForMovie(UUID movieId, int count, int contentSize) {
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reviews.add(review(new UUID(0, i), movieId, i, contentSize));
+        }
+        return reviews;
+    }
+
+    /**
+     * {@code count} reviews by one user of different movies, newest first.
+     */
+    public static List<Review> reviewsByUser(UUID userId, int count, int contentSize) {
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reviews.add(review(userId, new UUID(1, i), i, contentSize));
+        }
+        return reviews;
+    }
+}
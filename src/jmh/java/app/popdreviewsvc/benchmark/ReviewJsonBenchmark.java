@@ -0,0 +1,59 @@
+package app.popdreviewsvc.benchmark;
+
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.mapper.DtoMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes response bodies with an {@link ObjectMapper} configured the way Spring Boot configures the one
+ * behind the REST controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReviewJsonBenchmark {
+
+    @Param({"100", "2000", "20000"})
+    private int contentSize;
+
+    @Param({"10", "100", "1000"})
+    private int listLength;
+
+    private ObjectMapper objectMapper;
+
+    private List<ReviewResponse> reviews;
+
+    private Page<ReviewResponse> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reviews = ReviewFixtures.reviewsForMovie(UUID.randomUUID(), listLength, contentSize).stream()
+                .map(DtoMapper::from)
+                .toList();
+        page = new PageImpl<>(reviews, PageRequest.of(0, listLength), listLength * 10L);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reviews);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
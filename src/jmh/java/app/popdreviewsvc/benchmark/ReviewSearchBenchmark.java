@@ -0,0 +1,118 @@
+package app.popdreviewsvc.benchmark;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.service.ReviewSearchIndex;
+import app.popdreviewsvc.service.ReviewSearchService;
+import app.popdreviewsvc.web.dto.ReviewSearchHitResponse;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link ReviewSearchService} over a generated corpus of {@code reviews} reviews with {@code contentWords} words
+ * each, drawn from a skewed vocabulary so a few terms are in most reviews and most terms are rare. Sample time mode
+ * reports percentiles, and {@code reviews=3000000} is the corpus size the p99 target is set for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ReviewSearchBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int MOVIES = 20_000;
+    private static final LocalDateTime UPDATED_ON = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Param({"100000", "1000000", "3000000"})
+    private int reviews;
+
+    @Param({"80"})
+    private int contentWords;
+
+    private ReviewSearchService reviewSearchService;
+
+    private UUID movieId;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        ReviewRepository repository = RepositoryStubs.stub(ReviewRepository.class, new GeneratedCorpus());
+        ReviewSearchIndex reviewSearchIndex = new ReviewSearchIndex(repository, true);
+        reviewSearchIndex.build();
+        reviewSearchService = new ReviewSearchService(reviewSearchIndex, repository);
+        movieId = new UUID(2, 7);
+    }
+
+    // in most reviews
+    @Benchmark
+    public List<ReviewSearchHitResponse> commonTerm() {
+        return reviewSearchService.search(word(3), null, null, 10);
+    }
+
+    @Benchmark
+    public List<ReviewSearchHitResponse> rareTerm() {
+        return reviewSearchService.search(word(2_000), null, null, 10);
+    }
+
+    @Benchmark
+    public List<ReviewSearchHitResponse> threeTerms() {
+        return reviewSearchService.search(word(3) + " " + word(150) + " " + word(2_000), null, null, 10);
+    }
+
+    @Benchmark
+    public List<ReviewSearchHitResponse> commonTermOfOneMovie() {
+        return reviewSearchService.search(word(3), movieId, null, 10);
+    }
+
+    private static String word(int rank) {
+        return "term" + rank;
+    }
+
+    /**
+     * The queries the index and the search service make, answered from the review number encoded in the ids, so
+     * the corpus never has to be held in memory as {@link Review}s.
+     */
+    public class GeneratedCorpus {
+
+        public Stream<Review> streamSearchableReviews() {
+            return LongStream.range(0, reviews).mapToObj(this::review);
+        }
+
+        public List<Review> findAllByUserIdAndMovieIdPairs(List<Review> keys) {
+            return keys.stream().map(key -> review(key.getUserId().getLeastSignificantBits())).toList();
+        }
+
+        private Review review(long index) {
+            Random random = new Random(index);
+            StringBuilder content = new StringBuilder(contentWords * 10);
+            for (int i = 0; i < contentWords; i++) {
+                // cubed uniform, so low ranks are far more frequent than high ones
+                double skewed = Math.pow(random.nextDouble(), 3);
+                content.append(word((int) (skewed * VOCABULARY))).append(' ');
+            }
+
+            return Review.builder()
+                    .id(new UUID(0, index))
+                    .userId(new UUID(1, index))
+                    .movieId(new UUID(2, index % MOVIES))
+                    .title(word((int) (index % 100)) + " " + word((int) (index % 1_000)))
+                    .content(content.toString())
+                    .createdOn(UPDATED_ON)
+                    .updatedOn(UPDATED_ON)
+                    .build();
+        }
+    }
+}
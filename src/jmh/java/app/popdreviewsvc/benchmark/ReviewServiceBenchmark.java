@@ -0,0 +1,114 @@
+package app.popdreviewsvc.benchmark;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.service.MovieReviewsCache;
+import app.popdreviewsvc.service.ReviewSearchIndex;
+import app.popdreviewsvc.service.ReviewService;
+import app.popdreviewsvc.service.ReviewWriteBuffer;
+import app.popdreviewsvc.service.TopRatedMoviesLeaderboard;
+import app.popdreviewsvc.service.TrendingMoviesTracker;
+import app.popdreviewsvc.service.UpsertResult;
+import app.popdreviewsvc.web.dto.ReviewRequest;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.dto.ReviewSliceResponse;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link ReviewService} against in-memory repositories. One movie and one user each have
+ * {@code listLength} reviews; the movie cache keeps the default depth of 10.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReviewServiceBenchmark {
+
+    private static final int CACHE_DEPTH = 10;
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100", "2000", "20000"})
+    private int contentSize;
+
+    @Param({"10", "100", "1000"})
+    private int listLength;
+
+    private final UUID movieId = new UUID(2, 1);
+
+    private final UUID userId = new UUID(2, 2);
+
+    private ReviewService reviewService;
+
+    private ReviewRequest upsertRequest;
+
+    @Setup
+    public void setUp() {
+        // the service logs every write at INFO, which would dominate the upsert numbers
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        List<Review> reviews = new ArrayList<>(ReviewFixtures.reviewsForMovie(movieId, listLength, contentSize));
+        reviews.addAll(ReviewFixtures.reviewsByUser(userId, listLength, contentSize));
+
+        reviewService = new ReviewService(
+                new InMemoryReviewRepository(reviews).asRepository(),
+                new InMemoryMovieReviewStatsRepository().asRepository(),
+                new MovieReviewsCache(1000, CACHE_DEPTH, new SimpleMeterRegistry()),
+                new InMemoryReviewVersionRepository().asRepository(),
+                new ReviewWriteBuffer(null, false, 0, 1, 1),
+                new TrendingMoviesTracker(null, false, 2000),
+                new TopRatedMoviesLeaderboard(null, 10, -1),
+                new ReviewSearchIndex(null, false));
+
+        upsertRequest = ReviewRequest.builder()
+                .userId(new UUID(0, 0))
+                .movieId(movieId)
+                .rating(7)
+                .title("Edited")
+                .content(ReviewFixtures.content(contentSize, 42))
+                .build();
+    }
+
+    @Benchmark
+    public List<ReviewResponse> getLatestReviewsCached() {
+        return reviewService.getLatestReviews(movieId, CACHE_DEPTH);
+    }
+
+    @Benchmark
+    public List<ReviewResponse> getLatestReviewsUncached() {
+        return reviewService.getLatestReviews(movieId, CACHE_DEPTH + 1);
+    }
+
+    @Benchmark
+    public Page<ReviewResponse> getReviewsForMovieSecondPage() {
+        return reviewService.getReviewsForMovie(movieId, PageRequest.of(1, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public ReviewSliceResponse getReviewsForMovieFirstSlice() {
+        return reviewService.getReviewsForMovieAfter(movieId, null, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public List<ReviewResponse> getLatestReviewsByUserId() {
+        return reviewService.getLatestReviewsByUserId(userId);
+    }
+
+    // every upsert updates an existing key and invalidates the movie cache, so the next cached read reloads
+    @Benchmark
+    public UpsertResult upsertExisting() {
+        return reviewService.upsert(upsertRequest);
+    }
+}
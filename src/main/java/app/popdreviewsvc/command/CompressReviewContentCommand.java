@@ -0,0 +1,30 @@
+package app.popdreviewsvc.command;
+
+import app.popdreviewsvc.service.ReviewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compresses the content of reviews stored before compression was enabled, or below a since lowered threshold.
+ * Enable with {@code --reviews.content.compress-existing=true}; the storage report is logged before and after.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reviews.content.compress-existing", havingValue = "true")
+public class CompressReviewContentCommand implements ApplicationRunner {
+
+    private final ReviewService reviewService;
+
+    public CompressReviewContentCommand(ReviewService reviewService) {
+        this.reviewService = reviewService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Compressing large review content in the reviews collection");
+        reviewService.compressStoredContent();
+    }
+}
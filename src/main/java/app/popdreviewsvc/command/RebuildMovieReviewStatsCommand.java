@@ -0,0 +1,30 @@
+package app.popdreviewsvc.command;
+
+import app.popdreviewsvc.service.ReviewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the {@code movie_review_stats} collection from {@code reviews} on startup.
+ * Enable with {@code --reviews.stats.rebuild=true}, e.g. after a migration or when the counters have drifted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reviews.stats.rebuild", havingValue = "true")
+public class RebuildMovieReviewStatsCommand implements ApplicationRunner {
+
+    private final ReviewService reviewService;
+
+    public RebuildMovieReviewStatsCommand(ReviewService reviewService) {
+        this.reviewService = reviewService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Rebuilding movie review stats from the reviews collection");
+        reviewService.rebuildMovieReviewStats();
+    }
+}
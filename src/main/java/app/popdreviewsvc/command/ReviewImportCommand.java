@@ -0,0 +1,47 @@
+package app.popdreviewsvc.command;
+
+import app.popdreviewsvc.service.ReviewImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Offline bulk import of review files. Activate the {@code import} profile and pass the files either as
+ * {@code --reviews.import.files=a.ndjson,b.csv} or as plain program arguments; the application exits when done.
+ */
+@Slf4j
+@Component
+@Profile("import")
+public class ReviewImportCommand implements ApplicationRunner {
+
+    private final ReviewImportService reviewImportService;
+    private final String[] files;
+
+    public ReviewImportCommand(ReviewImportService reviewImportService,
+                               @Value("${reviews.import.files:}") String[] files) {
+        this.reviewImportService = reviewImportService;
+        this.files = files;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<Path> paths = new ArrayList<>();
+        Arrays.stream(files).filter(file -> !file.isBlank()).map(Path::of).forEach(paths::add);
+        args.getNonOptionArgs().stream().map(Path::of).forEach(paths::add);
+
+        if (paths.isEmpty()) {
+            log.warn("Import profile is active but no files were given, nothing to import");
+            return;
+        }
+
+        reviewImportService.importFiles(paths);
+    }
+}
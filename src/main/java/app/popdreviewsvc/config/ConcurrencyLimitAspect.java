@@ -0,0 +1,27 @@
+package app.popdreviewsvc.config;
+
+import app.popdreviewsvc.service.ConcurrencyLimited;
+import app.popdreviewsvc.service.ConcurrencyLimiter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admits the calls of {@link ConcurrencyLimited} methods through the {@link ConcurrencyLimiter}.
+ */
+@Aspect
+@Component
+public class ConcurrencyLimitAspect {
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    public ConcurrencyLimitAspect(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Around("@annotation(limited)")
+    public Object limit(ProceedingJoinPoint joinPoint, ConcurrencyLimited limited) throws Throwable {
+        return concurrencyLimiter.execute(limited.value(), joinPoint::proceed);
+    }
+}
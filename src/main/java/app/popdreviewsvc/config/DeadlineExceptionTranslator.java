@@ -0,0 +1,26 @@
+package app.popdreviewsvc.config;
+
+import app.popdreviewsvc.exception.DeadlineExceededException;
+import app.popdreviewsvc.repository.RequestDeadline;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoOperationTimeoutException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+
+/**
+ * Translates the timeouts of operations run under a {@link RequestDeadline} into {@link DeadlineExceededException},
+ * and everything else the way Spring Data does.
+ */
+public class DeadlineExceptionTranslator extends MongoExceptionTranslator {
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+        if (ex instanceof DeadlineExceededException deadlineExceeded) {
+            return deadlineExceeded;
+        }
+        if (RequestDeadline.isSet() && (ex instanceof MongoOperationTimeoutException || ex instanceof MongoExecutionTimeoutException)) {
+            return new DeadlineExceededException("Request deadline exceeded while waiting for the database", ex);
+        }
+        return super.translateExceptionIfPossible(ex);
+    }
+}
@@ -0,0 +1,26 @@
+package app.popdreviewsvc.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Endpoint timers ({@code http.server.requests}, tagged by URI template) and Mongo command latency
+ * ({@code mongodb.driver.commands}) come from Spring Boot; this adds {@code @Timed} support for the
+ * service layer and per-command document counts.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MeterRegistry meterRegistry) {
+        return builder -> builder.addCommandListener(new MongoCommandMetricsListener(meterRegistry));
+    }
+}
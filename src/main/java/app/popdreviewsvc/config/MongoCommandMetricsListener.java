@@ -0,0 +1,88 @@
+package app.popdreviewsvc.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many documents each Mongo command returned or wrote as {@code mongodb.driver.commands.documents},
+ * tagged by command name and collection only.
+ */
+public class MongoCommandMetricsListener implements CommandListener {
+
+    static final String METRIC_NAME = "mongodb.driver.commands.documents";
+
+    private static final String UNKNOWN_COLLECTION = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, String> collectionsByRequestId = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String collection = collectionName(event.getCommand(), event.getCommandName());
+        if (collection != null) {
+            collectionsByRequestId.put(event.getRequestId(), collection);
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collectionsByRequestId.remove(event.getRequestId());
+        long documents = documentCount(event.getResponse());
+        if (documents < 0) {
+            return;
+        }
+
+        DistributionSummary.builder(METRIC_NAME)
+                .tag("command", event.getCommandName())
+                .tag("collection", collection != null ? collection : UNKNOWN_COLLECTION)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(documents);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        collectionsByRequestId.remove(event.getRequestId());
+    }
+
+    private static String collectionName(BsonDocument command, String commandName) {
+        // getMore carries the cursor id as its value and the collection in a separate field
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : null;
+    }
+
+    // -1 when the reply carries no document count, e.g. for admin commands
+    private static long documentCount(BsonDocument response) {
+        if (response == null) {
+            return -1;
+        }
+
+        BsonDocument cursor = response.getDocument("cursor", null);
+        if (cursor != null) {
+            if (cursor.containsKey("firstBatch")) {
+                return cursor.getArray("firstBatch").size();
+            }
+            if (cursor.containsKey("nextBatch")) {
+                return cursor.getArray("nextBatch").size();
+            }
+        }
+
+        // findAndModify reports its count under lastErrorObject
+        BsonDocument lastErrorObject = response.getDocument("lastErrorObject", null);
+        BsonValue n = lastErrorObject != null ? lastErrorObject.get("n") : response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().longValue() : -1;
+    }
+}
@@ -0,0 +1,41 @@
+package app.popdreviewsvc.config;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.CompressedContentConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoDatabaseFactorySupport;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+/**
+ * Conversions shared by the blocking and reactive Mongo templates. Property converters also apply to
+ * {@code Query}/{@code Update} values of the same property, so upserts compress content the same way saves do.
+ * The blocking template replaces Spring Boot's to apply read routing and request deadlines per operation.
+ */
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public CompressedContentConverter compressedContentConverter(@Value("${reviews.content.compression-threshold:2048}") int threshold) {
+        return new CompressedContentConverter(threshold);
+    }
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(CompressedContentConverter compressedContentConverter) {
+        return MongoCustomConversions.create(conversions -> conversions.configurePropertyConversions(
+                properties -> properties.registerConverter(Review.class, "content", compressedContentConverter)));
+    }
+
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+        // the template translates exceptions with the translator of its factory
+        if (mongoDatabaseFactory instanceof MongoDatabaseFactorySupport<?> factorySupport) {
+            factorySupport.setExceptionTranslator(new DeadlineExceptionTranslator());
+        }
+        return new RequestAwareMongoTemplate(mongoDatabaseFactory, mongoConverter);
+    }
+}
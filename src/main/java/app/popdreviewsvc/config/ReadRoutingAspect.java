@@ -0,0 +1,26 @@
+package app.popdreviewsvc.config;
+
+import app.popdreviewsvc.repository.ReadRouting;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes the queries of {@link app.popdreviewsvc.repository.SecondaryReads} methods through {@link ReadRouting}.
+ */
+@Aspect
+@Component
+public class ReadRoutingAspect {
+
+    private final ReadRouting readRouting;
+
+    public ReadRoutingAspect(ReadRouting readRouting) {
+        this.readRouting = readRouting;
+    }
+
+    @Around("@annotation(app.popdreviewsvc.repository.SecondaryReads)")
+    public Object routeReads(ProceedingJoinPoint joinPoint) throws Throwable {
+        return readRouting.onSecondary(joinPoint::proceed);
+    }
+}
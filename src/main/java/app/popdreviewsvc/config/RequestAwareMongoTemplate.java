@@ -0,0 +1,48 @@
+package app.popdreviewsvc.config;
+
+import app.popdreviewsvc.exception.DeadlineExceededException;
+import app.popdreviewsvc.repository.ReadRouting;
+import app.popdreviewsvc.repository.RequestDeadline;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MongoTemplate} that applies the per-request settings of the current thread to every collection it hands
+ * out, so they reach every find, count, aggregation and write of the blocking repositories:
+ * <ul>
+ *     <li>the {@link ReadRouting#current() read preference}, which writes ignore since they always go to the primary</li>
+ *     <li>the time left until the {@link RequestDeadline}, as the operation timeout the driver sends as
+ *     {@code maxTimeMS}; once it has passed, no operation is started at all</li>
+ * </ul>
+ */
+public class RequestAwareMongoTemplate extends MongoTemplate {
+
+    public RequestAwareMongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter) {
+        super(mongoDbFactory, mongoConverter);
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        MongoCollection<Document> prepared = super.prepareCollection(collection);
+
+        ReadPreference routed = ReadRouting.current();
+        if (routed != null && !routed.equals(prepared.getReadPreference())) {
+            prepared = prepared.withReadPreference(routed);
+        }
+
+        if (RequestDeadline.isSet()) {
+            long remainingMillis = RequestDeadline.remainingMillis();
+            if (remainingMillis <= 0) {
+                throw new DeadlineExceededException("Request deadline exceeded before querying the database");
+            }
+            prepared = prepared.withTimeout(remainingMillis, TimeUnit.MILLISECONDS);
+        }
+        return prepared;
+    }
+}
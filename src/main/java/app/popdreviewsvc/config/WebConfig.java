@@ -0,0 +1,33 @@
+package app.popdreviewsvc.config;
+
+import app.popdreviewsvc.web.RequestDeadlineInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request deadlines of the {@code /api/v1} handlers, see {@link RequestDeadlineInterceptor}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebConfig implements WebMvcConfigurer {
+
+    private final boolean deadlinesEnabled;
+    private final long defaultDeadlineMillis;
+    private final long maxDeadlineMillis;
+
+    public WebConfig(@Value("${reviews.deadline.enabled:true}") boolean deadlinesEnabled,
+                     @Value("${reviews.deadline.default-millis:5000}") long defaultDeadlineMillis,
+                     @Value("${reviews.deadline.max-millis:30000}") long maxDeadlineMillis) {
+        this.deadlinesEnabled = deadlinesEnabled;
+        this.defaultDeadlineMillis = defaultDeadlineMillis;
+        this.maxDeadlineMillis = maxDeadlineMillis;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (deadlinesEnabled) {
+            registry.addInterceptor(new RequestDeadlineInterceptor(defaultDeadlineMillis, maxDeadlineMillis));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package app.popdreviewsvc.event;
+
+/**
+ * Any review may have changed: the collection was dropped or renamed, a removed review could not be traced back to
+ * its movie and user, or changes were missed because the stream could not resume where it stopped.
+ */
+public record AllReviewsInvalidatedEvent() implements ReviewInvalidationEvent {
+}
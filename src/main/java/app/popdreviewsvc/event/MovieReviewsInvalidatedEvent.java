@@ -0,0 +1,9 @@
+package app.popdreviewsvc.event;
+
+import java.util.UUID;
+
+/**
+ * A review of the movie was created, updated or removed.
+ */
+public record MovieReviewsInvalidatedEvent(UUID movieId) implements ReviewInvalidationEvent {
+}
@@ -0,0 +1,276 @@
+package app.popdreviewsvc.event;
+
+import app.popdreviewsvc.model.ChangeStreamOffset;
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ChangeStreamOffsetRepository;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows the change stream of the {@code reviews} collection and publishes a {@link ReviewInvalidationEvent} for
+ * the movie and the user of every changed review, whichever instance of the service wrote it. Change streams need
+ * a replica set, so it only runs with {@code reviews.change-stream.enabled=true}.
+ * <p>
+ * The resume token is saved in {@code change_stream_offsets} every {@code reviews.change-stream.checkpoint-interval-millis}
+ * under {@code reviews.change-stream.consumer-id}, so an instance restarted with the same id first replays the changes
+ * it missed. When the oplog no longer reaches back to the saved token, an {@link AllReviewsInvalidatedEvent} is
+ * published and the stream starts over from the current time.
+ * <p>
+ * Removed reviews are traced back to their movie and user through the pre-image of the document, which needs
+ * MongoDB 6.0 and {@code changeStreamPreAndPostImages} on the collection ({@code reviews.change-stream.enable-pre-images}).
+ * Without it every removal invalidates everything.
+ */
+@Slf4j
+@Component
+public class ReviewChangeStreamSubscriber {
+
+    static final String COLLECTION = "reviews";
+
+    private static final long MAX_AWAIT_MILLIS = 1000;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    // server errors after which the saved resume token can never be used again
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    // keeps the resume token in _id and trims the looked up documents to the keys that are invalidated
+    private static final List<Bson> PIPELINE = List.of(Aggregates.project(Projections.include(
+            "operationType", "ns", "documentKey",
+            "fullDocument.movieId", "fullDocument.userId",
+            "fullDocumentBeforeChange.movieId", "fullDocumentBeforeChange.userId")));
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeStreamOffsetRepository changeStreamOffsetRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final boolean enablePreImages;
+    private final String offsetKey;
+    private final long checkpointIntervalMillis;
+
+    private volatile boolean running;
+    private Thread consumer;
+
+    // only touched by the consumer thread while it runs
+    private BsonDocument resumeToken;
+    private BsonDocument checkpointedToken;
+    private long lastCheckpointMillis;
+
+    public ReviewChangeStreamSubscriber(MongoTemplate mongoTemplate,
+                                        ChangeStreamOffsetRepository changeStreamOffsetRepository,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${reviews.change-stream.enabled:false}") boolean enabled,
+                                        @Value("${reviews.change-stream.enable-pre-images:true}") boolean enablePreImages,
+                                        @Value("${reviews.change-stream.consumer-id:${HOSTNAME:local}}") String consumerId,
+                                        @Value("${reviews.change-stream.checkpoint-interval-millis:1000}") long checkpointIntervalMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeStreamOffsetRepository = changeStreamOffsetRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.enablePreImages = enablePreImages;
+        this.offsetKey = ChangeStreamOffset.key(COLLECTION, consumerId);
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void startIfEnabled() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Starts following the stream from the saved resume token, or from now when there is none.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        if (enablePreImages) {
+            enablePreImages();
+        }
+        resumeToken = changeStreamOffsetRepository.findById(offsetKey)
+                .map(offset -> BsonDocument.parse(offset.getResumeToken()))
+                .orElse(null);
+        checkpointedToken = resumeToken;
+        lastCheckpointMillis = System.currentTimeMillis();
+
+        running = true;
+        consumer = new Thread(this::run, "review-change-stream");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Stops following the stream and saves the resume token of the last processed change.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        // tryNext returns within MAX_AWAIT_MILLIS, interrupting would close the connection under the driver instead
+        consumer.join(MAX_AWAIT_MILLIS + RETRY_DELAY_MILLIS + 5000);
+        checkpoint();
+    }
+
+    private void enablePreImages() {
+        try {
+            mongoTemplate.executeCommand(new Document("collMod", COLLECTION)
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } catch (RuntimeException e) {
+            log.warn("Could not enable pre-images on {}, removed reviews will invalidate everything: {}", COLLECTION, e.getMessage());
+        }
+    }
+
+    private void run() {
+        log.info("Following the change stream of {} from {}", COLLECTION, resumeToken != null ? "the saved resume token" : "now");
+        while (running) {
+            try {
+                consume();
+            } catch (MongoServerException e) {
+                if (e.getCode() == CHANGE_STREAM_HISTORY_LOST || e.getCode() == CHANGE_STREAM_FATAL_ERROR) {
+                    log.warn("Cannot resume the change stream of {}, invalidating everything and starting from now: {}", COLLECTION, e.getMessage());
+                    restartFromNow();
+                } else {
+                    log.error("Change stream of {} failed, retrying", COLLECTION, e);
+                    pause();
+                }
+            } catch (RuntimeException e) {
+                log.error("Change stream of {} failed, retrying", COLLECTION, e);
+                pause();
+            }
+        }
+    }
+
+    private void consume() {
+        ChangeStreamIterable<Document> changes = mongoTemplate.getCollection(COLLECTION)
+                .watch(PIPELINE)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(MAX_AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            changes = changes.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changes.cursor()) {
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    invalidations(change.getOperationType(), toReview(change.getFullDocument()), toReview(change.getFullDocumentBeforeChange()))
+                            .forEach(eventPublisher::publishEvent);
+                }
+                // the post batch token also moves while the collection is quiet, so the saved one doesn't fall out of the oplog
+                if (cursor.getResumeToken() != null) {
+                    resumeToken = cursor.getResumeToken();
+                }
+                if (change != null && change.getOperationType() == OperationType.INVALIDATE) {
+                    // the stream is closed after an invalidate and cannot be resumed past it
+                    restartFromNow();
+                    return;
+                }
+                if (System.currentTimeMillis() - lastCheckpointMillis >= checkpointIntervalMillis) {
+                    checkpoint();
+                }
+            }
+        }
+    }
+
+    private Review toReview(Document document) {
+        return document == null ? null : mongoTemplate.getConverter().read(Review.class, document);
+    }
+
+    private void restartFromNow() {
+        // the saved token is overwritten at the next checkpoint
+        resumeToken = null;
+        checkpointedToken = null;
+        eventPublisher.publishEvent(new AllReviewsInvalidatedEvent());
+    }
+
+    private void checkpoint() {
+        lastCheckpointMillis = System.currentTimeMillis();
+        if (resumeToken == null || resumeToken.equals(checkpointedToken)) {
+            return;
+        }
+
+        try {
+            changeStreamOffsetRepository.save(ChangeStreamOffset.builder()
+                    .key(offsetKey)
+                    .resumeToken(resumeToken.toJson())
+                    .updatedOn(Instant.now())
+                    .build());
+            checkpointedToken = resumeToken;
+        } catch (RuntimeException e) {
+            // retried at the next checkpoint, a restart in between replays a few more changes
+            log.warn("Failed to save the resume token of the change stream of {}: {}", COLLECTION, e.getMessage());
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Events for one change of the collection, given the review after and before it as far as they are known.
+     */
+    static List<ReviewInvalidationEvent> invalidations(OperationType operationType, Review after, Review before) {
+        switch (operationType) {
+            case INSERT, UPDATE, REPLACE, DELETE -> {
+                Set<UUID> movieIds = new LinkedHashSet<>();
+                Set<UUID> userIds = new LinkedHashSet<>();
+                for (Review review : new Review[]{after, before}) {
+                    if (review != null && review.getMovieId() != null && review.getUserId() != null) {
+                        movieIds.add(review.getMovieId());
+                        userIds.add(review.getUserId());
+                    }
+                }
+                if (movieIds.isEmpty()) {
+                    return List.of(new AllReviewsInvalidatedEvent());
+                }
+
+                List<ReviewInvalidationEvent> events = new ArrayList<>(movieIds.size() + userIds.size());
+                movieIds.forEach(movieId -> events.add(new MovieReviewsInvalidatedEvent(movieId)));
+                userIds.forEach(userId -> events.add(new UserReviewsInvalidatedEvent(userId)));
+                return events;
+            }
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> {
+                return List.of(new AllReviewsInvalidatedEvent());
+            }
+            default -> {
+                return List.of();
+            }
+        }
+    }
+}
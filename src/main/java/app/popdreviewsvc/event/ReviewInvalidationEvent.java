@@ -0,0 +1,9 @@
+package app.popdreviewsvc.event;
+
+/**
+ * Reviews changed in the database, possibly by another instance of the service. Published as an application event
+ * so that local caches and derived views can drop what they hold for the affected keys.
+ */
+public sealed interface ReviewInvalidationEvent
+        permits MovieReviewsInvalidatedEvent, UserReviewsInvalidatedEvent, AllReviewsInvalidatedEvent {
+}
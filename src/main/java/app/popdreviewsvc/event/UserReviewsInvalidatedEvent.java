@@ -0,0 +1,9 @@
+package app.popdreviewsvc.event;
+
+import java.util.UUID;
+
+/**
+ * A review of the user was created, updated or removed.
+ */
+public record UserReviewsInvalidatedEvent(UUID userId) implements ReviewInvalidationEvent {
+}
@@ -0,0 +1,8 @@
+package app.popdreviewsvc.exception;
+
+public class BatchSizeExceededException extends RuntimeException {
+
+    public BatchSizeExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package app.popdreviewsvc.exception;
+
+import org.springframework.dao.QueryTimeoutException;
+
+/**
+ * The time budget of the request ran out before or while Mongo served it. A {@link QueryTimeoutException}, so
+ * that it passes through Spring's exception translation as it is.
+ */
+public class DeadlineExceededException extends QueryTimeoutException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
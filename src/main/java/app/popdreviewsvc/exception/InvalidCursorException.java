@@ -0,0 +1,8 @@
+package app.popdreviewsvc.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
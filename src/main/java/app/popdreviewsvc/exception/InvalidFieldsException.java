@@ -0,0 +1,8 @@
+package app.popdreviewsvc.exception;
+
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package app.popdreviewsvc.exception;
+
+public class InvalidLookupException extends RuntimeException {
+
+    public InvalidLookupException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package app.popdreviewsvc.exception;
+
+public class InvalidPageSizeException extends RuntimeException {
+
+    public InvalidPageSizeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package app.popdreviewsvc.exception;
+
+public class InvalidSearchQueryException extends RuntimeException {
+
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package app.popdreviewsvc.exception;
+
+public class InvalidTrendingWindowException extends RuntimeException {
+
+    public InvalidTrendingWindowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package app.popdreviewsvc.exception;
+
+public class SearchUnavailableException extends RuntimeException {
+
+    public SearchUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+package app.popdreviewsvc.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Last change stream position a consumer has processed, so that it resumes from there after a restart instead of
+ * missing the changes made while it was down.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("change_stream_offsets")
+public class ChangeStreamOffset {
+
+    // "<collection>:<consumerId>"
+    @Id
+    private String key;
+
+    // resume token as extended JSON
+    private String resumeToken;
+
+    private Instant updatedOn;
+
+    public static String key(String collection, String consumerId) {
+        return collection + ":" + consumerId;
+    }
+}
@@ -0,0 +1,36 @@
+package app.popdreviewsvc.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-movie review aggregates, kept up to date with atomic {@code $inc} operations
+ * on every review write so that stats reads never have to touch the {@code reviews} collection.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("movie_review_stats")
+public class MovieReviewStats {
+
+    public static final int MIN_RATING = 1;
+
+    public static final int MAX_RATING = 10;
+
+    @Id
+    private UUID movieId;
+
+    private Long totalReviews;
+
+    private Long ratedReviews;
+
+    private Long ratingSum;
+
+    // keyed by the rating as a string ("1".."10"), Mongo document keys must be strings
+    private Map<String, Long> ratingDistribution;
+}
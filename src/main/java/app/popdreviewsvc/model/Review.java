@@ -3,6 +3,7 @@ package app.popdreviewsvc.model;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -13,7 +14,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document("reviews")
-@CompoundIndex(def = "{'userId':1, 'movieId':1}", unique = true)
+@CompoundIndexes({
+        @CompoundIndex(def = "{'userId':1, 'movieId':1}", unique = true),
+        @CompoundIndex(name = "movie_latest_idx", def = "{'movieId':1, 'updatedOn':-1, '_id':-1}"),
+        @CompoundIndex(name = "user_latest_idx", def = "{'userId':1, 'createdOn':-1}")
+})
 public class Review {
 
     @Id
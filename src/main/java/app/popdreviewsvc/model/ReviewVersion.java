@@ -0,0 +1,49 @@
+package app.popdreviewsvc.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Version of the reviews of one movie or of one user, bumped after every review write that touches them,
+ * so that conditional GETs can be answered without reading the {@code reviews} collection.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("review_versions")
+public class ReviewVersion {
+
+    // bumped by writes that may have touched any movie or user, and the baseline of keys that were never written
+    public static final String ALL_KEY = "all";
+
+    // "movie:<movieId>" or "user:<userId>"
+    @Id
+    private String key;
+
+    private Long version;
+
+    private Instant lastModified;
+
+    /**
+     * Version of a key that has never been written, which is not stored. Stored versions start at 1 and only go up,
+     * so a baseline never equals a version the key gets later, and it moves with every bump of {@link #ALL_KEY}.
+     */
+    public static ReviewVersion baseline(String key, ReviewVersion all) {
+        return all == null
+                ? new ReviewVersion(key, 0L, Instant.EPOCH)
+                : new ReviewVersion(key, -all.getVersion(), all.getLastModified());
+    }
+
+    public static String movieKey(UUID movieId) {
+        return "movie:" + movieId;
+    }
+
+    public static String userKey(UUID userId) {
+        return "user:" + userId;
+    }
+}
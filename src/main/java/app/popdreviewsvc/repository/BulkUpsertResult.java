@@ -0,0 +1,16 @@
+package app.popdreviewsvc.repository;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outcome of an unordered bulk upsert, keyed by the position of each review in the submitted list.
+ * Positions that are neither inserted, failed nor conflicted were applied as updates. Conflicted positions were not
+ * written because the stored review changed after it was read, see {@link ReviewRepositoryCustom#bulkUpsertIfUnchanged}.
+ */
+public record BulkUpsertResult(Set<Integer> insertedIndexes, Map<Integer, String> failedIndexes, Set<Integer> conflictedIndexes) {
+
+    public BulkUpsertResult(Set<Integer> insertedIndexes, Map<Integer, String> failedIndexes) {
+        this(insertedIndexes, failedIndexes, Set.of());
+    }
+}
@@ -0,0 +1,9 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.ChangeStreamOffset;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeStreamOffsetRepository extends MongoRepository<ChangeStreamOffset, String> {
+}
@@ -0,0 +1,88 @@
+package app.popdreviewsvc.repository;
+
+import org.bson.BsonBinarySubType;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Stores {@code Review.content} of at least {@code threshold} characters as deflate-compressed UTF-8 in a
+ * user-defined BSON binary, and shorter content as a plain string. Reads accept both forms, so compressed and
+ * uncompressed documents can live side by side. The converter only runs when {@code content} is part of the
+ * read document, so projections without it (see {@link ReviewField}) never pay for decompression.
+ */
+public class CompressedContentConverter implements MongoValueConverter<String, Object> {
+
+    public static final byte SUBTYPE = BsonBinarySubType.USER_DEFINED.getValue();
+
+    private final int threshold;
+
+    public CompressedContentConverter(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public String read(Object value, MongoConversionContext context) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Binary binary && binary.getType() == SUBTYPE) {
+            return decompress(binary.getData());
+        }
+
+        return value.toString();
+    }
+
+    @Override
+    public Object write(String value, MongoConversionContext context) {
+        return compressIfLarge(value);
+    }
+
+    /**
+     * @return a compressed {@link Binary}, or the content itself when it is {@code null}, below the threshold or does
+     * not shrink
+     */
+    public Object compressIfLarge(String content) {
+        if (content == null || content.length() < threshold) {
+            return content;
+        }
+
+        byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = compress(utf8);
+
+        return compressed.length < utf8.length ? new Binary(SUBTYPE, compressed) : content;
+    }
+
+    static byte[] compress(byte[] data) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2);
+        try (OutputStream deflater = new DeflaterOutputStream(compressed)) {
+            deflater.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return compressed.toByteArray();
+    }
+
+    static String decompress(byte[] data) {
+        try (InputStream inflater = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            return new String(inflater.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt compressed review content", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.MovieReviewStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface MovieReviewStatsRepository extends MongoRepository<MovieReviewStats, UUID>, MovieReviewStatsRepositoryCustom {
+
+    // cursor-backed, the caller must close it
+    @Query(value = "{ 'ratedReviews': { '$gt': 0 } }", fields = "{ 'ratedReviews': 1, 'ratingSum': 1 }")
+    Stream<MovieReviewStats> streamRatedMovies();
+}
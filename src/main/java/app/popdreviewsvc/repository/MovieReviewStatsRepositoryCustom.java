@@ -0,0 +1,29 @@
+package app.popdreviewsvc.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface MovieReviewStatsRepositoryCustom {
+
+    /**
+     * Atomically applies a review change to the stats document of the movie, creating it if missing.
+     *
+     * @param reviewsDelta +1 for a new review, -1 for a removed one, 0 for an edit
+     * @param oldRating    rating being taken out of the aggregates, or {@code null}
+     * @param newRating    rating being added to the aggregates, or {@code null}
+     */
+    void applyReviewChange(UUID movieId, int reviewsDelta, Integer oldRating, Integer newRating);
+
+    /**
+     * Applies many review changes with one unordered bulk write, folding changes of the same movie into one update.
+     */
+    void applyReviewChanges(List<ReviewChange> changes);
+
+    /**
+     * Recomputes every stats document from the {@code reviews} collection. Documents are replaced in place, so it
+     * can run while the service is live; stats of movies without reviews are removed afterwards.
+     *
+     * @return number of movies with stats after the rebuild
+     */
+    long rebuildFromReviews();
+}
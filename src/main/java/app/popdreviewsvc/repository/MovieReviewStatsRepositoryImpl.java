@@ -0,0 +1,164 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.MovieReviewStats;
+import app.popdreviewsvc.model.Review;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class MovieReviewStatsRepositoryImpl implements MovieReviewStatsRepositoryCustom {
+
+    // id of the last rebuild that wrote the document, see rebuildFromReviews
+    static final String REBUILD_ID = "rebuildId";
+
+    private final MongoTemplate mongoTemplate;
+
+    public MovieReviewStatsRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void applyReviewChange(UUID movieId, int reviewsDelta, Integer oldRating, Integer newRating) {
+        Map<String, Long> increments = new LinkedHashMap<>();
+        addIncrements(increments, reviewsDelta, oldRating, newRating);
+
+        Update update = toUpdate(increments);
+        if (update == null) {
+            return;
+        }
+
+        mongoTemplate.upsert(Query.query(where("movieId").is(movieId)), update, MovieReviewStats.class);
+    }
+
+    @Override
+    public void applyReviewChanges(List<ReviewChange> changes) {
+        Map<UUID, Map<String, Long>> incrementsByMovie = new LinkedHashMap<>();
+        for (ReviewChange change : changes) {
+            addIncrements(incrementsByMovie.computeIfAbsent(change.movieId(), id -> new LinkedHashMap<>()),
+                    change.reviewsDelta(), change.oldRating(), change.newRating());
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MovieReviewStats.class);
+        boolean hasUpdates = false;
+        for (Map.Entry<UUID, Map<String, Long>> entry : incrementsByMovie.entrySet()) {
+            Update update = toUpdate(entry.getValue());
+            if (update != null) {
+                bulkOperations.upsert(Query.query(where("movieId").is(entry.getKey())), update);
+                hasUpdates = true;
+            }
+        }
+
+        if (hasUpdates) {
+            bulkOperations.execute();
+        }
+    }
+
+    @Override
+    public long rebuildFromReviews() {
+        // documents written by this rebuild carry its id, anything else is either stale or created by a concurrent write
+        String rebuildId = UUID.randomUUID().toString();
+        String statsCollection = mongoTemplate.getCollectionName(MovieReviewStats.class);
+
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Review.class))
+                .aggregate(rebuildPipeline(statsCollection, rebuildId))
+                .allowDiskUse(true)
+                .toCollection();
+
+        Query notRebuilt = Query.query(where(REBUILD_ID).ne(rebuildId));
+        notRebuilt.fields().include("totalReviews");
+        try (Stream<Document> leftovers = mongoTemplate.stream(notRebuilt, Document.class, statsCollection)) {
+            leftovers.forEach(stats -> removeIfNoReviews(stats, rebuildId, statsCollection));
+        }
+
+        return mongoTemplate.count(Query.query(where(REBUILD_ID).is(rebuildId)), statsCollection);
+    }
+
+    /**
+     * Groups the reviews into one stats document per movie and merges them over the existing ones, so reads never
+     * see a movie without stats while the rebuild runs.
+     */
+    static List<Document> rebuildPipeline(String statsCollection, String rebuildId) {
+        // reviews without a rating are grouped under a missing rather than a null rating
+        Document isUnrated = new Document("$eq", Arrays.asList(new Document("$ifNull", Arrays.asList("$_id.rating", null)), null));
+        Document isHistogramRating = new Document("$and", List.of(
+                new Document("$gte", List.of("$_id.rating", MovieReviewStats.MIN_RATING)),
+                new Document("$lte", List.of("$_id.rating", MovieReviewStats.MAX_RATING))));
+
+        return List.of(
+                new Document("$group", new Document("_id", new Document("movieId", "$movieId").append("rating", "$rating"))
+                        .append("count", new Document("$sum", 1L))),
+                new Document("$group", new Document("_id", "$_id.movieId")
+                        .append("totalReviews", new Document("$sum", "$count"))
+                        .append("ratedReviews", new Document("$sum",
+                                new Document("$cond", Arrays.asList(isUnrated, 0L, "$count"))))
+                        .append("ratingSum", new Document("$sum",
+                                new Document("$toLong", new Document("$multiply", List.of(new Document("$ifNull", List.of("$_id.rating", 0)), "$count")))))
+                        .append("ratingDistribution", new Document("$push",
+                                new Document("$cond", Arrays.asList(isHistogramRating,
+                                        new Document("k", new Document("$toString", "$_id.rating")).append("v", "$count"),
+                                        null))))),
+                new Document("$set", new Document("ratingDistribution", new Document("$arrayToObject",
+                        new Document("$filter", new Document("input", "$ratingDistribution")
+                                .append("cond", new Document("$ne", Arrays.asList("$$this", null))))))
+                        .append(REBUILD_ID, rebuildId)),
+                new Document("$merge", new Document("into", statsCollection)
+                        .append("on", "_id")
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+    }
+
+    // a concurrent first review of the movie changes totalReviews, which makes the delete miss instead of losing it
+    private void removeIfNoReviews(Document stats, String rebuildId, String statsCollection) {
+        Object movieId = stats.get("_id");
+        if (mongoTemplate.exists(Query.query(where("movieId").is(movieId)), Review.class)) {
+            return;
+        }
+
+        mongoTemplate.remove(Query.query(where("_id").is(movieId)
+                .and(REBUILD_ID).ne(rebuildId)
+                .and("totalReviews").is(stats.get("totalReviews"))), statsCollection);
+    }
+
+    static void addIncrements(Map<String, Long> increments, int reviewsDelta, Integer oldRating, Integer newRating) {
+        if (reviewsDelta != 0) {
+            increments.merge("totalReviews", (long) reviewsDelta, Long::sum);
+        }
+        if (oldRating != null) {
+            increments.merge("ratedReviews", -1L, Long::sum);
+            increments.merge("ratingSum", (long) -oldRating, Long::sum);
+            if (isHistogramRating(oldRating)) {
+                increments.merge("ratingDistribution." + oldRating, -1L, Long::sum);
+            }
+        }
+        if (newRating != null) {
+            increments.merge("ratedReviews", 1L, Long::sum);
+            increments.merge("ratingSum", (long) newRating, Long::sum);
+            if (isHistogramRating(newRating)) {
+                increments.merge("ratingDistribution." + newRating, 1L, Long::sum);
+            }
+        }
+    }
+
+    // null when every increment cancelled out and there is nothing to write
+    static Update toUpdate(Map<String, Long> increments) {
+        increments.values().removeIf(delta -> delta == 0);
+        if (increments.isEmpty()) {
+            return null;
+        }
+
+        Update update = new Update();
+        increments.forEach(update::inc);
+        return update;
+    }
+
+    private static boolean isHistogramRating(Integer rating) {
+        return rating >= MovieReviewStats.MIN_RATING && rating <= MovieReviewStats.MAX_RATING;
+    }
+}
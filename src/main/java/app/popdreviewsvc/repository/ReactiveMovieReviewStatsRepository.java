@@ -0,0 +1,11 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.MovieReviewStats;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveMovieReviewStatsRepository extends ReactiveMongoRepository<MovieReviewStats, UUID>, ReactiveMovieReviewStatsRepositoryCustom {
+}
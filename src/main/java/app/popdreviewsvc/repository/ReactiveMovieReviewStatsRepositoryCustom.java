@@ -0,0 +1,13 @@
+package app.popdreviewsvc.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface ReactiveMovieReviewStatsRepositoryCustom {
+
+    /**
+     * Reactive {@link MovieReviewStatsRepositoryCustom#applyReviewChange}.
+     */
+    Mono<Void> applyReviewChange(UUID movieId, int reviewsDelta, Integer oldRating, Integer newRating);
+}
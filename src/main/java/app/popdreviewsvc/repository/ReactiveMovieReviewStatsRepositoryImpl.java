@@ -0,0 +1,35 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.MovieReviewStats;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class ReactiveMovieReviewStatsRepositoryImpl implements ReactiveMovieReviewStatsRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveMovieReviewStatsRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<Void> applyReviewChange(UUID movieId, int reviewsDelta, Integer oldRating, Integer newRating) {
+        Map<String, Long> increments = new LinkedHashMap<>();
+        MovieReviewStatsRepositoryImpl.addIncrements(increments, reviewsDelta, oldRating, newRating);
+
+        Update update = MovieReviewStatsRepositoryImpl.toUpdate(increments);
+        if (update == null) {
+            return Mono.empty();
+        }
+
+        return reactiveMongoTemplate.upsert(Query.query(where("movieId").is(movieId)), update, MovieReviewStats.class).then();
+    }
+}
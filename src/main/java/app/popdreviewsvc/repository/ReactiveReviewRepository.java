@@ -0,0 +1,44 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.Review;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link ReviewRepository} for the {@code /api/v2} endpoints, running the same queries
+ * on the same indexes through the reactive Mongo driver.
+ */
+@Repository
+public interface ReactiveReviewRepository extends ReactiveMongoRepository<Review, UUID>, ReactiveReviewRepositoryCustom {
+
+    Mono<Review> findByUserIdAndMovieId(UUID userId, UUID movieId);
+
+    Flux<Review> findByMovieIdOrderByUpdatedOnDesc(UUID movieId, Pageable pageable);
+
+    Mono<Long> countByMovieId(UUID movieId);
+
+    Flux<Review> findByMovieIdOrderByUpdatedOnDescIdDesc(UUID movieId, Pageable pageable);
+
+    /**
+     * Keyset continuation of {@link #findByMovieIdOrderByUpdatedOnDescIdDesc}, see
+     * {@link ReviewRepository#findSliceByMovieIdAfterCursor}.
+     */
+    @Query(value = "{ 'movieId': ?0, '$or': [ { 'updatedOn': { '$lt': ?1 } }, { 'updatedOn': ?1, '_id': { '$lt': ?2 } } ] }",
+            sort = "{ 'updatedOn': -1, '_id': -1 }")
+    Flux<Review> findByMovieIdAfterCursor(UUID movieId, LocalDateTime updatedOn, UUID id, Pageable pageable);
+
+    Mono<Long> countByUserId(UUID userId);
+
+    Flux<Review> findByUserIdOrderByCreatedOnDesc(UUID userId, Pageable pageable);
+
+    Flux<Review> findAllByMovieId(UUID movieId);
+
+    Flux<Review> findAllByUserId(UUID userId);
+}
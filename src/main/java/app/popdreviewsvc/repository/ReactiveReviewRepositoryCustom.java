@@ -0,0 +1,13 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.Review;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveReviewRepositoryCustom {
+
+    /**
+     * Reactive {@link ReviewRepositoryCustom#upsertByUserIdAndMovieId}: emits the review as it was before the
+     * write, or completes empty when it was inserted.
+     */
+    Mono<Review> upsertByUserIdAndMovieId(Review review);
+}
@@ -0,0 +1,29 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.Review;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+public class ReactiveReviewRepositoryImpl implements ReactiveReviewRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveReviewRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<Review> upsertByUserIdAndMovieId(Review review) {
+        Query query = ReviewRepositoryImpl.byUserIdAndMovieId(review);
+        Update update = ReviewRepositoryImpl.upsertUpdate(review);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(false);
+
+        // a concurrent first-time upsert inserted the same {userId, movieId} first, so this one is now an update
+        return reactiveMongoTemplate.findAndModify(query, update, options, Review.class)
+                .onErrorResume(DuplicateKeyException.class, e -> reactiveMongoTemplate.findAndModify(query, update, options, Review.class));
+    }
+}
@@ -0,0 +1,9 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.ReviewVersion;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactiveReviewVersionRepository extends ReactiveMongoRepository<ReviewVersion, String>, ReactiveReviewVersionRepositoryCustom {
+}
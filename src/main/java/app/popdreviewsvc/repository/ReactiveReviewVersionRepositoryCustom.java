@@ -0,0 +1,14 @@
+package app.popdreviewsvc.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface ReactiveReviewVersionRepositoryCustom {
+
+    /**
+     * Reactive {@link ReviewVersionRepositoryCustom#bump}.
+     */
+    Mono<Void> bump(Collection<UUID> movieIds, Collection<UUID> userIds);
+}
@@ -0,0 +1,38 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.ReviewVersion;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class ReactiveReviewVersionRepositoryImpl implements ReactiveReviewVersionRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public ReactiveReviewVersionRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+    }
+
+    @Override
+    public Mono<Void> bump(Collection<UUID> movieIds, Collection<UUID> userIds) {
+        List<String> keys = ReviewVersionRepositoryImpl.keys(movieIds, userIds);
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+
+        Update update = ReviewVersionRepositoryImpl.bumpUpdate(Instant.now());
+        ReactiveBulkOperations bulkOperations = reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReviewVersion.class);
+        keys.forEach(key -> bulkOperations.upsert(Query.query(where("key").is(key)), update));
+        return bulkOperations.execute().then();
+    }
+}
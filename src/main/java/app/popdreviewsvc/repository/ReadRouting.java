@@ -0,0 +1,92 @@
+package app.popdreviewsvc.repository;
+
+import com.mongodb.ReadPreference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Read preference of the queries made by the current thread, applied by the Mongo template to every collection it
+ * hands out. Unset means the primary.
+ * <p>
+ * Reads of {@link SecondaryReads} methods go to {@code secondaryPreferred} with {@code maxStalenessSeconds}, unless
+ * an enclosing call already decided where they go, e.g. {@link #consistentWith} pinning them to the primary.
+ */
+@Component
+public class ReadRouting {
+
+    // smallest maxStalenessSeconds MongoDB accepts
+    public static final long MIN_MAX_STALENESS_SECONDS = 90;
+
+    // servers judge the staleness of a secondary from heartbeats, so it may be off by one heartbeat interval
+    private static final Duration STALENESS_ESTIMATE_ERROR = Duration.ofSeconds(10);
+
+    private static final ThreadLocal<ReadPreference> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final ReadPreference secondaryReads;
+    private final Duration stalenessBound;
+
+    public ReadRouting(@Value("${reviews.read-routing.enabled:false}") boolean enabled,
+                       @Value("${reviews.read-routing.max-staleness-seconds:90}") long maxStalenessSeconds) {
+        if (maxStalenessSeconds < MIN_MAX_STALENESS_SECONDS) {
+            throw new IllegalArgumentException("reviews.read-routing.max-staleness-seconds must be at least " + MIN_MAX_STALENESS_SECONDS);
+        }
+        this.enabled = enabled;
+        this.secondaryReads = ReadPreference.secondaryPreferred(maxStalenessSeconds, TimeUnit.SECONDS);
+        this.stalenessBound = Duration.ofSeconds(maxStalenessSeconds).plus(STALENESS_ESTIMATE_ERROR);
+    }
+
+    public static ReadPreference current() {
+        return CURRENT.get();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ReadPreference getSecondaryReads() {
+        return secondaryReads;
+    }
+
+    /**
+     * Runs the read of a {@link SecondaryReads} method.
+     */
+    public <T> T onSecondary(Read<T> read) throws Throwable {
+        if (!enabled || CURRENT.get() != null) {
+            return read.get();
+        }
+        CURRENT.set(secondaryReads);
+        try {
+            return read.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Runs the read on the primary when data modified at {@code lastModified} may not have reached every
+     * secondary yet, so that data served under a version (an {@code ETag}, or a cache entry) is never older than it.
+     * Data not modified within the staleness bound is on every secondary that may be read.
+     */
+    public <T> T consistentWith(Instant lastModified, Supplier<T> read) {
+        if (!enabled || CURRENT.get() != null || lastModified.isBefore(Instant.now().minus(stalenessBound))) {
+            return read.get();
+        }
+        CURRENT.set(ReadPreference.primary());
+        try {
+            return read.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Read<T> {
+        T get() throws Throwable;
+    }
+}
@@ -0,0 +1,41 @@
+package app.popdreviewsvc.repository;
+
+import java.time.Duration;
+
+/**
+ * Deadline of the request served by the current thread. While one is set, every Mongo operation of the blocking
+ * template is given the remaining time as its timeout, which the driver sends as {@code maxTimeMS}, so the database
+ * stops working on a request its caller has given up on. Unset means no deadline.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void start(Duration budget) {
+        DEADLINE_NANOS.set(System.nanoTime() + budget.toNanos());
+    }
+
+    public static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    public static boolean isSet() {
+        return DEADLINE_NANOS.get() != null;
+    }
+
+    /**
+     * Milliseconds left until the deadline, zero or less once it has passed.
+     *
+     * @throws IllegalStateException if no deadline is set
+     */
+    public static long remainingMillis() {
+        Long deadlineNanos = DEADLINE_NANOS.get();
+        if (deadlineNanos == null) {
+            throw new IllegalStateException("No request deadline is set");
+        }
+        return Duration.ofNanos(deadlineNanos - System.nanoTime()).toMillis();
+    }
+}
@@ -0,0 +1,10 @@
+package app.popdreviewsvc.repository;
+
+import java.util.UUID;
+
+/**
+ * A single review write as seen by the movie stats: {@code reviewsDelta} is +1 for a new review, -1 for a
+ * removed one and 0 for an edit, {@code oldRating}/{@code newRating} are the ratings taken out and put in.
+ */
+public record ReviewChange(UUID movieId, int reviewsDelta, Integer oldRating, Integer newRating) {
+}
@@ -0,0 +1,72 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.exception.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of a review that list endpoints can be asked for with {@code fields=}. Only the requested fields are
+ * read from Mongo; {@link #SNIPPET} is the first {@value #SNIPPET_LENGTH} characters of the content, cut
+ * by the database so the full content is never sent over the wire.
+ */
+public enum ReviewField {
+
+    USER_ID("userId"),
+    MOVIE_ID("movieId"),
+    RATING("rating"),
+    TITLE("title"),
+    CONTENT("content"),
+    SNIPPET("snippet"),
+    CREATED_ON("createdOn"),
+    UPDATED_ON("updatedOn");
+
+    public static final int SNIPPET_LENGTH = 200;
+
+    private final String property;
+
+    ReviewField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Parses a comma-separated list of field names, e.g. {@code title,rating,updatedOn}.
+     *
+     * @return the requested fields, or {@code null} when none were given and every field should be returned
+     */
+    public static Set<ReviewField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<ReviewField> parsed = EnumSet.noneOf(ReviewField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidFieldsException("Unknown review field [%s], expected any of %s".formatted(trimmed,
+                            Arrays.stream(values()).map(ReviewField::getProperty).collect(Collectors.joining(", ", "[", "]"))))));
+        }
+
+        return parsed.isEmpty() ? null : parsed;
+    }
+
+    // counts code points like Mongo's $substrCP, so a snippet cut by the database is returned unchanged
+    public static String snippet(String content) {
+        if (content == null || content.codePointCount(0, content.length()) <= SNIPPET_LENGTH) {
+            return content;
+        }
+
+        return content.substring(0, content.offsetByCodePoints(0, SNIPPET_LENGTH));
+    }
+}
@@ -1,27 +1,64 @@
 package app.popdreviewsvc.repository;
 
 import app.popdreviewsvc.model.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReviewRepository extends MongoRepository<Review, UUID> {
+public interface ReviewRepository extends MongoRepository<Review, UUID>, ReviewRepositoryCustom {
 
     Optional<Review> findByUserIdAndMovieId(UUID userId, UUID movieId);
 
-    List<Review> findAllByMovieIdOrderByUpdatedOnDesc(UUID movieId);
+    // {userId, movieId: {$in: movieIds}}, served by the unique {userId, movieId} index
+    List<Review> findAllByUserIdAndMovieIdIn(UUID userId, Collection<UUID> movieIds);
+
+    List<Review> findAllByMovieIdOrderByUpdatedOnDesc(UUID movieId, Limit limit);
 
     Page<Review> findByMovieIdOrderByUpdatedOnDesc(UUID movieId, Pageable pageable);
 
+    long countByMovieId(UUID movieId);
+
+    Slice<Review> findSliceByMovieIdOrderByUpdatedOnDescIdDesc(UUID movieId, Pageable pageable);
+
+    /**
+     * Keyset continuation of {@link #findSliceByMovieIdOrderByUpdatedOnDescIdDesc}: seeks past the
+     * last returned {@code (updatedOn, id)} on the {@code {movieId, updatedOn, _id}} index instead of skipping.
+     */
+    @Query(value = "{ 'movieId': ?0, '$or': [ { 'updatedOn': { '$lt': ?1 } }, { 'updatedOn': ?1, '_id': { '$lt': ?2 } } ] }",
+            sort = "{ 'updatedOn': -1, '_id': -1 }")
+    Slice<Review> findSliceByMovieIdAfterCursor(UUID movieId, LocalDateTime updatedOn, UUID id, Pageable pageable);
+
     List<Review> findAllByMovieId(UUID movieId);
 
     List<Review> findAllByUserId(UUID userId);
 
-    List<Review> findAllByUserIdOrderByCreatedOnDesc(UUID userId);
+    List<Review> findAllByUserIdOrderByCreatedOnDesc(UUID userId, Limit limit);
+
+    // cursor-backed streams for exports, the caller must close them
+    Stream<Review> streamAllByMovieId(UUID movieId);
+
+    Stream<Review> streamAllByUserId(UUID userId);
+
+    @Query("{}")
+    Stream<Review> streamAllBy();
+
+    // only what the trending counters need, so content is never read
+    @Query(value = "{ 'updatedOn': { '$gte': ?0 } }", fields = "{ 'movieId': 1, 'updatedOn': 1 }")
+    Stream<Review> streamMovieActivitySince(LocalDateTime since);
+
+    // everything the search index needs, in natural order
+    @Query(value = "{}", fields = "{ 'userId': 1, 'movieId': 1, 'title': 1, 'content': 1, 'updatedOn': 1 }")
+    Stream<Review> streamSearchableReviews();
 }
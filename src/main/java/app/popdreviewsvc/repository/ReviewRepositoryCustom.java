@@ -0,0 +1,68 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.Review;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+public interface ReviewRepositoryCustom {
+
+    /**
+     * Atomically inserts or updates the review of {@code review.userId} for {@code review.movieId} in a single
+     * {@code findAndModify}. {@code id} and {@code createdOn} are only written on insert.
+     *
+     * @return the review as it was before the write, or empty if it was inserted
+     */
+    Optional<Review> upsertByUserIdAndMovieId(Review review);
+
+    /**
+     * Loads the stored reviews matching the {@code (userId, movieId)} pair of each given review, in one query.
+     */
+    List<Review> findAllByUserIdAndMovieIdPairs(List<Review> reviews);
+
+    /**
+     * Upserts all reviews with one unordered bulk write, with the same field semantics as
+     * {@link #upsertByUserIdAndMovieId}. A failing review does not stop the others.
+     */
+    BulkUpsertResult bulkUpsertByUserIdAndMovieId(List<Review> reviews);
+
+    /**
+     * Like {@link #bulkUpsertByUserIdAndMovieId}, but each review is only written while its stored review is still
+     * {@code expected.get(i)}: the same {@code updatedOn}, or no review at all when it is {@code null}. Reviews whose
+     * stored review changed in between are reported in {@link BulkUpsertResult#conflictedIndexes()} and not written.
+     */
+    BulkUpsertResult bulkUpsertIfUnchanged(List<Review> reviews, List<Review> expected);
+
+    /**
+     * Like {@link #upsertByUserIdAndMovieId}, but leaves a stored review with a later {@code updatedOn} untouched.
+     *
+     * @return the review as it was before the write, or empty if it was inserted
+     * @throws org.springframework.dao.DuplicateKeyException when the stored review is newer
+     */
+    Optional<Review> upsertUnlessNewer(Review review);
+
+    /**
+     * Newest reviews of a movie by {@code updatedOn}, reading only the given fields from the database.
+     */
+    List<Review> findLatestByMovieId(UUID movieId, Pageable pageable, Set<ReviewField> fields);
+
+    /**
+     * Newest reviews of a user by {@code createdOn}, reading only the given fields from the database.
+     */
+    List<Review> findLatestByUserId(UUID userId, int limit, Set<ReviewField> fields);
+
+    /**
+     * Rewrites stored reviews whose content is still a plain string above the compression threshold in the
+     * compressed form of {@link CompressedContentConverter}. Reviews edited meanwhile are skipped; their new
+     * content is compressed on write anyway.
+     *
+     * @return number of reviews rewritten
+     */
+    long compressStoredContent();
+
+    ReviewStorageStats getStorageStats();
+}
@@ -0,0 +1,281 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.Review;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+
+    private static final int COMPRESS_BATCH_SIZE = 1000;
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final CompressedContentConverter compressedContentConverter;
+
+    public ReviewRepositoryImpl(MongoTemplate mongoTemplate, CompressedContentConverter compressedContentConverter) {
+        this.mongoTemplate = mongoTemplate;
+        this.compressedContentConverter = compressedContentConverter;
+    }
+
+    @Override
+    public Optional<Review> upsertByUserIdAndMovieId(Review review) {
+        Query query = byUserIdAndMovieId(review);
+        Update update = upsertUpdate(review);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(false);
+
+        try {
+            return Optional.ofNullable(mongoTemplate.findAndModify(query, update, options, Review.class));
+        } catch (DuplicateKeyException e) {
+            // a concurrent first-time upsert inserted the same {userId, movieId} first, so this one is now an update
+            return Optional.ofNullable(mongoTemplate.findAndModify(query, update, options, Review.class));
+        }
+    }
+
+    @Override
+    public List<Review> findAllByUserIdAndMovieIdPairs(List<Review> reviews) {
+        if (reviews.isEmpty()) {
+            return List.of();
+        }
+
+        Criteria[] pairs = reviews.stream()
+                .map(review -> where("userId").is(review.getUserId()).and("movieId").is(review.getMovieId()))
+                .toArray(Criteria[]::new);
+
+        return mongoTemplate.find(Query.query(new Criteria().orOperator(pairs)), Review.class);
+    }
+
+    @Override
+    public BulkUpsertResult bulkUpsertByUserIdAndMovieId(List<Review> reviews) {
+        if (reviews.isEmpty()) {
+            return new BulkUpsertResult(Set.of(), Map.of());
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class);
+        for (Review review : reviews) {
+            bulkOperations.upsert(byUserIdAndMovieId(review), upsertUpdate(review));
+        }
+
+        BulkWriteResult result;
+        Map<Integer, String> failedIndexes = new HashMap<>();
+        try {
+            result = bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            result = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                failedIndexes.put(error.getIndex(), error.getMessage());
+            }
+        }
+
+        Set<Integer> insertedIndexes = new HashSet<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            insertedIndexes.add(upsert.getIndex());
+        }
+
+        return new BulkUpsertResult(insertedIndexes, failedIndexes);
+    }
+
+    @Override
+    public BulkUpsertResult bulkUpsertIfUnchanged(List<Review> reviews, List<Review> expected) {
+        if (reviews.isEmpty()) {
+            return new BulkUpsertResult(Set.of(), Map.of());
+        }
+
+        // when the stored review no longer matches, the upsert tries to insert a second review of the same
+        // {userId, movieId} and fails on the unique index instead of overwriting a write it has not seen
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class);
+        for (int i = 0; i < reviews.size(); i++) {
+            Review review = reviews.get(i);
+            Review stored = expected.get(i);
+            Query query = byUserIdAndMovieId(review)
+                    .addCriteria(stored == null ? where("updatedOn").exists(false) : where("updatedOn").is(stored.getUpdatedOn()));
+            bulkOperations.upsert(query, upsertUpdate(review));
+        }
+
+        BulkWriteResult result;
+        Map<Integer, String> failedIndexes = new HashMap<>();
+        Set<Integer> conflictedIndexes = new HashSet<>();
+        try {
+            result = bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            result = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() == DUPLICATE_KEY_ERROR) {
+                    conflictedIndexes.add(error.getIndex());
+                } else {
+                    failedIndexes.put(error.getIndex(), error.getMessage());
+                }
+            }
+        }
+
+        Set<Integer> insertedIndexes = new HashSet<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            insertedIndexes.add(upsert.getIndex());
+        }
+
+        return new BulkUpsertResult(insertedIndexes, failedIndexes, conflictedIndexes);
+    }
+
+    @Override
+    public Optional<Review> upsertUnlessNewer(Review review) {
+        // a newer stored review makes the upsert insert a duplicate, which is what reports it
+        Query query = byUserIdAndMovieId(review).addCriteria(new Criteria().orOperator(
+                where("updatedOn").lte(review.getUpdatedOn()),
+                where("updatedOn").is(null)));
+        Update update = upsertUpdate(review);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(false);
+
+        try {
+            return Optional.ofNullable(mongoTemplate.findAndModify(query, update, options, Review.class));
+        } catch (DuplicateKeyException e) {
+            // either a concurrent first-time upsert won, retried as an update, or the stored review is newer
+            return Optional.ofNullable(mongoTemplate.findAndModify(query, update, options, Review.class));
+        }
+    }
+
+    @Override
+    public List<Review> findLatestByMovieId(UUID movieId, Pageable pageable, Set<ReviewField> fields) {
+        Query query = Query.query(where("movieId").is(movieId))
+                .with(Sort.by(Sort.Direction.DESC, "updatedOn"))
+                .with(pageable);
+
+        return mongoTemplate.find(project(query, fields), Review.class);
+    }
+
+    @Override
+    public List<Review> findLatestByUserId(UUID userId, int limit, Set<ReviewField> fields) {
+        Query query = Query.query(where("userId").is(userId))
+                .with(Sort.by(Sort.Direction.DESC, "createdOn"))
+                .limit(limit);
+
+        return mongoTemplate.find(project(query, fields), Review.class);
+    }
+
+    private static Query project(Query query, Set<ReviewField> fields) {
+        Field projection = query.fields();
+        for (ReviewField field : fields) {
+            if (field != ReviewField.SNIPPET) {
+                projection.include(field.getProperty());
+            } else if (!fields.contains(ReviewField.CONTENT)) {
+                // the snippet is returned in the content field, already cut to SNIPPET_LENGTH code points;
+                // compressed content can't be cut by the database and is returned whole, to be cut after reading
+                projection.project(MongoExpression.create(
+                                "{ '$cond': [ { '$eq': [ { '$type': '$content' }, 'string' ] }, { '$substrCP': [ '$content', 0, %d ] }, '$content' ] }"
+                                        .formatted(ReviewField.SNIPPET_LENGTH)))
+                        .as("content");
+            }
+        }
+
+        return query;
+    }
+
+    @Override
+    public long compressStoredContent() {
+        String collection = mongoTemplate.getCollectionName(Review.class);
+        Document uncompressedAboveThreshold = new Document("content", new Document("$type", "string"))
+                .append("$expr", new Document("$gte", List.of(new Document("$strLenCP", "$content"), compressedContentConverter.getThreshold())));
+        Query query = new BasicQuery(uncompressedAboveThreshold, new Document("content", 1).append("updatedOn", 1));
+
+        long compressed = 0;
+        BulkOperations bulkOperations = null;
+        int pending = 0;
+
+        // raw documents, so the content is read and written as stored instead of through the converter
+        try (Stream<Document> reviews = mongoTemplate.stream(query, Document.class, collection)) {
+            for (Iterator<Document> it = reviews.iterator(); it.hasNext(); ) {
+                Document review = it.next();
+                Object content = compressedContentConverter.compressIfLarge(review.getString("content"));
+                if (!(content instanceof Binary)) {
+                    continue;
+                }
+
+                if (bulkOperations == null) {
+                    bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+                }
+                bulkOperations.updateOne(
+                        Query.query(where("_id").is(review.get("_id")).and("updatedOn").is(review.get("updatedOn"))),
+                        Update.update("content", content));
+
+                if (++pending == COMPRESS_BATCH_SIZE) {
+                    compressed += bulkOperations.execute().getModifiedCount();
+                    bulkOperations = null;
+                    pending = 0;
+                }
+            }
+        }
+
+        if (bulkOperations != null) {
+            compressed += bulkOperations.execute().getModifiedCount();
+        }
+
+        return compressed;
+    }
+
+    @Override
+    public ReviewStorageStats getStorageStats() {
+        String collection = mongoTemplate.getCollectionName(Review.class);
+        Document collStats = mongoTemplate.getCollection(collection)
+                .aggregate(List.of(new Document("$collStats", new Document("storageStats", new Document()))))
+                .first();
+        Document storageStats = collStats == null ? new Document() : collStats.get("storageStats", new Document());
+
+        Long cachedBytes = null;
+        Document wiredTiger = storageStats.get("wiredTiger", Document.class);
+        if (wiredTiger != null && wiredTiger.get("cache") instanceof Document cache
+                && cache.get("bytes currently in the cache") instanceof Number bytes) {
+            cachedBytes = bytes.longValue();
+        }
+
+        long compressedReviews = mongoTemplate.count(
+                Query.query(where("content").type(JsonSchemaObject.Type.BINARY_DATA)), collection);
+
+        return new ReviewStorageStats(
+                longValue(storageStats, "count"),
+                compressedReviews,
+                longValue(storageStats, "size"),
+                longValue(storageStats, "avgObjSize"),
+                longValue(storageStats, "storageSize"),
+                longValue(storageStats, "totalIndexSize"),
+                cachedBytes);
+    }
+
+    private static long longValue(Document document, String key) {
+        return document.get(key) instanceof Number number ? number.longValue() : 0;
+    }
+
+    static Query byUserIdAndMovieId(Review review) {
+        return Query.query(where("userId").is(review.getUserId()).and("movieId").is(review.getMovieId()));
+    }
+
+    static Update upsertUpdate(Review review) {
+        return new Update()
+                .setOnInsert("id", review.getId())
+                .setOnInsert("createdOn", review.getCreatedOn())
+                .set("rating", review.getRating())
+                .set("title", review.getTitle())
+                .set("content", review.getContent())
+                .set("updatedOn", review.getUpdatedOn());
+    }
+}
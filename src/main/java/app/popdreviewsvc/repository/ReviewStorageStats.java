@@ -0,0 +1,12 @@
+package app.popdreviewsvc.repository;
+
+/**
+ * Size of the {@code reviews} collection as reported by {@code $collStats}, in bytes unless noted.
+ *
+ * @param dataSize    uncompressed size of all documents, what the WiredTiger cache holds when they are all in use
+ * @param storageSize size on disk after block compression
+ * @param cachedBytes bytes of the collection currently in the WiredTiger cache, {@code null} on other engines
+ */
+public record ReviewStorageStats(long reviews, long compressedReviews, long dataSize, long averageDocumentSize,
+                                 long storageSize, long indexSize, Long cachedBytes) {
+}
@@ -0,0 +1,9 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.ReviewVersion;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReviewVersionRepository extends MongoRepository<ReviewVersion, String>, ReviewVersionRepositoryCustom {
+}
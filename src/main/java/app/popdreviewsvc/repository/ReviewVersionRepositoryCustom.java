@@ -0,0 +1,26 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.ReviewVersion;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface ReviewVersionRepositoryCustom {
+
+    /**
+     * Increments the versions of the given movies and users with one unordered bulk write, creating missing ones.
+     */
+    void bump(Collection<UUID> movieIds, Collection<UUID> userIds);
+
+    /**
+     * Increments every stored version and the {@link ReviewVersion#ALL_KEY} version, for writes that may have
+     * touched any movie or user.
+     */
+    void bumpAll();
+
+    /**
+     * Current version of the key. A key that was never written gets a {@link ReviewVersion#baseline} that is not
+     * stored, so reads never write; its first bump creates it.
+     */
+    ReviewVersion getCurrent(String key);
+}
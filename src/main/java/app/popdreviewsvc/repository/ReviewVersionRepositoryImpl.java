@@ -0,0 +1,71 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.ReviewVersion;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class ReviewVersionRepositoryImpl implements ReviewVersionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ReviewVersionRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void bump(Collection<UUID> movieIds, Collection<UUID> userIds) {
+        List<String> keys = keys(movieIds, userIds);
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        Update update = bumpUpdate(Instant.now());
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReviewVersion.class);
+        keys.forEach(key -> bulkOperations.upsert(Query.query(where("key").is(key)), update));
+        bulkOperations.execute();
+    }
+
+    @Override
+    public void bumpAll() {
+        Update update = bumpUpdate(Instant.now());
+        mongoTemplate.upsert(Query.query(where("key").is(ReviewVersion.ALL_KEY)), update, ReviewVersion.class);
+        mongoTemplate.updateMulti(Query.query(where("key").ne(ReviewVersion.ALL_KEY)), update, ReviewVersion.class);
+    }
+
+    @Override
+    public ReviewVersion getCurrent(String key) {
+        ReviewVersion all = null;
+        for (ReviewVersion version : mongoTemplate.find(Query.query(where("key").in(key, ReviewVersion.ALL_KEY)), ReviewVersion.class)) {
+            if (version.getKey().equals(key)) {
+                return version;
+            }
+            all = version;
+        }
+
+        return ReviewVersion.baseline(key, all);
+    }
+
+    static List<String> keys(Collection<UUID> movieIds, Collection<UUID> userIds) {
+        return Stream.concat(
+                movieIds.stream().map(ReviewVersion::movieKey),
+                userIds.stream().map(ReviewVersion::userKey)
+        ).toList();
+    }
+
+    // $max keeps lastModified from going backwards when instances with skewed clocks bump the same key
+    static Update bumpUpdate(Instant now) {
+        return new Update()
+                .inc("version", 1)
+                .max("lastModified", now);
+    }
+}
@@ -0,0 +1,19 @@
+package app.popdreviewsvc.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only method whose queries may be served by a secondary at most
+ * {@code reviews.read-routing.max-staleness-seconds} behind the primary, when {@code reviews.read-routing.enabled}
+ * is on. Writes always go to the primary, and a method without it reads from the primary, so read-after-write
+ * lookups must not be annotated.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SecondaryReads {
+}
@@ -0,0 +1,24 @@
+package app.popdreviewsvc.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a request-serving method whose calls count against the adaptive concurrency limit of its kind, see
+ * {@link ConcurrencyLimiter}. Offline work such as stats rebuilds is left out, its run time says nothing about
+ * how loaded Mongo is.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    Kind value();
+
+    enum Kind {
+        READ, WRITE
+    }
+}
@@ -0,0 +1,105 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.ConcurrencyLimitExceededException;
+import app.popdreviewsvc.exception.DeadlineExceededException;
+import app.popdreviewsvc.service.ConcurrencyLimited.Kind;
+import com.mongodb.MongoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Separate {@link GradientConcurrencyLimit}s for the reads and the writes of {@link ConcurrencyLimited} methods.
+ * When Mongo slows down the limits shrink, and the calls over them fail fast with
+ * {@link ConcurrencyLimitExceededException} instead of queueing in Tomcat and stretching the latency of every
+ * request. Reads and writes are limited apart so that a burst of one doesn't shed the other.
+ * <p>
+ * Publishes {@code reviews.concurrency.limit}, {@code reviews.concurrency.inflight} and
+ * {@code reviews.concurrency.rejected}, tagged by {@code operation}.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final Map<Kind, GradientConcurrencyLimit> limits = new EnumMap<>(Kind.class);
+    private final Map<Kind, Counter> rejections = new EnumMap<>(Kind.class);
+
+    public ConcurrencyLimiter(@Value("${reviews.concurrency-limit.enabled:false}") boolean enabled,
+                              @Value("${reviews.concurrency-limit.read.initial-limit:50}") int readInitialLimit,
+                              @Value("${reviews.concurrency-limit.read.max-limit:500}") int readMaxLimit,
+                              @Value("${reviews.concurrency-limit.write.initial-limit:20}") int writeInitialLimit,
+                              @Value("${reviews.concurrency-limit.write.max-limit:200}") int writeMaxLimit,
+                              @Value("${reviews.concurrency-limit.min-limit:4}") int minLimit,
+                              @Value("${reviews.concurrency-limit.tolerance:2.0}") double tolerance,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        limits.put(Kind.READ, new GradientConcurrencyLimit(readInitialLimit, minLimit, readMaxLimit, tolerance));
+        limits.put(Kind.WRITE, new GradientConcurrencyLimit(writeInitialLimit, minLimit, writeMaxLimit, tolerance));
+
+        for (Map.Entry<Kind, GradientConcurrencyLimit> entry : limits.entrySet()) {
+            String operation = entry.getKey().name().toLowerCase(Locale.ROOT);
+            GradientConcurrencyLimit limit = entry.getValue();
+            Gauge.builder("reviews.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+            Gauge.builder("reviews.concurrency.inflight", limit, GradientConcurrencyLimit::getInflight)
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+            rejections.put(entry.getKey(), Counter.builder("reviews.concurrency.rejected")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public GradientConcurrencyLimit getLimit(Kind kind) {
+        return limits.get(kind);
+    }
+
+    /**
+     * Runs the call if the limit of its kind admits it.
+     *
+     * @throws ConcurrencyLimitExceededException if the limit is reached
+     */
+    public <T> T execute(Kind kind, Call<T> call) throws Throwable {
+        if (!enabled) {
+            return call.call();
+        }
+
+        GradientConcurrencyLimit limit = limits.get(kind);
+        if (!limit.tryAcquire()) {
+            rejections.get(kind).increment();
+            throw new ConcurrencyLimitExceededException("Too many concurrent review %ss, limit is %d"
+                    .formatted(kind.name().toLowerCase(Locale.ROOT), limit.getLimit()));
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return call.call();
+        } catch (DeadlineExceededException e) {
+            // the budget is the caller's: short ones must not back off the limit everyone shares
+            throw e;
+        } catch (DataAccessException | MongoException e) {
+            dropped = true;
+            throw e;
+        } finally {
+            limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Throwable;
+    }
+}
@@ -0,0 +1,109 @@
+package app.popdreviewsvc.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the latency of the calls it admits, in the spirit of the gradient algorithms of
+ * TCP Vegas. Every completed call is a sample: a short moving average of the latency is compared with a long one,
+ * and the limit shrinks in proportion while the short one is more than {@code tolerance} times slower (calls are
+ * queueing somewhere), or grows by about {@code sqrt(limit)} while it is not. Calls failing on the database back
+ * the limit off by {@value #BACKOFF_RATIO}.
+ * <p>
+ * The limit only grows while at least half of it is in use, so an idle period doesn't leave it far above what
+ * the database has been shown to handle.
+ */
+public class GradientConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    // the long average recovers from a latency spike faster than LONG_WINDOW samples would allow
+    private static final double LONG_RTT_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // guarded by this
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Admits one more call if fewer than {@link #getLimit()} are in flight.
+     *
+     * @return whether the call was admitted, in which case {@link #release} must follow
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted call that took {@code rttNanos}, moving the limit.
+     *
+     * @param dropped whether the call failed on the database rather than completing
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inflightBefore = inflight.getAndDecrement();
+        synchronized (this) {
+            if (dropped) {
+                update(estimatedLimit * BACKOFF_RATIO);
+                return;
+            }
+
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+                return;
+            }
+            shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+            if (longRttNanos > shortRttNanos * 2) {
+                longRttNanos *= LONG_RTT_DECAY;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            if (newLimit > estimatedLimit && inflightBefore < estimatedLimit / 2) {
+                return;
+            }
+            update(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+        }
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
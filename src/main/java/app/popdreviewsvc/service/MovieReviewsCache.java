@@ -0,0 +1,73 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.event.AllReviewsInvalidatedEvent;
+import app.popdreviewsvc.event.MovieReviewsInvalidatedEvent;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Size-bounded W-TinyLFU cache of the newest reviews of each movie, holding the first {@code depth} reviews
+ * together with the total count. Serves both the latest-N list and the first page of the paginated listing,
+ * and is invalidated per movie on every write, including the writes of other instances seen on the change stream.
+ */
+@Component
+public class MovieReviewsCache {
+
+    private final Cache<UUID, Page<ReviewResponse>> cache;
+    private final int depth;
+
+    public MovieReviewsCache(@Value("${reviews.cache.movie-reviews.maximum-size:10000}") long maximumSize,
+                             @Value("${reviews.cache.movie-reviews.depth:10}") int depth,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.depth = depth;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "movieReviews");
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public Page<ReviewResponse> get(UUID movieId, Function<UUID, Page<ReviewResponse>> loader) {
+        return cache.get(movieId, loader);
+    }
+
+    /**
+     * Cached page of the movie, or {@code null} without loading it. Used by reactive readers, which must not block
+     * on the loader and don't populate the cache to avoid racing a concurrent invalidation.
+     */
+    public Page<ReviewResponse> getIfPresent(UUID movieId) {
+        return cache.getIfPresent(movieId);
+    }
+
+    public void invalidate(UUID movieId) {
+        cache.invalidate(movieId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @EventListener
+    void onMovieReviewsInvalidated(MovieReviewsInvalidatedEvent event) {
+        invalidate(event.movieId());
+    }
+
+    @EventListener
+    void onAllReviewsInvalidated(AllReviewsInvalidatedEvent event) {
+        invalidateAll();
+    }
+}
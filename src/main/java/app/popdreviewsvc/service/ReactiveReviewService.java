@@ -0,0 +1,248 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.NotFoundException;
+import app.popdreviewsvc.model.MovieReviewStats;
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReactiveMovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReactiveReviewRepository;
+import app.popdreviewsvc.repository.ReactiveReviewVersionRepository;
+import app.popdreviewsvc.repository.ReviewChange;
+import app.popdreviewsvc.web.dto.ReviewRequest;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.dto.ReviewSliceResponse;
+import app.popdreviewsvc.web.mapper.DtoMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Non-blocking {@link ReviewService} for the {@code /api/v2} endpoints. Writes keep the movie stats and the
+ * shared {@link MovieReviewsCache} in sync the same way, so both API versions always see the same data.
+ */
+@Slf4j
+@Service
+public class ReactiveReviewService {
+
+    private static final int LATEST_USER_REVIEWS_LIMIT = 20;
+
+    private final ReactiveReviewRepository reactiveReviewRepository;
+    private final ReactiveMovieReviewStatsRepository reactiveMovieReviewStatsRepository;
+    private final MovieReviewsCache movieReviewsCache;
+    private final ReactiveReviewVersionRepository reactiveReviewVersionRepository;
+    private final TrendingMoviesTracker trendingMoviesTracker;
+    private final TopRatedMoviesLeaderboard topRatedMoviesLeaderboard;
+    private final ReviewSearchIndex reviewSearchIndex;
+    private final ReviewWriteBuffer reviewWriteBuffer;
+
+    public ReactiveReviewService(ReactiveReviewRepository reactiveReviewRepository,
+                                 ReactiveMovieReviewStatsRepository reactiveMovieReviewStatsRepository,
+                                 MovieReviewsCache movieReviewsCache,
+                                 ReactiveReviewVersionRepository reactiveReviewVersionRepository,
+                                 TrendingMoviesTracker trendingMoviesTracker,
+                                 TopRatedMoviesLeaderboard topRatedMoviesLeaderboard,
+                                 ReviewSearchIndex reviewSearchIndex,
+                                 ReviewWriteBuffer reviewWriteBuffer) {
+        this.reactiveReviewRepository = reactiveReviewRepository;
+        this.reactiveMovieReviewStatsRepository = reactiveMovieReviewStatsRepository;
+        this.movieReviewsCache = movieReviewsCache;
+        this.reactiveReviewVersionRepository = reactiveReviewVersionRepository;
+        this.trendingMoviesTracker = trendingMoviesTracker;
+        this.topRatedMoviesLeaderboard = topRatedMoviesLeaderboard;
+        this.reviewSearchIndex = reviewSearchIndex;
+        this.reviewWriteBuffer = reviewWriteBuffer;
+    }
+
+    public Mono<UpsertResult> upsert(ReviewRequest reviewRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        Review review = Review.builder()
+                .id(UUID.randomUUID())
+                .userId(reviewRequest.getUserId())
+                .movieId(reviewRequest.getMovieId())
+                .rating(reviewRequest.getRating())
+                .content(reviewRequest.getContent())
+                .title(reviewRequest.getTitle())
+                .createdOn(now)
+                .updatedOn(now)
+                .build();
+
+        return reactiveReviewRepository.upsertByUserIdAndMovieId(review)
+                .doOnSuccess(previous -> {
+                    movieReviewsCache.invalidate(review.getMovieId());
+                    trendingMoviesTracker.record(review.getMovieId(), now);
+                    reviewSearchIndex.index(review);
+                })
+                .flatMap(previous -> {
+                    review.setId(previous.getId());
+                    review.setCreatedOn(previous.getCreatedOn());
+
+                    return reactiveMovieReviewStatsRepository.applyReviewChange(review.getMovieId(), 0, previous.getRating(), review.getRating())
+                            .doOnSuccess(ignored -> topRatedMoviesLeaderboard.apply(
+                                    new ReviewChange(review.getMovieId(), 0, previous.getRating(), review.getRating())))
+                            .then(reactiveReviewVersionRepository.bump(Set.of(review.getMovieId()), Set.of(review.getUserId())))
+                            .then(Mono.fromSupplier(() -> {
+                                log.info("Successfully updated review with id {} for user with id {} and movie with id {}",
+                                        review.getId(), review.getUserId(), review.getMovieId());
+                                return new UpsertResult(review, false);
+                            }));
+                })
+                .switchIfEmpty(Mono.defer(() -> reactiveMovieReviewStatsRepository.applyReviewChange(review.getMovieId(), 1, null, review.getRating())
+                        .doOnSuccess(ignored -> topRatedMoviesLeaderboard.apply(new ReviewChange(review.getMovieId(), 1, null, review.getRating())))
+                        .then(reactiveReviewVersionRepository.bump(Set.of(review.getMovieId()), Set.of(review.getUserId())))
+                        .then(Mono.fromSupplier(() -> {
+                            log.info("Successfully created new review with id {} for user with id {} and movie with id {}",
+                                    review.getId(), review.getUserId(), review.getMovieId());
+                            return new UpsertResult(review, true);
+                        }))));
+    }
+
+    public Mono<Review> findByUserIdAndMovieId(UUID userId, UUID movieId) {
+        return reactiveReviewRepository.findByUserIdAndMovieId(userId, movieId)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Review with user id [%s] and movie id [%s] not found".formatted(userId, movieId))));
+    }
+
+    public Mono<Void> removeReview(UUID userId, UUID movieId) {
+        if (!reviewWriteBuffer.isEnabled()) {
+            return findByUserIdAndMovieId(userId, movieId).flatMap(this::delete);
+        }
+
+        // a v1 save may still be buffered; dropping it can wait for its in-flight flush, so it runs off the event loop
+        return Mono.fromCallable(() -> Optional.ofNullable(reviewWriteBuffer.remove(new ReviewKey(userId, movieId))))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(pending -> pending.isEmpty()
+                        ? findByUserIdAndMovieId(userId, movieId).flatMap(this::delete)
+                        : reactiveReviewRepository.findByUserIdAndMovieId(userId, movieId)
+                                .flatMap(stored -> delete(stored).thenReturn(true))
+                                // a review created within the current window never reached MongoDB, dropping it is the whole delete
+                                .switchIfEmpty(Mono.fromSupplier(() -> {
+                                    reviewSearchIndex.remove(userId, movieId);
+                                    log.info("Successfully removed unsaved review with id {} for user with id {} and movie with id {}",
+                                            pending.get().getId(), userId, movieId);
+                                    return true;
+                                }))
+                                .then());
+    }
+
+    private Mono<Void> delete(Review review) {
+        UUID userId = review.getUserId();
+        UUID movieId = review.getMovieId();
+        return reactiveReviewRepository.delete(review)
+                .then(reactiveMovieReviewStatsRepository.applyReviewChange(movieId, -1, review.getRating(), null))
+                .doOnSuccess(ignored -> topRatedMoviesLeaderboard.apply(new ReviewChange(movieId, -1, review.getRating(), null)))
+                .doOnSuccess(ignored -> {
+                    movieReviewsCache.invalidate(movieId);
+                    reviewSearchIndex.remove(userId, movieId);
+                })
+                .then(reactiveReviewVersionRepository.bump(Set.of(movieId), Set.of(userId)))
+                .doOnSuccess(ignored -> {
+                    log.info("Successfully removed review with id {} for user with id {} and movie with id {}",
+                            review.getId(), userId, movieId);
+                });
+    }
+
+    public Mono<List<ReviewResponse>> getLatestReviews(UUID movieId, int count) {
+        Page<ReviewResponse> cached = movieReviewsCache.getIfPresent(movieId);
+        Mono<List<ReviewResponse>> reviews = cached != null && count <= movieReviewsCache.getDepth()
+                ? Mono.just(cached.getContent().stream().limit(count).toList())
+                : reactiveReviewRepository.findByMovieIdOrderByUpdatedOnDesc(movieId, PageRequest.of(0, count))
+                        .map(DtoMapper::from)
+                        .collectList();
+
+        return reviews
+                .filter(latest -> !latest.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Latest Reviews not found for movie with id [%s]".formatted(movieId))));
+    }
+
+    public Mono<Page<ReviewResponse>> getReviewsForMovie(UUID movieId, Pageable pageable) {
+        Page<ReviewResponse> cached = movieReviewsCache.getIfPresent(movieId);
+        if (cached != null && pageable.getPageNumber() == 0 && pageable.getPageSize() <= movieReviewsCache.getDepth() && pageable.getSort().isUnsorted()) {
+            List<ReviewResponse> content = cached.getContent().subList(0, Math.min(pageable.getPageSize(), cached.getNumberOfElements()));
+
+            return Mono.just(new PageImpl<>(content, pageable, cached.getTotalElements()));
+        }
+
+        return Mono.zip(
+                reactiveReviewRepository.findByMovieIdOrderByUpdatedOnDesc(movieId, pageable).map(DtoMapper::from).collectList(),
+                reactiveReviewRepository.countByMovieId(movieId)
+        ).map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    public Mono<ReviewSliceResponse> getReviewsForMovieAfter(UUID movieId, String cursor, int requestedSize, boolean includeTotal) {
+        int size = ReviewService.sliceSize(requestedSize);
+        // one extra review tells whether there is a next slice, as Slice queries do
+        Pageable pageable = PageRequest.of(0, size + 1);
+
+        Flux<Review> reviews = Flux.defer(() -> {
+            if (cursor == null || cursor.isBlank()) {
+                return reactiveReviewRepository.findByMovieIdOrderByUpdatedOnDescIdDesc(movieId, pageable);
+            }
+
+            ReviewCursor after = ReviewCursor.decode(cursor);
+            return reactiveReviewRepository.findByMovieIdAfterCursor(movieId, after.updatedOn(), after.id(), pageable);
+        });
+
+        return reviews.collectList().flatMap(fetched -> {
+            boolean hasNext = fetched.size() > size;
+            List<Review> content = hasNext ? fetched.subList(0, size) : fetched;
+            ReviewSliceResponse.ReviewSliceResponseBuilder slice = ReviewSliceResponse.builder()
+                    .content(content.stream().map(DtoMapper::from).toList())
+                    .size(size)
+                    .hasNext(hasNext)
+                    .nextCursor(hasNext ? ReviewCursor.of(content.get(content.size() - 1)).encode() : null);
+
+            if (!includeTotal) {
+                return Mono.just(slice.build());
+            }
+
+            return reactiveMovieReviewStatsRepository.findById(movieId)
+                    .map(MovieReviewStats::getTotalReviews)
+                    .defaultIfEmpty(0L)
+                    .map(total -> slice.totalElements(total).build());
+        });
+    }
+
+    public Mono<MovieReviewStats> getMovieReviewStats(UUID movieId) {
+        return reactiveMovieReviewStatsRepository.findById(movieId)
+                .filter(stats -> stats.getTotalReviews() != null && stats.getTotalReviews() > 0)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("No reviews found for movie with id [%s]".formatted(movieId))));
+    }
+
+    // counted in the database instead of loading every review of the user as v1 does
+    public Mono<Integer> getAllReviewedMoviesCountByUser(UUID userId) {
+        return reactiveReviewRepository.countByUserId(userId)
+                .filter(count -> count > 0)
+                .map(Long::intValue)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("No movies reviewed by user with id [%s]".formatted(userId))));
+    }
+
+    public Mono<List<ReviewResponse>> getLatestReviewsByUserId(UUID userId) {
+        return reactiveReviewRepository.findByUserIdOrderByCreatedOnDesc(userId, PageRequest.of(0, LATEST_USER_REVIEWS_LIMIT))
+                .map(DtoMapper::from)
+                .collectList()
+                .filter(latest -> !latest.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Latest Reviews not found for user with id [%s]".formatted(userId))));
+    }
+
+    public Flux<ReviewResponse> streamReviewsForMovie(UUID movieId) {
+        return reactiveReviewRepository.findAllByMovieId(movieId).map(DtoMapper::from);
+    }
+
+    public Flux<ReviewResponse> streamReviewsByUser(UUID userId) {
+        return reactiveReviewRepository.findAllByUserId(userId).map(DtoMapper::from);
+    }
+
+    public Flux<ReviewResponse> streamAllReviews() {
+        return reactiveReviewRepository.findAll().map(DtoMapper::from);
+    }
+}
@@ -0,0 +1,326 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.BatchSizeExceededException;
+import app.popdreviewsvc.exception.InvalidLookupException;
+import app.popdreviewsvc.model.MovieReviewStats;
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.BulkUpsertResult;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReviewChange;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.repository.ReviewVersionRepository;
+import app.popdreviewsvc.web.dto.BatchItemStatus;
+import app.popdreviewsvc.web.dto.BatchReviewResult;
+import app.popdreviewsvc.web.dto.BatchUpsertResponse;
+import app.popdreviewsvc.web.dto.MovieReviewStatsResponse;
+import app.popdreviewsvc.web.dto.ReviewRequest;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.mapper.DtoMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Slf4j
+@Service
+@Timed(value = "reviews.service", histogram = true)
+public class ReviewBatchService {
+
+    private static final String SUPERSEDED = "Superseded by a newer write";
+
+    private final ReviewRepository reviewRepository;
+    private final MovieReviewStatsRepository movieReviewStatsRepository;
+    private final MovieReviewsCache movieReviewsCache;
+    private final ReviewVersionRepository reviewVersionRepository;
+    private final TopRatedMoviesLeaderboard topRatedMoviesLeaderboard;
+    private final ReviewSearchIndex reviewSearchIndex;
+    private final TrendingMoviesTracker trendingMoviesTracker;
+    private final int maxBatchSize;
+
+    public ReviewBatchService(ReviewRepository reviewRepository,
+                              MovieReviewStatsRepository movieReviewStatsRepository,
+                              MovieReviewsCache movieReviewsCache,
+                              ReviewVersionRepository reviewVersionRepository,
+                              TopRatedMoviesLeaderboard topRatedMoviesLeaderboard,
+                              ReviewSearchIndex reviewSearchIndex,
+                              TrendingMoviesTracker trendingMoviesTracker,
+                              @Value("${reviews.batch.max-size:500}") int maxBatchSize) {
+        this.reviewRepository = reviewRepository;
+        this.movieReviewStatsRepository = movieReviewStatsRepository;
+        this.movieReviewsCache = movieReviewsCache;
+        this.reviewVersionRepository = reviewVersionRepository;
+        this.topRatedMoviesLeaderboard = topRatedMoviesLeaderboard;
+        this.reviewSearchIndex = reviewSearchIndex;
+        this.trendingMoviesTracker = trendingMoviesTracker;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Upserts all requests with one lookup and one unordered bulk write. When the same {@code (userId, movieId)}
+     * appears more than once, only the last occurrence is applied.
+     */
+    public BatchUpsertResponse upsertBatch(List<ReviewRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new BatchSizeExceededException("Batch of %d reviews exceeds the maximum of %d".formatted(requests.size(), maxBatchSize));
+        }
+
+        BatchReviewResult[] results = new BatchReviewResult[requests.size()];
+        Map<ReviewKey, Integer> lastIndexByKey = new HashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ReviewRequest request = requests.get(i);
+            if (request == null || request.getUserId() == null || request.getMovieId() == null) {
+                results[i] = error(i, "userId and movieId are required");
+                continue;
+            }
+
+            Integer previousIndex = lastIndexByKey.put(new ReviewKey(request.getUserId(), request.getMovieId()), i);
+            if (previousIndex != null) {
+                results[previousIndex] = error(previousIndex, "Superseded by item %d with the same userId and movieId".formatted(i));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Review> reviews = new ArrayList<>(lastIndexByKey.size());
+        List<Integer> positions = new ArrayList<>(lastIndexByKey.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+
+            ReviewRequest request = requests.get(i);
+            reviews.add(Review.builder()
+                    .id(UUID.randomUUID())
+                    .userId(request.getUserId())
+                    .movieId(request.getMovieId())
+                    .rating(request.getRating())
+                    .content(request.getContent())
+                    .title(request.getTitle())
+                    .createdOn(now)
+                    .updatedOn(now)
+                    .build());
+            positions.add(i);
+        }
+
+        BulkUpsertResult bulkResult = applyReviews(reviews);
+
+        for (int i = 0; i < reviews.size(); i++) {
+            Review review = reviews.get(i);
+            int position = positions.get(i);
+
+            String failure = bulkResult.failedIndexes().get(i);
+            if (failure != null) {
+                results[position] = error(position, failure);
+                continue;
+            }
+
+            trendingMoviesTracker.record(review.getMovieId(), review.getUpdatedOn());
+            results[position] = BatchReviewResult.builder()
+                    .index(position)
+                    .status(bulkResult.insertedIndexes().contains(i) ? BatchItemStatus.CREATED : BatchItemStatus.UPDATED)
+                    .review(DtoMapper.from(review))
+                    .build();
+        }
+
+        List<BatchReviewResult> resultList = Arrays.asList(results);
+        int created = (int) resultList.stream().filter(result -> result.getStatus() == BatchItemStatus.CREATED).count();
+        int updated = (int) resultList.stream().filter(result -> result.getStatus() == BatchItemStatus.UPDATED).count();
+        int failed = resultList.size() - created - updated;
+        log.info("Successfully applied review batch of {} items: {} created, {} updated, {} failed",
+                resultList.size(), created, updated, failed);
+
+        return BatchUpsertResponse.builder()
+                .results(resultList)
+                .created(created)
+                .updated(updated)
+                .failed(failed)
+                .build();
+    }
+
+    /**
+     * Bulk-upserts reviews built by the caller, then applies their stats changes, cache invalidation and version
+     * bumps. A review older than the stored one is not written and reported as failed, so a delayed write never
+     * overwrites a newer one. Updated reviews take the id and creation time of the stored review.
+     * <p>
+     * The stored reviews are read first, and each review is only written while its stored review is unchanged.
+     * Reviews written concurrently in between are retried one by one with {@code findAndModify}, whose pre-image
+     * is what their stats change is computed from.
+     *
+     * @return outcome per position in {@code reviews}
+     */
+    public BulkUpsertResult applyReviews(List<Review> reviews) {
+        Map<ReviewKey, Review> existingByKey = new HashMap<>();
+        for (Review existing : reviewRepository.findAllByUserIdAndMovieIdPairs(reviews)) {
+            existingByKey.put(ReviewKey.of(existing), existing);
+        }
+
+        Map<Integer, String> failedIndexes = new HashMap<>();
+        List<Review> toWrite = new ArrayList<>(reviews.size());
+        List<Review> expected = new ArrayList<>(reviews.size());
+        List<Integer> writePositions = new ArrayList<>(reviews.size());
+        for (int i = 0; i < reviews.size(); i++) {
+            Review review = reviews.get(i);
+            Review existing = existingByKey.get(ReviewKey.of(review));
+            if (isNewer(existing, review)) {
+                failedIndexes.put(i, SUPERSEDED);
+                continue;
+            }
+
+            if (existing != null) {
+                review.setId(existing.getId());
+                review.setCreatedOn(existing.getCreatedOn());
+            }
+            toWrite.add(review);
+            expected.add(existing);
+            writePositions.add(i);
+        }
+
+        if (toWrite.isEmpty()) {
+            return new BulkUpsertResult(Set.of(), failedIndexes);
+        }
+
+        BulkUpsertResult bulkResult = reviewRepository.bulkUpsertIfUnchanged(toWrite, expected);
+
+        Set<Integer> insertedIndexes = new HashSet<>();
+        List<ReviewChange> changes = new ArrayList<>(toWrite.size());
+        Set<UUID> touchedMovies = new HashSet<>();
+        Set<UUID> touchedUsers = new HashSet<>();
+        for (int i = 0; i < toWrite.size(); i++) {
+            Review review = toWrite.get(i);
+            int position = writePositions.get(i);
+
+            String failure = bulkResult.failedIndexes().get(i);
+            if (failure != null) {
+                failedIndexes.put(position, failure);
+                continue;
+            }
+
+            ReviewChange change;
+            if (bulkResult.conflictedIndexes().contains(i)) {
+                try {
+                    Optional<Review> previous = reviewRepository.upsertUnlessNewer(review);
+                    previous.ifPresent(stored -> {
+                        review.setId(stored.getId());
+                        review.setCreatedOn(stored.getCreatedOn());
+                    });
+                    change = previous
+                            .map(stored -> new ReviewChange(review.getMovieId(), 0, stored.getRating(), review.getRating()))
+                            .orElseGet(() -> new ReviewChange(review.getMovieId(), 1, null, review.getRating()));
+                } catch (DuplicateKeyException e) {
+                    failedIndexes.put(position, SUPERSEDED);
+                    continue;
+                } catch (DataAccessException e) {
+                    failedIndexes.put(position, e.getMessage());
+                    continue;
+                }
+            } else if (bulkResult.insertedIndexes().contains(i)) {
+                change = new ReviewChange(review.getMovieId(), 1, null, review.getRating());
+            } else {
+                // matched the stored review read above, so that is the one it replaced
+                Review existing = expected.get(i);
+                change = new ReviewChange(review.getMovieId(), 0, existing == null ? null : existing.getRating(), review.getRating());
+            }
+
+            if (change.reviewsDelta() == 1) {
+                insertedIndexes.add(position);
+            }
+            changes.add(change);
+            touchedMovies.add(review.getMovieId());
+            touchedUsers.add(review.getUserId());
+            reviewSearchIndex.index(review);
+        }
+
+        if (!changes.isEmpty()) {
+            movieReviewStatsRepository.applyReviewChanges(changes);
+            topRatedMoviesLeaderboard.applyAll(changes);
+        }
+        touchedMovies.forEach(movieReviewsCache::invalidate);
+        reviewVersionRepository.bump(touchedMovies, touchedUsers);
+
+        return new BulkUpsertResult(insertedIndexes, failedIndexes);
+    }
+
+    private static boolean isNewer(Review stored, Review review) {
+        return stored != null && stored.getUpdatedOn() != null && review.getUpdatedOn() != null
+                && stored.getUpdatedOn().isAfter(review.getUpdatedOn());
+    }
+
+    /**
+     * The user's reviews of the given movies, read with one {@code $in} query, keyed by movie id in request order.
+     * Movies the user has not reviewed are absent from the map.
+     */
+    public Map<UUID, ReviewResponse> lookupReviews(UUID userId, List<UUID> movieIds) {
+        if (userId == null) {
+            throw new InvalidLookupException("userId is required");
+        }
+        if (movieIds == null || movieIds.isEmpty()) {
+            return Map.of();
+        }
+        if (movieIds.size() > maxBatchSize) {
+            throw new BatchSizeExceededException("Lookup of %d movies exceeds the maximum of %d".formatted(movieIds.size(), maxBatchSize));
+        }
+
+        Set<UUID> distinctMovieIds = new LinkedHashSet<>(movieIds);
+        distinctMovieIds.remove(null);
+
+        Map<UUID, Review> reviewsByMovie = new HashMap<>();
+        for (Review review : reviewRepository.findAllByUserIdAndMovieIdIn(userId, distinctMovieIds)) {
+            reviewsByMovie.put(review.getMovieId(), review);
+        }
+
+        Map<UUID, ReviewResponse> reviews = new LinkedHashMap<>();
+        for (UUID movieId : distinctMovieIds) {
+            Review review = reviewsByMovie.get(movieId);
+            if (review != null) {
+                reviews.put(movieId, DtoMapper.from(review));
+            }
+        }
+
+        return reviews;
+    }
+
+    /**
+     * Stats of every given movie, keyed by movie id in request order, read from {@code movie_review_stats}
+     * with one {@code $in} query. Movies without reviews get zero counts instead of an error.
+     */
+    public Map<UUID, MovieReviewStatsResponse> lookupMovieReviewStats(List<UUID> movieIds) {
+        if (movieIds == null || movieIds.isEmpty()) {
+            return Map.of();
+        }
+        if (movieIds.size() > maxBatchSize) {
+            throw new BatchSizeExceededException("Stats lookup of %d movies exceeds the maximum of %d".formatted(movieIds.size(), maxBatchSize));
+        }
+
+        Set<UUID> distinctMovieIds = new LinkedHashSet<>(movieIds);
+        distinctMovieIds.remove(null);
+
+        Map<UUID, MovieReviewStats> statsByMovie = new HashMap<>();
+        for (MovieReviewStats stats : movieReviewStatsRepository.findAllById(distinctMovieIds)) {
+            statsByMovie.put(stats.getMovieId(), stats);
+        }
+
+        Map<UUID, MovieReviewStatsResponse> stats = new LinkedHashMap<>();
+        for (UUID movieId : distinctMovieIds) {
+            MovieReviewStats movieStats = statsByMovie.get(movieId);
+            if (movieStats == null || movieStats.getTotalReviews() == null) {
+                movieStats = MovieReviewStats.builder().movieId(movieId).totalReviews(0L).build();
+            }
+            stats.put(movieId, DtoMapper.fromMovieReviewStats(movieStats));
+        }
+
+        return stats;
+    }
+
+    private static BatchReviewResult error(int index, String message) {
+        return BatchReviewResult.builder()
+                .index(index)
+                .status(BatchItemStatus.ERROR)
+                .error(message)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.InvalidCursorException;
+import app.popdreviewsvc.model.Review;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last review returned in a keyset-paginated listing, exchanged with clients as an opaque token.
+ */
+public record ReviewCursor(LocalDateTime updatedOn, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ReviewCursor of(Review review) {
+        return new ReviewCursor(review.getUpdatedOn(), review.getId());
+    }
+
+    public String encode() {
+        String raw = updatedOn + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ReviewCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor [%s]".formatted(token));
+            }
+
+            return new ReviewCursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor [%s]".formatted(token));
+        }
+    }
+}
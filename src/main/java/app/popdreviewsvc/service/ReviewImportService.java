@@ -0,0 +1,223 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.BulkUpsertResult;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.repository.ReviewVersionRepository;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads reviews from NDJSON (the format of the export endpoints) or CSV files with a header row.
+ * Records are partitioned by {@code (userId, movieId)} across parallel writers, so every key is always written
+ * by the same writer in file order and the last record of a key wins, like repeated calls to {@code upsert}.
+ * Each writer sends its records as unordered bulk upserts; movie stats are rebuilt once at the end.
+ */
+@Slf4j
+@Service
+public class ReviewImportService {
+
+    private static final int QUEUE_CAPACITY_PER_WRITER = 2;
+    private static final List<Review> END_OF_INPUT = Collections.unmodifiableList(new ArrayList<>());
+
+    private final ReviewRepository reviewRepository;
+    private final MovieReviewStatsRepository movieReviewStatsRepository;
+    private final ReviewVersionRepository reviewVersionRepository;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final int writers;
+    private final int batchSize;
+    private final long progressIntervalSeconds;
+
+    public ReviewImportService(ReviewRepository reviewRepository,
+                               MovieReviewStatsRepository movieReviewStatsRepository,
+                               ReviewVersionRepository reviewVersionRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${reviews.import.writers:4}") int writers,
+                               @Value("${reviews.import.batch-size:5000}") int batchSize,
+                               @Value("${reviews.import.progress-interval-seconds:5}") long progressIntervalSeconds) {
+        this.reviewRepository = reviewRepository;
+        this.movieReviewStatsRepository = movieReviewStatsRepository;
+        this.reviewVersionRepository = reviewVersionRepository;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .findAndAddModules()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.writers = writers;
+        this.batchSize = batchSize;
+        this.progressIntervalSeconds = progressIntervalSeconds;
+    }
+
+    public ImportSummary importFiles(List<Path> files) throws IOException, InterruptedException {
+        long startedAt = System.nanoTime();
+        AtomicLong read = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        List<BlockingQueue<List<Review>>> queues = new ArrayList<>(writers);
+        List<Future<?>> writerFutures = new ArrayList<>(writers);
+        ExecutorService writerPool = Executors.newFixedThreadPool(writers);
+        ScheduledExecutorService progressReporter = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            for (int i = 0; i < writers; i++) {
+                BlockingQueue<List<Review>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY_PER_WRITER);
+                queues.add(queue);
+                writerFutures.add(writerPool.submit(() -> {
+                    drain(queue, written, failed);
+                    return null;
+                }));
+            }
+            progressReporter.scheduleAtFixedRate(() -> log.info("Imported {} reviews ({} docs/sec), {} failed",
+                            written.get(), docsPerSecond(written.get(), startedAt), failed.get()),
+                    progressIntervalSeconds, progressIntervalSeconds, TimeUnit.SECONDS);
+
+            List<Map<ReviewKey, Review>> buffers = new ArrayList<>(writers);
+            for (int i = 0; i < writers; i++) {
+                buffers.add(new LinkedHashMap<>());
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            for (Path file : files) {
+                log.info("Importing reviews from {}", file);
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                     MappingIterator<ReviewResponse> records = open(file, reader)) {
+                    while (records.hasNextValue()) {
+                        ReviewResponse record = records.nextValue();
+                        read.incrementAndGet();
+                        if (record.getUserId() == null || record.getMovieId() == null) {
+                            skipped.incrementAndGet();
+                            continue;
+                        }
+
+                        Review review = toReview(record, now);
+                        ReviewKey key = ReviewKey.of(review);
+                        int writer = Math.floorMod(key.hashCode(), writers);
+                        Map<ReviewKey, Review> buffer = buffers.get(writer);
+                        // a later record of the same key replaces the pending one, as a second upsert would
+                        buffer.remove(key);
+                        buffer.put(key, review);
+
+                        if (buffer.size() >= batchSize) {
+                            enqueue(queues, writerFutures, writer, new ArrayList<>(buffer.values()));
+                            buffer.clear();
+                        }
+                    }
+                }
+            }
+
+            for (int writer = 0; writer < writers; writer++) {
+                if (!buffers.get(writer).isEmpty()) {
+                    enqueue(queues, writerFutures, writer, new ArrayList<>(buffers.get(writer).values()));
+                }
+                enqueue(queues, writerFutures, writer, END_OF_INPUT);
+            }
+            for (Future<?> writerFuture : writerFutures) {
+                awaitWriter(writerFuture);
+            }
+        } finally {
+            progressReporter.shutdownNow();
+            writerPool.shutdownNow();
+        }
+
+        long statsRebuilt = movieReviewStatsRepository.rebuildFromReviews();
+        // imported reviews may belong to any movie or user, so no cached representation can be trusted
+        reviewVersionRepository.bumpAll();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        ImportSummary summary = new ImportSummary(read.get(), skipped.get(), written.get(), failed.get(), elapsed);
+        log.info("Successfully imported {} of {} reviews in {} ({} docs/sec), {} skipped, {} failed, stats rebuilt for {} movies",
+                summary.written(), summary.read(), elapsed, docsPerSecond(summary.written(), startedAt),
+                summary.skipped(), summary.failed(), statsRebuilt);
+
+        return summary;
+    }
+
+    private MappingIterator<ReviewResponse> open(Path file, Reader reader) throws IOException {
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            return csvMapper.readerFor(ReviewResponse.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(reader);
+        }
+
+        return objectMapper.readerFor(ReviewResponse.class).readValues(reader);
+    }
+
+    private void drain(BlockingQueue<List<Review>> queue, AtomicLong written, AtomicLong failed) throws InterruptedException {
+        while (true) {
+            List<Review> batch = queue.take();
+            if (batch == END_OF_INPUT) {
+                return;
+            }
+
+            BulkUpsertResult result = reviewRepository.bulkUpsertByUserIdAndMovieId(batch);
+            failed.addAndGet(result.failedIndexes().size());
+            written.addAndGet(batch.size() - result.failedIndexes().size());
+            result.failedIndexes().values().stream().findFirst()
+                    .ifPresent(error -> log.warn("{} reviews of a batch failed to import, first error: {}", result.failedIndexes().size(), error));
+        }
+    }
+
+    // blocks while the writer is busy, which keeps at most QUEUE_CAPACITY_PER_WRITER batches per writer in memory
+    private static void enqueue(List<BlockingQueue<List<Review>>> queues, List<Future<?>> writerFutures, int writer, List<Review> batch) throws InterruptedException {
+        while (!queues.get(writer).offer(batch, 1, TimeUnit.SECONDS)) {
+            if (writerFutures.get(writer).isDone()) {
+                awaitWriter(writerFutures.get(writer));
+                throw new IllegalStateException("Import writer %d stopped before the end of the input".formatted(writer));
+            }
+        }
+    }
+
+    private static void awaitWriter(Future<?> writerFuture) throws InterruptedException {
+        try {
+            writerFuture.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import writer failed: %s".formatted(e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    private static Review toReview(ReviewResponse record, LocalDateTime now) {
+        LocalDateTime createdOn = record.getCreatedOn() != null ? record.getCreatedOn() : now;
+
+        return Review.builder()
+                .id(UUID.randomUUID())
+                .userId(record.getUserId())
+                .movieId(record.getMovieId())
+                .rating(record.getRating())
+                .title(record.getTitle())
+                .content(record.getContent())
+                .createdOn(createdOn)
+                .updatedOn(record.getUpdatedOn() != null ? record.getUpdatedOn() : createdOn)
+                .build();
+    }
+
+    private static long docsPerSecond(long docs, long startedAt) {
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return docs * 1000 / elapsedMillis;
+    }
+
+    public record ImportSummary(long read, long skipped, long written, long failed, Duration elapsed) {
+    }
+}
@@ -0,0 +1,15 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+
+import java.util.UUID;
+
+/**
+ * The {@code {userId, movieId}} identity a review is unique by.
+ */
+record ReviewKey(UUID userId, UUID movieId) {
+
+    static ReviewKey of(Review review) {
+        return new ReviewKey(review.getUserId(), review.getMovieId());
+    }
+}
@@ -0,0 +1,7 @@
+package app.popdreviewsvc.service;
+
+/**
+ * A review matched by {@link ReviewSearchIndex}, identified by its user and movie, with its BM25 score.
+ */
+record ReviewSearchHit(ReviewKey key, double score) {
+}
@@ -0,0 +1,523 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over review titles and content, ranked with BM25. Every version of a review gets a new,
+ * ever increasing document id, so a posting list is only ever appended to and is stored as varint-encoded
+ * {@code (docId delta, term frequency)} pairs. Replaced and removed documents are tombstoned and skipped while
+ * searching until enough of them pile up to compact the index.
+ * <p>
+ * Queries are scored document-at-a-time with MaxScore pruning: each term's score is bounded by its largest
+ * frequency and shortest document, and once the best hits are full, terms whose summed bounds can't beat the worst
+ * of them only score the documents the other terms produce, reached through skip entries in their posting lists.
+ * <p>
+ * Opt-in with {@code reviews.search.enabled=true}. The index is built from all reviews in the background on startup
+ * and then follows the writes this instance serves; a review removed while the build streams past it may come back
+ * until it is written again.
+ */
+@Slf4j
+@Component
+public class ReviewSearchIndex {
+
+    public static final int MAX_RESULTS = 50;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int COMPACTION_MIN_DELETED = 10_000;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it", "its", "no",
+            "not", "of", "on", "or", "so", "such", "that", "the", "their", "then", "there", "these", "they", "this",
+            "to", "was", "were", "will", "with");
+
+    private final ReviewRepository reviewRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // everything below is guarded by lock, the arrays are indexed by document id
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<ReviewKey, Integer> docIdsByKey = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private UUID[] userIds = new UUID[INITIAL_CAPACITY];
+    private UUID[] movieIds = new UUID[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private long[] updatedOn = new long[INITIAL_CAPACITY];
+    private int nextDocId;
+    private int liveDocs;
+    private long liveLength;
+
+    public ReviewSearchIndex(ReviewRepository reviewRepository,
+                             @Value("${reviews.search.enabled:false}") boolean enabled) {
+        this.reviewRepository = reviewRepository;
+        this.enabled = enabled;
+    }
+
+    // building reads every review, so it runs in the background instead of holding up startup
+    @EventListener(ApplicationReadyEvent.class)
+    void buildInBackground() {
+        if (!enabled) {
+            return;
+        }
+
+        Thread thread = new Thread(this::buildQuietly, "review-search-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void buildQuietly() {
+        try {
+            build();
+        } catch (RuntimeException e) {
+            log.error("Failed to build the review search index, only new review writes are searchable", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indexes every stored review. Reviews indexed meanwhile by a newer write are kept.
+     *
+     * @return number of reviews read
+     */
+    public long build() {
+        long started = System.nanoTime();
+        long read = 0;
+        try (Stream<Review> reviews = reviewRepository.streamSearchableReviews()) {
+            for (Review review : (Iterable<Review>) reviews::iterator) {
+                index(review);
+                read++;
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            long postingBytes = postings.values().stream().mapToLong(postingList -> postingList.size).sum();
+            log.info("Built the review search index from {} reviews in {} ms: {} terms, {} bytes of postings",
+                    read, (System.nanoTime() - started) / 1_000_000, postings.size(), postingBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return read;
+    }
+
+    /**
+     * Indexes the title and content of the review, replacing the previous version of the same user and movie
+     * unless that one is newer.
+     */
+    public void index(Review review) {
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        Consumer<String> counter = term -> termFrequencies.merge(term, 1, Integer::sum);
+        tokenize(review.getTitle(), counter);
+        tokenize(review.getContent(), counter);
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        long reviewUpdatedOn = review.getUpdatedOn() == null ? 0 : toEpochMillis(review.getUpdatedOn());
+        ReviewKey key = ReviewKey.of(review);
+
+        lock.writeLock().lock();
+        try {
+            Integer current = docIdsByKey.get(key);
+            if (current != null) {
+                if (updatedOn[current] > reviewUpdatedOn) {
+                    return;
+                }
+                delete(current);
+            }
+
+            int docId = nextDocId++;
+            ensureCapacity(docId + 1);
+            userIds[docId] = review.getUserId();
+            movieIds[docId] = review.getMovieId();
+            lengths[docId] = length;
+            updatedOn[docId] = reviewUpdatedOn;
+            docIdsByKey.put(key, docId);
+            liveDocs++;
+            liveLength += length;
+            termFrequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, ignored -> new PostingList()).add(docId, frequency, length));
+
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID userId, UUID movieId) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByKey.remove(new ReviewKey(userId, movieId));
+            if (docId != null) {
+                delete(docId);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The best {@code limit} (at most {@value #MAX_RESULTS}) reviews for the query, optionally only of one movie
+     * and/or one user, best first. Terms are matched exactly after lower-casing, and a review matches if it
+     * contains any of them.
+     */
+    List<ReviewSearchHit> search(String query, UUID movieId, UUID userId, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(query, terms::add);
+        int maxHits = Math.min(limit, MAX_RESULTS);
+        if (terms.isEmpty() || maxHits <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return List.of();
+            }
+
+            double averageLength = (double) liveLength / liveDocs;
+            List<PostingCursor> cursors = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList postingList = postings.get(term);
+                if (postingList != null) {
+                    // document frequency still counts tombstoned postings until the next compaction
+                    double idf = Math.log(1 + (liveDocs - postingList.documents + 0.5) / (postingList.documents + 0.5));
+                    PostingCursor cursor = new PostingCursor(postingList, Math.max(idf, 0));
+                    if (cursor.next()) {
+                        cursor.maxScore = cursor.score(K1 * (1 - B + B * postingList.minLength / averageLength), postingList.maxFrequency);
+                        cursors.add(cursor);
+                    }
+                }
+            }
+            cursors.sort(Comparator.comparingDouble(cursor -> cursor.maxScore));
+
+            // MaxScore: lists whose summed upper bounds can't beat the worst kept hit are no longer walked, only
+            // probed with skips for the documents the remaining, essential lists produce
+            double[] maxScores = new double[cursors.size()];
+            for (int i = 0; i < cursors.size(); i++) {
+                maxScores[i] = (i == 0 ? 0 : maxScores[i - 1]) + cursors.get(i).maxScore;
+            }
+            int firstEssential = 0;
+
+            // document-at-a-time over the ascending posting lists, keeping a min-heap of the best hits
+            Comparator<ReviewSearchHit> byScore = Comparator.comparingDouble(ReviewSearchHit::score);
+            PriorityQueue<ReviewSearchHit> best = new PriorityQueue<>(maxHits + 1, byScore);
+            while (true) {
+                int docId = PostingCursor.EXHAUSTED;
+                for (int i = firstEssential; i < cursors.size(); i++) {
+                    docId = Math.min(docId, cursors.get(i).docId);
+                }
+                if (docId == PostingCursor.EXHAUSTED) {
+                    break;
+                }
+
+                boolean matches = !deleted.get(docId)
+                        && (movieId == null || movieId.equals(movieIds[docId]))
+                        && (userId == null || userId.equals(userIds[docId]));
+                double score = 0;
+                if (matches) {
+                    double lengthNorm = K1 * (1 - B + B * lengths[docId] / averageLength);
+                    for (int i = firstEssential; i < cursors.size(); i++) {
+                        PostingCursor cursor = cursors.get(i);
+                        if (cursor.docId == docId) {
+                            score += cursor.score(lengthNorm, cursor.frequency);
+                        }
+                    }
+                    boolean full = best.size() == maxHits;
+                    for (int i = firstEssential - 1; i >= 0; i--) {
+                        if (full && score + maxScores[i] <= best.peek().score()) {
+                            break;
+                        }
+                        PostingCursor cursor = cursors.get(i);
+                        if (cursor.advance(docId) == docId) {
+                            score += cursor.score(lengthNorm, cursor.frequency);
+                        }
+                    }
+                }
+                for (int i = firstEssential; i < cursors.size(); i++) {
+                    PostingCursor cursor = cursors.get(i);
+                    if (cursor.docId == docId) {
+                        cursor.next();
+                    }
+                }
+
+                if (matches && (best.size() < maxHits || score > best.peek().score())) {
+                    best.add(new ReviewSearchHit(new ReviewKey(userIds[docId], movieIds[docId]), score));
+                    if (best.size() > maxHits) {
+                        best.poll();
+                    }
+                    if (best.size() == maxHits) {
+                        double threshold = best.peek().score();
+                        while (firstEssential < cursors.size() && maxScores[firstEssential] <= threshold) {
+                            firstEssential++;
+                        }
+                    }
+                }
+            }
+
+            List<ReviewSearchHit> hits = new ArrayList<>(best);
+            hits.sort(byScore.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void delete(int docId) {
+        deleted.set(docId);
+        liveDocs--;
+        liveLength -= lengths[docId];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= userIds.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, userIds.length * 2);
+        userIds = Arrays.copyOf(userIds, newCapacity);
+        movieIds = Arrays.copyOf(movieIds, newCapacity);
+        lengths = Arrays.copyOf(lengths, newCapacity);
+        updatedOn = Arrays.copyOf(updatedOn, newCapacity);
+    }
+
+    // once tombstones outnumber live documents, renumber the live ones densely and rewrite every posting list
+    private void compactIfNeeded() {
+        int deletedDocs = nextDocId - liveDocs;
+        if (deletedDocs < COMPACTION_MIN_DELETED || deletedDocs < liveDocs) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        int[] remap = new int[nextDocId];
+        int compacted = 0;
+        for (int docId = 0; docId < nextDocId; docId++) {
+            if (deleted.get(docId)) {
+                remap[docId] = -1;
+                continue;
+            }
+            remap[docId] = compacted;
+            userIds[compacted] = userIds[docId];
+            movieIds[compacted] = movieIds[docId];
+            lengths[compacted] = lengths[docId];
+            updatedOn[compacted] = updatedOn[docId];
+            compacted++;
+        }
+        Arrays.fill(userIds, compacted, nextDocId, null);
+        Arrays.fill(movieIds, compacted, nextDocId, null);
+
+        docIdsByKey.replaceAll((key, docId) -> remap[docId]);
+        postings.values().removeIf(postingList -> postingList.compact(remap, lengths));
+        deleted.clear();
+        nextDocId = compacted;
+        log.info("Compacted the review search index, dropped {} replaced or removed reviews in {} ms",
+                deletedDocs, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // lower-cased runs of letters and digits, without stop words and single characters
+    private static void tokenize(String text, Consumer<String> terms) {
+        if (text == null) {
+            return;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean termChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                if (i - start >= MIN_TERM_LENGTH) {
+                    String term = text.substring(start, i).toLowerCase(Locale.ROOT);
+                    if (!STOP_WORDS.contains(term)) {
+                        terms.accept(term);
+                    }
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Postings of one term as varint-encoded {@code (docId - previous docId, frequency)} pairs in ascending
+     * document order, with a skip entry after every {@value #SKIP_INTERVAL} postings and the largest frequency and
+     * smallest document length, which bound the BM25 score of the term.
+     */
+    private static final class PostingList {
+
+        private static final int SKIP_INTERVAL = 64;
+
+        private byte[] data = new byte[8];
+        private int size;
+        private int lastDocId;
+        // postings in the list, including the ones of tombstoned documents
+        private int documents;
+        private int maxFrequency;
+        private int minLength = Integer.MAX_VALUE;
+        // skip entry i is the id of posting (i + 1) * SKIP_INTERVAL - 1 and the offset of the posting after it
+        private int[] skipDocIds = new int[0];
+        private int[] skipOffsets = new int[0];
+        private int skips;
+
+        void add(int docId, int frequency, int length) {
+            writeVarInt(docId - lastDocId);
+            writeVarInt(frequency);
+            lastDocId = docId;
+            documents++;
+            maxFrequency = Math.max(maxFrequency, frequency);
+            minLength = Math.min(minLength, length);
+
+            if (documents % SKIP_INTERVAL == 0) {
+                if (skips == skipDocIds.length) {
+                    skipDocIds = Arrays.copyOf(skipDocIds, Math.max(4, skips * 2));
+                    skipOffsets = Arrays.copyOf(skipOffsets, skipDocIds.length);
+                }
+                skipDocIds[skips] = docId;
+                skipOffsets[skips] = size;
+                skips++;
+            }
+        }
+
+        /**
+         * Rewrites the list with the new document ids, dropping documents mapped to -1.
+         *
+         * @return whether the list is empty now
+         */
+        boolean compact(int[] remap, int[] lengths) {
+            PostingList compacted = new PostingList();
+            PostingCursor cursor = new PostingCursor(this, 0);
+            while (cursor.next()) {
+                int docId = remap[cursor.docId];
+                if (docId >= 0) {
+                    compacted.add(docId, cursor.frequency, lengths[docId]);
+                }
+            }
+
+            data = Arrays.copyOf(compacted.data, compacted.size);
+            size = compacted.size;
+            lastDocId = compacted.lastDocId;
+            documents = compacted.documents;
+            maxFrequency = compacted.maxFrequency;
+            minLength = compacted.minLength;
+            skipDocIds = Arrays.copyOf(compacted.skipDocIds, compacted.skips);
+            skipOffsets = Arrays.copyOf(compacted.skipOffsets, compacted.skips);
+            skips = compacted.skips;
+            return documents == 0;
+        }
+
+        private void writeVarInt(int value) {
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + 5, data.length + (data.length >> 1)));
+            }
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+    }
+
+    private static final class PostingCursor {
+
+        // docId of a cursor past its last posting, larger than any real one
+        static final int EXHAUSTED = Integer.MAX_VALUE;
+
+        private final PostingList postingList;
+        private final double idf;
+        private double maxScore;
+        private int offset;
+        private int docId;
+        private int frequency;
+        private int skip;
+
+        PostingCursor(PostingList postingList, double idf) {
+            this.postingList = postingList;
+            this.idf = idf;
+        }
+
+        boolean next() {
+            if (offset >= postingList.size) {
+                docId = EXHAUSTED;
+                return false;
+            }
+            docId += readVarInt();
+            frequency = readVarInt();
+            return true;
+        }
+
+        /**
+         * Moves to the first posting at or after {@code target}, jumping over whole skip intervals before it.
+         *
+         * @return the document id now under the cursor, {@link #EXHAUSTED} past the end
+         */
+        int advance(int target) {
+            if (docId >= target) {
+                return docId;
+            }
+            while (skip < postingList.skips && postingList.skipDocIds[skip] < target) {
+                if (postingList.skipOffsets[skip] > offset) {
+                    offset = postingList.skipOffsets[skip];
+                    docId = postingList.skipDocIds[skip];
+                }
+                skip++;
+            }
+            while (docId < target && next()) {
+                // decode up to the target
+            }
+            return docId;
+        }
+
+        double score(double lengthNorm, int termFrequency) {
+            return idf * termFrequency * (K1 + 1) / (termFrequency + lengthNorm);
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = postingList.data[offset++];
+                value |= (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+    }
+}
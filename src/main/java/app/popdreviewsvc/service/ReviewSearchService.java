@@ -0,0 +1,62 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.InvalidSearchQueryException;
+import app.popdreviewsvc.exception.SearchUnavailableException;
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.web.dto.ReviewSearchHitResponse;
+import app.popdreviewsvc.web.mapper.DtoMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@Timed(value = "reviews.service", histogram = true)
+public class ReviewSearchService {
+
+    private final ReviewSearchIndex reviewSearchIndex;
+    private final ReviewRepository reviewRepository;
+
+    public ReviewSearchService(ReviewSearchIndex reviewSearchIndex, ReviewRepository reviewRepository) {
+        this.reviewSearchIndex = reviewSearchIndex;
+        this.reviewRepository = reviewRepository;
+    }
+
+    /**
+     * Ranks the reviews in the in-memory index and reads only the hits from MongoDB, with one query on the
+     * {@code {userId, movieId}} index. Hits removed from MongoDB in between are left out.
+     */
+    public List<ReviewSearchHitResponse> search(String query, UUID movieId, UUID userId, int limit) {
+        if (!reviewSearchIndex.isEnabled()) {
+            throw new SearchUnavailableException("Review search is disabled");
+        }
+        if (query == null || query.isBlank()) {
+            throw new InvalidSearchQueryException("Search query is required");
+        }
+
+        List<ReviewSearchHit> hits = reviewSearchIndex.search(query, movieId, userId, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        List<Review> keys = hits.stream()
+                .map(hit -> Review.builder().userId(hit.key().userId()).movieId(hit.key().movieId()).build())
+                .toList();
+        Map<ReviewKey, Review> reviews = new HashMap<>();
+        for (Review review : reviewRepository.findAllByUserIdAndMovieIdPairs(keys)) {
+            reviews.put(ReviewKey.of(review), review);
+        }
+
+        return hits.stream()
+                .filter(hit -> reviews.containsKey(hit.key()))
+                .map(hit -> ReviewSearchHitResponse.builder()
+                        .score(hit.score())
+                        .review(DtoMapper.from(reviews.get(hit.key())))
+                        .build())
+                .toList();
+    }
+}
@@ -1,48 +1,75 @@
 package app.popdreviewsvc.service;
 
+import app.popdreviewsvc.exception.InvalidPageSizeException;
 import app.popdreviewsvc.exception.NotFoundException;
+import app.popdreviewsvc.model.MovieReviewStats;
 import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.model.ReviewVersion;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReviewChange;
+import app.popdreviewsvc.repository.ReviewField;
 import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.repository.ReviewStorageStats;
+import app.popdreviewsvc.repository.ReviewVersionRepository;
+import app.popdreviewsvc.repository.SecondaryReads;
+import app.popdreviewsvc.service.ConcurrencyLimited.Kind;
 import app.popdreviewsvc.web.dto.ReviewRequest;
 import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.dto.ReviewSliceResponse;
 import app.popdreviewsvc.web.mapper.DtoMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Timed(value = "reviews.service", histogram = true)
 public class ReviewService {
 
+    public static final int MAX_SLICE_SIZE = 100;
+
+    private static final int LATEST_USER_REVIEWS_LIMIT = 20;
+
     private final ReviewRepository reviewRepository;
+    private final MovieReviewStatsRepository movieReviewStatsRepository;
+    private final MovieReviewsCache movieReviewsCache;
+    private final ReviewVersionRepository reviewVersionRepository;
+    private final ReviewWriteBuffer reviewWriteBuffer;
+    private final TrendingMoviesTracker trendingMoviesTracker;
+    private final TopRatedMoviesLeaderboard topRatedMoviesLeaderboard;
+    private final ReviewSearchIndex reviewSearchIndex;
 
-    public ReviewService(ReviewRepository reviewRepository) {
+    public ReviewService(ReviewRepository reviewRepository, MovieReviewStatsRepository movieReviewStatsRepository,
+                         MovieReviewsCache movieReviewsCache, ReviewVersionRepository reviewVersionRepository,
+                         ReviewWriteBuffer reviewWriteBuffer, TrendingMoviesTracker trendingMoviesTracker,
+                         TopRatedMoviesLeaderboard topRatedMoviesLeaderboard, ReviewSearchIndex reviewSearchIndex) {
         this.reviewRepository = reviewRepository;
+        this.movieReviewStatsRepository = movieReviewStatsRepository;
+        this.movieReviewsCache = movieReviewsCache;
+        this.reviewVersionRepository = reviewVersionRepository;
+        this.reviewWriteBuffer = reviewWriteBuffer;
+        this.trendingMoviesTracker = trendingMoviesTracker;
+        this.topRatedMoviesLeaderboard = topRatedMoviesLeaderboard;
+        this.reviewSearchIndex = reviewSearchIndex;
     }
 
-    public Review upsert(ReviewRequest reviewRequest) {
-        Optional<Review> reviewOpt = reviewRepository.findByUserIdAndMovieId(reviewRequest.getUserId(), reviewRequest.getMovieId());
-
-        if (reviewOpt.isPresent()) {
-            Review review = reviewOpt.get();
-
-            review.setContent(reviewRequest.getContent());
-            review.setRating(reviewRequest.getRating());
-            review.setTitle(reviewRequest.getTitle());
-            review.setUpdatedOn(LocalDateTime.now());
-
-            Review savedReview = reviewRepository.save(review);
-            log.info("Successfully updated review with id {} for user with id {} and movie with id {}",
-                    savedReview.getId(), savedReview.getUserId(), savedReview.getMovieId());
-            return savedReview;
-        }
-
+    @ConcurrencyLimited(Kind.WRITE)
+    public UpsertResult upsert(ReviewRequest reviewRequest) {
+        LocalDateTime now = LocalDateTime.now();
         Review review = Review.builder()
                 .id(UUID.randomUUID())
                 .userId(reviewRequest.getUserId())
@@ -50,53 +77,250 @@ public class ReviewService {
                 .rating(reviewRequest.getRating())
                 .content(reviewRequest.getContent())
                 .title(reviewRequest.getTitle())
-                .createdOn(LocalDateTime.now())
-                .updatedOn(LocalDateTime.now())
+                .createdOn(now)
+                .updatedOn(now)
                 .build();
+        trendingMoviesTracker.record(review.getMovieId(), now);
 
-        Review savedReview = reviewRepository.save(review);
+        if (reviewWriteBuffer.isEnabled()) {
+            return bufferUpsert(review);
+        }
+
+        Optional<Review> previousOpt = reviewRepository.upsertByUserIdAndMovieId(review);
+        movieReviewsCache.invalidate(review.getMovieId());
+        reviewSearchIndex.index(review);
+
+        if (previousOpt.isPresent()) {
+            Review previous = previousOpt.get();
+            review.setId(previous.getId());
+            review.setCreatedOn(previous.getCreatedOn());
+
+            movieReviewStatsRepository.applyReviewChange(review.getMovieId(), 0, previous.getRating(), review.getRating());
+            topRatedMoviesLeaderboard.apply(new ReviewChange(review.getMovieId(), 0, previous.getRating(), review.getRating()));
+            reviewVersionRepository.bump(Set.of(review.getMovieId()), Set.of(review.getUserId()));
+            log.info("Successfully updated review with id {} for user with id {} and movie with id {}",
+                    review.getId(), review.getUserId(), review.getMovieId());
+            return new UpsertResult(review, false);
+        }
+
+        movieReviewStatsRepository.applyReviewChange(review.getMovieId(), 1, null, review.getRating());
+        topRatedMoviesLeaderboard.apply(new ReviewChange(review.getMovieId(), 1, null, review.getRating()));
+        reviewVersionRepository.bump(Set.of(review.getMovieId()), Set.of(review.getUserId()));
         log.info("Successfully created new review with id {} for user with id {} and movie with id {}",
-                savedReview.getId(), savedReview.getUserId(), savedReview.getMovieId());
-        return savedReview;
+                review.getId(), review.getUserId(), review.getMovieId());
+        return new UpsertResult(review, true);
     }
 
+    // the stored or pending review only tells whether this is a new review; stats, cache and versions follow on flush
+    private UpsertResult bufferUpsert(Review review) {
+        ReviewKey key = ReviewKey.of(review);
+        Review previous = reviewWriteBuffer.get(key);
+        if (previous == null) {
+            previous = reviewRepository.findByUserIdAndMovieId(review.getUserId(), review.getMovieId()).orElse(null);
+        }
+
+        if (previous != null) {
+            review.setId(previous.getId());
+            review.setCreatedOn(previous.getCreatedOn());
+        }
+        reviewWriteBuffer.put(review);
+
+        log.debug("Buffered review with id {} for user with id {} and movie with id {}",
+                review.getId(), review.getUserId(), review.getMovieId());
+        return new UpsertResult(review, previous == null);
+    }
+
+    @ConcurrencyLimited(Kind.READ)
     public Review findByUserIdAndMovieId(UUID userId, UUID movieId) {
+        if (reviewWriteBuffer.isEnabled()) {
+            Review pending = reviewWriteBuffer.get(new ReviewKey(userId, movieId));
+            if (pending != null) {
+                return pending;
+            }
+        }
+
         return reviewRepository.findByUserIdAndMovieId(userId, movieId).orElseThrow(() -> new NotFoundException("Review with user id [%s] and movie id [%s] not found".formatted(userId, movieId)));
     }
 
+    @ConcurrencyLimited(Kind.WRITE)
     public void removeReview(UUID userId, UUID movieId) {
+        Review pending = reviewWriteBuffer.isEnabled() ? reviewWriteBuffer.remove(new ReviewKey(userId, movieId)) : null;
+        if (pending != null) {
+            // a review created within the current window never reached MongoDB, dropping it is the whole delete
+            if (reviewRepository.findByUserIdAndMovieId(userId, movieId).isEmpty()) {
+                reviewSearchIndex.remove(userId, movieId);
+                log.info("Successfully removed unsaved review with id {} for user with id {} and movie with id {}",
+                        pending.getId(), userId, movieId);
+                return;
+            }
+        }
+
         Review review = findByUserIdAndMovieId(userId, movieId);
         reviewRepository.delete(review);
+        movieReviewStatsRepository.applyReviewChange(movieId, -1, review.getRating(), null);
+        topRatedMoviesLeaderboard.apply(new ReviewChange(movieId, -1, review.getRating(), null));
+        movieReviewsCache.invalidate(movieId);
+        reviewSearchIndex.remove(userId, movieId);
+        reviewVersionRepository.bump(Set.of(movieId), Set.of(userId));
         log.info("Successfully removed review with id {} for user with id {} and movie with id {}",
                 review.getId(), userId, movieId);
     }
 
+    @ConcurrencyLimited(Kind.READ)
+    @SecondaryReads
     public List<ReviewResponse> getLatestReviews(UUID movieId, int count) {
-        List<Review> reviews = reviewRepository.findAllByMovieIdOrderByUpdatedOnDesc(movieId);
+        return getLatestReviews(movieId, count, null);
+    }
+
+    /**
+     * @param fields fields to read from the database, or {@code null} for all of them. Cached movies are served
+     *               from memory in full, since the cache holds complete reviews either way.
+     */
+    @ConcurrencyLimited(Kind.READ)
+    @SecondaryReads
+    public List<ReviewResponse> getLatestReviews(UUID movieId, int count, Set<ReviewField> fields) {
+        List<ReviewResponse> reviews;
+
+        if (count <= movieReviewsCache.getDepth()) {
+            reviews = getCachedLatestReviews(movieId).getContent().stream().limit(count).toList();
+        } else if (fields == null) {
+            reviews = reviewRepository.findAllByMovieIdOrderByUpdatedOnDesc(movieId, Limit.of(count))
+                    .stream().map(DtoMapper::from).toList();
+        } else {
+            reviews = reviewRepository.findLatestByMovieId(movieId, PageRequest.of(0, count), fields)
+                    .stream().map(DtoMapper::from).toList();
+        }
 
         if (reviews.isEmpty()) {
             throw new NotFoundException("Latest Reviews not found for movie with id [%s]".formatted(movieId));
         }
 
-        return reviews.stream().map(DtoMapper::from).limit(count).toList();
+        return reviews;
     }
 
+    @ConcurrencyLimited(Kind.READ)
+    @SecondaryReads
     public Page<ReviewResponse> getReviewsForMovie(UUID movieId, Pageable pageable) {
+        return getReviewsForMovie(movieId, pageable, null);
+    }
+
+    @ConcurrencyLimited(Kind.READ)
+    @SecondaryReads
+    public Page<ReviewResponse> getReviewsForMovie(UUID movieId, Pageable pageable, Set<ReviewField> fields) {
+        if (pageable.getPageNumber() == 0 && pageable.getPageSize() <= movieReviewsCache.getDepth() && pageable.getSort().isUnsorted()) {
+            Page<ReviewResponse> cached = getCachedLatestReviews(movieId);
+            List<ReviewResponse> content = cached.getContent().subList(0, Math.min(pageable.getPageSize(), cached.getNumberOfElements()));
+
+            return new PageImpl<>(content, pageable, cached.getTotalElements());
+        }
+
+        if (fields != null) {
+            List<ReviewResponse> content = reviewRepository.findLatestByMovieId(movieId, pageable, fields)
+                    .stream().map(DtoMapper::from).toList();
+
+            return PageableExecutionUtils.getPage(content, pageable, () -> reviewRepository.countByMovieId(movieId));
+        }
+
         Page<Review> reviews = reviewRepository.findByMovieIdOrderByUpdatedOnDesc(movieId, pageable);
 
         return reviews.map(DtoMapper::from);
     }
 
-    public Integer getAllReviewsForAMovieCount(UUID movieId) {
-        List<Review> reviews = reviewRepository.findAllByMovieId(movieId);
+    private Page<ReviewResponse> getCachedLatestReviews(UUID movieId) {
+        return movieReviewsCache.get(movieId, id -> reviewRepository
+                .findByMovieIdOrderByUpdatedOnDesc(id, PageRequest.of(0, movieReviewsCache.getDepth()))
+                .map(DtoMapper::from));
+    }
 
-        if (reviews.isEmpty()) {
-            throw new NotFoundException("No reviews found for movie with id [%s]".formatted(movieId));
+    @ConcurrencyLimited(Kind.READ)
+    @SecondaryReads
+    public ReviewSliceResponse getReviewsForMovieAfter(UUID movieId, String cursor, int requestedSize, boolean includeTotal) {
+        int size = sliceSize(requestedSize);
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Review> reviews;
+
+        if (cursor == null || cursor.isBlank()) {
+            reviews = reviewRepository.findSliceByMovieIdOrderByUpdatedOnDescIdDesc(movieId, pageable);
+        } else {
+            ReviewCursor after = ReviewCursor.decode(cursor);
+            reviews = reviewRepository.findSliceByMovieIdAfterCursor(movieId, after.updatedOn(), after.id(), pageable);
         }
 
-        return reviews.size();
+        List<Review> content = reviews.getContent();
+        String nextCursor = reviews.hasNext() ? ReviewCursor.of(content.get(content.size() - 1)).encode() : null;
+        Long totalElements = includeTotal
+                ? movieReviewStatsRepository.findById(movieId).map(MovieReviewStats::getTotalReviews).orElse(0L)
+                : null;
+
+        return ReviewSliceResponse.builder()
+                .content(content.stream().map(DtoMapper::from).toList())
+                .size(size)
+                .hasNext(reviews.hasNext())
+                .nextCursor(nextCursor)
+                .totalElements(totalElements)
+                .build();
+    }
+
+    /**
+     * Slice size capped at {@value #MAX_SLICE_SIZE}.
+     *
+     * @throws InvalidPageSizeException when the size is below 1
+     */
+    static int sliceSize(int size) {
+        if (size < 1) {
+            throw new InvalidPageSizeException("size must be at least 1, got [%d]".formatted(size));
+        }
+        return Math.min(size, MAX_SLICE_SIZE);
+    }
+
+    /**
+     * Version of everything served about the movie: its reviews, pages, slices and stats. Read it before the
+     * data, so that a write in between can only make the data newer than the version, never older.
+     */
+    @ConcurrencyLimited(Kind.READ)
+    public ReviewVersion getMovieVersion(UUID movieId) {
+        return reviewVersionRepository.getCurrent(ReviewVersion.movieKey(movieId));
+    }
+
+    /**
+     * Version of everything served about the user's reviews, see {@link #getMovieVersion(UUID)}.
+     */
+    @ConcurrencyLimited(Kind.READ)
+    public ReviewVersion getUserVersion(UUID userId) {
+        return reviewVersionRepository.getCurrent(ReviewVersion.userKey(userId));
+    }
+
+    @ConcurrencyLimited(Kind.READ)
+    @SecondaryReads
+    public MovieReviewStats getMovieReviewStats(UUID movieId) {
+        return movieReviewStatsRepository.findById(movieId)
+                .filter(stats -> stats.getTotalReviews() != null && stats.getTotalReviews() > 0)
+                .orElseThrow(() -> new NotFoundException("No reviews found for movie with id [%s]".formatted(movieId)));
+    }
+
+    public long rebuildMovieReviewStats() {
+        long rebuilt = movieReviewStatsRepository.rebuildFromReviews();
+        reviewVersionRepository.bumpAll();
+        topRatedMoviesLeaderboard.rebuild();
+        log.info("Successfully rebuilt review stats for {} movies", rebuilt);
+        return rebuilt;
+    }
+
+    public long compressStoredContent() {
+        ReviewStorageStats before = reviewRepository.getStorageStats();
+        log.info("Review storage before compression: {}", before);
+
+        long compressed = reviewRepository.compressStoredContent();
+
+        ReviewStorageStats after = reviewRepository.getStorageStats();
+        log.info("Review storage after compression: {}", after);
+        log.info("Successfully compressed the content of {} reviews, data size {} -> {} bytes, storage size {} -> {} bytes",
+                compressed, before.dataSize(), after.dataSize(), before.storageSize(), after.storageSize());
+        return compressed;
     }
 
+    @ConcurrencyLimited(Kind.READ)
+    @SecondaryReads
     public Integer getAllReviewedMoviesCountByUser(UUID userId) {
         List<Review> reviews = reviewRepository.findAllByUserId(userId);
 
@@ -107,15 +331,35 @@ public class ReviewService {
         return reviews.size();
     }
 
+    @ConcurrencyLimited(Kind.READ)
+    @SecondaryReads
     public List<ReviewResponse> getLatestReviewsByUserId(UUID userId) {
-        List<Review> latestReviews = reviewRepository.findAllByUserIdOrderByCreatedOnDesc(userId);
+        return getLatestReviewsByUserId(userId, null);
+    }
+
+    @ConcurrencyLimited(Kind.READ)
+    @SecondaryReads
+    public List<ReviewResponse> getLatestReviewsByUserId(UUID userId, Set<ReviewField> fields) {
+        List<Review> latestReviews = fields == null
+                ? reviewRepository.findAllByUserIdOrderByCreatedOnDesc(userId, Limit.of(LATEST_USER_REVIEWS_LIMIT))
+                : reviewRepository.findLatestByUserId(userId, LATEST_USER_REVIEWS_LIMIT, fields);
 
         if (latestReviews.isEmpty()) {
             throw new NotFoundException("Latest Reviews not found for user with id [%s]".formatted(userId));
         }
 
-        List<ReviewResponse> responses = latestReviews.stream().map(DtoMapper::from).toList();
+        return latestReviews.stream().map(DtoMapper::from).toList();
+    }
+
+    public Stream<ReviewResponse> streamReviewsForMovie(UUID movieId) {
+        return reviewRepository.streamAllByMovieId(movieId).map(DtoMapper::from);
+    }
+
+    public Stream<ReviewResponse> streamReviewsByUser(UUID userId) {
+        return reviewRepository.streamAllByUserId(userId).map(DtoMapper::from);
+    }
 
-        return responses.stream().limit(20).toList();
+    public Stream<ReviewResponse> streamAllReviews() {
+        return reviewRepository.streamAllBy().map(DtoMapper::from);
     }
 }
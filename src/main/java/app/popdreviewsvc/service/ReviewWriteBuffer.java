@@ -0,0 +1,223 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.BulkUpsertResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in coalescing of {@link ReviewService#upsert} writes. Upserts of the same {@code (userId, movieId)} within
+ * one window replace each other in memory, and every window the surviving reviews are written with the bulk
+ * upserts of {@link ReviewBatchService#applyReviews}. Pending and in-flight reviews are visible through
+ * {@link #get} until they are in MongoDB.
+ * Enable with {@code reviews.write-coalescing.enabled=true}.
+ */
+@Slf4j
+@Component
+public class ReviewWriteBuffer {
+
+    private final ReviewBatchService reviewBatchService;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int batchSize;
+
+    // each stripe is guarded by its own monitor, so saves of unrelated reviews rarely contend
+    private final Map<ReviewKey, Review>[] stripes;
+    // drained from the stripes and not yet confirmed by MongoDB
+    private final Map<ReviewKey, Review> inFlight = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    @SuppressWarnings("unchecked")
+    public ReviewWriteBuffer(ReviewBatchService reviewBatchService,
+                             @Value("${reviews.write-coalescing.enabled:false}") boolean enabled,
+                             @Value("${reviews.write-coalescing.window-millis:2000}") long windowMillis,
+                             @Value("${reviews.write-coalescing.stripes:16}") int stripes,
+                             @Value("${reviews.batch.max-size:500}") int batchSize) {
+        this.reviewBatchService = reviewBatchService;
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.batchSize = batchSize;
+        this.stripes = new Map[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new HashMap<>();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "review-write-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        log.info("Coalescing review writes in windows of {} ms", windowMillis);
+    }
+
+    // the flusher is stopped first, so this last flush can't race with a scheduled one
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+
+        flusher.shutdown();
+        flusher.awaitTermination(windowMillis + 30_000, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The newest review of the user and movie that is not in MongoDB yet, or {@code null}.
+     */
+    public Review get(ReviewKey key) {
+        Map<ReviewKey, Review> stripe = stripe(key);
+        synchronized (stripe) {
+            Review pending = stripe.get(key);
+            if (pending != null) {
+                return pending;
+            }
+        }
+
+        return inFlight.get(key);
+    }
+
+    /**
+     * Queues the review, replacing any pending review of the same user and movie.
+     */
+    public void put(Review review) {
+        ReviewKey key = ReviewKey.of(review);
+        Map<ReviewKey, Review> stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.put(key, review);
+        }
+    }
+
+    /**
+     * Drops the pending review of the user and movie, e.g. because it is being deleted. A review of the same user and
+     * movie that a flush is writing at that moment is waited for, so once this returns the buffer won't write it, and
+     * a delete that follows sees it in MongoDB.
+     *
+     * @return the dropped review, or {@code null}
+     */
+    public Review remove(ReviewKey key) {
+        Map<ReviewKey, Review> stripe = stripe(key);
+        boolean interrupted = false;
+        synchronized (stripe) {
+            Review pending = stripe.remove(key);
+            // a failed flush requeues into the stripe before releasing the key, so that review is dropped as well
+            while (inFlight.containsKey(key)) {
+                try {
+                    stripe.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+                Review requeued = stripe.remove(key);
+                if (requeued != null) {
+                    pending = requeued;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return pending;
+        }
+    }
+
+    /**
+     * Writes every pending review in bulk batches of {@code reviews.batch.max-size}.
+     *
+     * @return number of reviews written
+     */
+    public int flush() {
+        List<Review> drained = new ArrayList<>();
+        for (Map<ReviewKey, Review> stripe : stripes) {
+            synchronized (stripe) {
+                for (Map.Entry<ReviewKey, Review> entry : stripe.entrySet()) {
+                    inFlight.put(entry.getKey(), entry.getValue());
+                    drained.add(entry.getValue());
+                }
+                stripe.clear();
+            }
+        }
+
+        int written = 0;
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            List<Review> batch = drained.subList(from, Math.min(from + batchSize, drained.size()));
+            try {
+                BulkUpsertResult result = reviewBatchService.applyReviews(batch);
+                written += batch.size() - result.failedIndexes().size();
+                result.failedIndexes().forEach((index, failure) ->
+                        log.warn("Dropped coalesced review for user with id {} and movie with id {}: {}",
+                                batch.get(index).getUserId(), batch.get(index).getMovieId(), failure));
+            } catch (RuntimeException e) {
+                log.error("Failed to flush {} coalesced reviews, retrying in the next window", batch.size(), e);
+                requeue(batch);
+            } finally {
+                release(batch);
+            }
+        }
+
+        if (written > 0) {
+            log.debug("Flushed {} coalesced reviews", written);
+        }
+        return written;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Unexpected failure while flushing coalesced reviews", e);
+        }
+    }
+
+    // a newer save of the same review made during the failed flush wins over the retried one
+    private void requeue(List<Review> batch) {
+        for (Review review : batch) {
+            ReviewKey key = ReviewKey.of(review);
+            Map<ReviewKey, Review> stripe = stripe(key);
+            synchronized (stripe) {
+                if (inFlight.remove(key, review)) {
+                    stripe.putIfAbsent(key, review);
+                }
+            }
+        }
+    }
+
+    // wakes up removals waiting for the batch, whether it was written, dropped or requeued
+    private void release(List<Review> batch) {
+        for (Review review : batch) {
+            ReviewKey key = ReviewKey.of(review);
+            Map<ReviewKey, Review> stripe = stripe(key);
+            synchronized (stripe) {
+                inFlight.remove(key, review);
+                stripe.notifyAll();
+            }
+        }
+    }
+
+    private Map<ReviewKey, Review> stripe(ReviewKey key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+}
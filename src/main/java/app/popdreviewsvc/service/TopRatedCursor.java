@@ -0,0 +1,34 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last movie returned from the top-rated leaderboard, exchanged with clients as an opaque token.
+ */
+public record TopRatedCursor(double score, UUID movieId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = score + SEPARATOR + movieId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TopRatedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor [%s]".formatted(token));
+            }
+
+            return new TopRatedCursor(Double.parseDouble(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor [%s]".formatted(token));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.InvalidPageSizeException;
+import app.popdreviewsvc.model.MovieReviewStats;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReviewChange;
+import app.popdreviewsvc.web.dto.TopRatedMovieResponse;
+import app.popdreviewsvc.web.dto.TopRatedMoviesSliceResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Movies ranked by the Bayesian average {@code (C * m + ratingSum) / (C + ratedReviews)}, where the prior weight
+ * {@code C} is {@code reviews.leaderboard.prior-weight} and the prior mean {@code m} is the mean of all ratings at
+ * the last rebuild. The ranking is a sorted set kept in memory and moved by the rating deltas of every review write,
+ * so a page is read by seeking to the cursor and walking {@code size} entries.
+ * <p>
+ * Like the trending counters it follows the writes of this instance only. It is rebuilt from
+ * {@code movie_review_stats} on startup and then every {@code reviews.leaderboard.refresh-interval-seconds},
+ * which also moves {@code m} and picks up writes served by other instances.
+ */
+@Slf4j
+@Component
+public class TopRatedMoviesLeaderboard {
+
+    public static final int MAX_PAGE_SIZE = ReviewService.MAX_SLICE_SIZE;
+
+    // prior mean until the first rebuild, or when nothing is rated yet
+    private static final double MIDPOINT_RATING = (MovieReviewStats.MIN_RATING + MovieReviewStats.MAX_RATING) / 2.0;
+
+    private static final Comparator<Entry> RANKING_ORDER = Comparator.comparingDouble(Entry::score).reversed()
+            .thenComparing(Entry::movieId);
+
+    private final MovieReviewStatsRepository movieReviewStatsRepository;
+    private final double priorWeight;
+    private final long refreshIntervalSeconds;
+
+    // all guarded by this
+    private NavigableSet<Entry> ranking = new TreeSet<>(RANKING_ORDER);
+    private Map<UUID, Entry> entries = new HashMap<>();
+    private double priorMean = MIDPOINT_RATING;
+
+    private ScheduledExecutorService refresher;
+
+    public TopRatedMoviesLeaderboard(MovieReviewStatsRepository movieReviewStatsRepository,
+                                     @Value("${reviews.leaderboard.prior-weight:10}") double priorWeight,
+                                     @Value("${reviews.leaderboard.refresh-interval-seconds:600}") long refreshIntervalSeconds) {
+        this.movieReviewStatsRepository = movieReviewStatsRepository;
+        this.priorWeight = priorWeight;
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+    }
+
+    // the first rebuild reads one document per rated movie, so it runs in the background instead of holding up startup
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (refreshIntervalSeconds < 0) {
+            return;
+        }
+
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "top-rated-movies-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (refreshIntervalSeconds == 0) {
+            refresher.execute(this::rebuildQuietly);
+        } else {
+            refresher.scheduleWithFixedDelay(this::rebuildQuietly, 0, refreshIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild the top rated movies leaderboard", e);
+        }
+    }
+
+    /**
+     * Replaces the ranking with one computed from {@code movie_review_stats}. Writes applied while the stats are
+     * being read may be lost until the next rebuild.
+     *
+     * @return number of ranked movies
+     */
+    public long rebuild() {
+        List<MovieReviewStats> rated = new ArrayList<>();
+        long totalRatings = 0;
+        long totalRatingSum = 0;
+        try (Stream<MovieReviewStats> stats = movieReviewStatsRepository.streamRatedMovies()) {
+            for (MovieReviewStats movie : (Iterable<MovieReviewStats>) stats::iterator) {
+                rated.add(movie);
+                totalRatings += movie.getRatedReviews();
+                totalRatingSum += movie.getRatingSum();
+            }
+        }
+
+        double newPriorMean = totalRatings > 0 ? (double) totalRatingSum / totalRatings : MIDPOINT_RATING;
+        NavigableSet<Entry> newRanking = new TreeSet<>(RANKING_ORDER);
+        Map<UUID, Entry> newEntries = new HashMap<>(rated.size() * 4 / 3 + 1);
+        for (MovieReviewStats movie : rated) {
+            Entry entry = entry(movie.getMovieId(), movie.getRatedReviews(), movie.getRatingSum(), newPriorMean);
+            newRanking.add(entry);
+            newEntries.put(entry.movieId(), entry);
+        }
+
+        synchronized (this) {
+            ranking = newRanking;
+            entries = newEntries;
+            priorMean = newPriorMean;
+        }
+        log.info("Rebuilt the top rated movies leaderboard with {} movies and a prior mean of {}", rated.size(), newPriorMean);
+        return rated.size();
+    }
+
+    public void apply(ReviewChange change) {
+        synchronized (this) {
+            applyLocked(change);
+        }
+    }
+
+    public void applyAll(List<ReviewChange> changes) {
+        synchronized (this) {
+            changes.forEach(this::applyLocked);
+        }
+    }
+
+    private void applyLocked(ReviewChange change) {
+        long ratedDelta = (change.newRating() != null ? 1 : 0) - (change.oldRating() != null ? 1 : 0);
+        long ratingSumDelta = (change.newRating() != null ? change.newRating() : 0) - (change.oldRating() != null ? change.oldRating() : 0);
+        if (ratedDelta == 0 && ratingSumDelta == 0) {
+            return;
+        }
+
+        Entry previous = entries.remove(change.movieId());
+        long ratedReviews = ratedDelta;
+        long ratingSum = ratingSumDelta;
+        if (previous != null) {
+            ranking.remove(previous);
+            ratedReviews += previous.ratedReviews();
+            ratingSum += previous.ratingSum();
+        }
+
+        if (ratedReviews > 0) {
+            Entry entry = entry(change.movieId(), ratedReviews, ratingSum, priorMean);
+            ranking.add(entry);
+            entries.put(entry.movieId(), entry);
+        }
+    }
+
+    /**
+     * The next {@code size} (at most {@value #MAX_PAGE_SIZE}) movies after the cursor, best first.
+     *
+     * @param cursor {@code nextCursor} of the previous slice, or {@code null} for the first one
+     * @throws InvalidPageSizeException when the size is below 1
+     */
+    public TopRatedMoviesSliceResponse getTopRated(String cursor, int size) {
+        int limit = ReviewService.sliceSize(size);
+        TopRatedCursor after = cursor == null || cursor.isBlank() ? null : TopRatedCursor.decode(cursor);
+
+        List<TopRatedMovieResponse> content = new ArrayList<>(limit);
+        Entry last = null;
+        boolean hasNext;
+        synchronized (this) {
+            Iterator<Entry> iterator = after == null
+                    ? ranking.iterator()
+                    : ranking.tailSet(new Entry(after.movieId(), 0, 0, after.score()), false).iterator();
+            while (content.size() < limit && iterator.hasNext()) {
+                last = iterator.next();
+                content.add(TopRatedMovieResponse.builder()
+                        .movieId(last.movieId())
+                        .score(last.score())
+                        .averageRating((double) last.ratingSum() / last.ratedReviews())
+                        .ratedReviews(last.ratedReviews())
+                        .build());
+            }
+            hasNext = iterator.hasNext();
+        }
+
+        return TopRatedMoviesSliceResponse.builder()
+                .content(content)
+                .size(limit)
+                .hasNext(hasNext)
+                .nextCursor(hasNext && last != null ? new TopRatedCursor(last.score(), last.movieId()).encode() : null)
+                .build();
+    }
+
+    private Entry entry(UUID movieId, long ratedReviews, long ratingSum, double mean) {
+        double score = (priorWeight * mean + ratingSum) / (priorWeight + ratedReviews);
+        return new Entry(movieId, ratedReviews, ratingSum, score);
+    }
+
+    private record Entry(UUID movieId, long ratedReviews, long ratingSum, double score) {
+    }
+}
@@ -0,0 +1,265 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.web.dto.TrendingMovieResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Review activity per movie over the last hour and day, kept in memory as a ring of time buckets per
+ * {@link TrendingWindow}. Every review write counts once for its movie, and whole buckets expire as time moves on.
+ * A bucket counts at most {@code reviews.trending.max-movies-per-bucket} distinct movies, so memory stays bounded
+ * by {@code buckets * max-movies-per-bucket} however large the catalog is. A full bucket is a Space-Saving summary:
+ * a movie it does not count yet takes over the counter of its least counted movie, which keeps every movie with more
+ * than {@code 1 / max-movies-per-bucket} of the bucket's writes in it, at the price of overcounting newcomers by at
+ * most the evicted count.
+ * <p>
+ * Counts are per instance: they are seeded from the {@code updatedOn} of recent reviews on startup and then follow
+ * the single and batch writes this instance serves.
+ */
+@Slf4j
+@Component
+public class TrendingMoviesTracker {
+
+    public static final int MAX_LIMIT = 100;
+
+    private final ReviewRepository reviewRepository;
+    private final boolean seedOnStartup;
+    private final Map<TrendingWindow, SlidingWindow> windows = new EnumMap<>(TrendingWindow.class);
+
+    public TrendingMoviesTracker(ReviewRepository reviewRepository,
+                                 @Value("${reviews.trending.seed-on-startup:true}") boolean seedOnStartup,
+                                 @Value("${reviews.trending.max-movies-per-bucket:2000}") int maxMoviesPerBucket) {
+        this.reviewRepository = reviewRepository;
+        this.seedOnStartup = seedOnStartup;
+        for (TrendingWindow window : TrendingWindow.values()) {
+            windows.put(window, new SlidingWindow(window, maxMoviesPerBucket));
+        }
+    }
+
+    // seeding reads a day of reviews, so it runs in the background instead of holding up startup
+    @EventListener(ApplicationReadyEvent.class)
+    void seedInBackground() {
+        if (!seedOnStartup) {
+            return;
+        }
+
+        Thread thread = new Thread(this::seedQuietly, "trending-movies-seed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void seedQuietly() {
+        try {
+            long seeded = seed();
+            log.info("Seeded trending movies from {} recently written reviews", seeded);
+        } catch (RuntimeException e) {
+            log.error("Failed to seed trending movies, counting only new review writes", e);
+        }
+    }
+
+    /**
+     * Counts every review written within the longest window, by its {@code updatedOn}.
+     *
+     * @return number of reviews counted
+     */
+    public long seed() {
+        LocalDateTime since = LocalDateTime.now().minus(TrendingWindow.DAY.getDuration());
+        long seeded = 0;
+
+        try (Stream<Review> reviews = reviewRepository.streamMovieActivitySince(since)) {
+            for (Review review : (Iterable<Review>) reviews::iterator) {
+                record(review.getMovieId(), review.getUpdatedOn());
+                seeded++;
+            }
+        }
+
+        return seeded;
+    }
+
+    public void record(UUID movieId, LocalDateTime at) {
+        long epochMillis = toEpochMillis(at);
+        for (SlidingWindow window : windows.values()) {
+            window.record(movieId, epochMillis);
+        }
+    }
+
+    public List<TrendingMovieResponse> getTrending(TrendingWindow window, int limit) {
+        return getTrending(window, limit, LocalDateTime.now());
+    }
+
+    /**
+     * The {@code limit} (at most {@value #MAX_LIMIT}) movies with the most review writes in the window ending at
+     * {@code now}, most active first.
+     */
+    public List<TrendingMovieResponse> getTrending(TrendingWindow window, int limit, LocalDateTime now) {
+        return windows.get(window).top(Math.min(limit, MAX_LIMIT), toEpochMillis(now));
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Ring of {@code window.getBuckets()} buckets, where slot {@code id % buckets} holds the counts of bucket
+     * {@code id = epochMillis / bucketMillis}, plus the running totals of every bucket still in the ring.
+     * A slot only ever holds one bucket of the window, since older buckets are expired as the head moves past them.
+     */
+    private static final class SlidingWindow {
+
+        private final long bucketMillis;
+        private final int maxMoviesPerBucket;
+        private final Bucket[] buckets;
+        private final Map<UUID, Long> totals = new HashMap<>();
+        // newest bucket the ring has moved to, older buckets than head - buckets + 1 are gone
+        private long head = Long.MIN_VALUE;
+
+        SlidingWindow(TrendingWindow window, int maxMoviesPerBucket) {
+            this.bucketMillis = window.getBucketDuration().toMillis();
+            this.maxMoviesPerBucket = maxMoviesPerBucket;
+            this.buckets = new Bucket[window.getBuckets()];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        synchronized void record(UUID movieId, long epochMillis) {
+            long bucketId = Math.floorDiv(epochMillis, bucketMillis);
+            advance(bucketId);
+            if (bucketId <= head - buckets.length) {
+                return;
+            }
+
+            Bucket bucket = buckets[slot(bucketId)];
+            int count = 1;
+            if (bucket.counts.size() >= maxMoviesPerBucket && !bucket.counts.containsKey(movieId)) {
+                int least = bucket.leastCount();
+                subtract(bucket.evictLeast(), least);
+                count += least;
+            }
+
+            bucket.add(movieId, count);
+            totals.merge(movieId, (long) count, Long::sum);
+        }
+
+        synchronized List<TrendingMovieResponse> top(int limit, long nowMillis) {
+            advance(Math.floorDiv(nowMillis, bucketMillis));
+            if (limit <= 0) {
+                return List.of();
+            }
+
+            // min-heap of the best movies so far, O(movies * log limit)
+            Comparator<Map.Entry<UUID, Long>> byCount = Map.Entry.comparingByValue();
+            PriorityQueue<Map.Entry<UUID, Long>> best = new PriorityQueue<>(limit + 1, byCount);
+            for (Map.Entry<UUID, Long> entry : totals.entrySet()) {
+                if (best.size() < limit) {
+                    best.add(entry);
+                } else if (entry.getValue() > best.peek().getValue()) {
+                    best.poll();
+                    best.add(entry);
+                }
+            }
+
+            List<TrendingMovieResponse> trending = new ArrayList<>(best.size());
+            best.stream()
+                    .sorted(byCount.reversed())
+                    .forEach(entry -> trending.add(TrendingMovieResponse.builder()
+                            .movieId(entry.getKey())
+                            .reviews(entry.getValue())
+                            .build()));
+            return trending;
+        }
+
+        // expires every bucket that falls out of the ring when it moves forward to newHead
+        private void advance(long newHead) {
+            if (newHead <= head) {
+                return;
+            }
+
+            long from = head == Long.MIN_VALUE ? newHead - buckets.length + 1 : Math.max(head + 1, newHead - buckets.length + 1);
+            for (long bucketId = from; bucketId <= newHead; bucketId++) {
+                expire(slot(bucketId));
+            }
+            head = newHead;
+        }
+
+        private void expire(int slot) {
+            buckets[slot].counts.forEach(this::subtract);
+            buckets[slot].clear();
+        }
+
+        private void subtract(UUID movieId, int count) {
+            totals.computeIfPresent(movieId, (id, total) -> total <= count ? null : total - count);
+        }
+
+        private int slot(long bucketId) {
+            return (int) Math.floorMod(bucketId, (long) buckets.length);
+        }
+    }
+
+    /**
+     * Counts of one time bucket, with the movies also grouped by count, so the least counted one is found in
+     * {@code O(log distinct counts)} instead of by scanning the bucket.
+     */
+    private static final class Bucket {
+
+        private final Map<UUID, Integer> counts = new HashMap<>();
+        // insertion ordered, so the movie that reached the least count first is evicted first
+        private final TreeMap<Integer, Set<UUID>> moviesByCount = new TreeMap<>();
+
+        void add(UUID movieId, int count) {
+            Integer previous = counts.get(movieId);
+            if (previous != null) {
+                unlink(movieId, previous);
+                count += previous;
+            }
+            counts.put(movieId, count);
+            moviesByCount.computeIfAbsent(count, ignored -> new LinkedHashSet<>()).add(movieId);
+        }
+
+        int leastCount() {
+            return moviesByCount.firstKey();
+        }
+
+        // removes one of the least counted movies
+        UUID evictLeast() {
+            Map.Entry<Integer, Set<UUID>> least = moviesByCount.firstEntry();
+            UUID movieId = least.getValue().iterator().next();
+            unlink(movieId, least.getKey());
+            counts.remove(movieId);
+            return movieId;
+        }
+
+        void clear() {
+            counts.clear();
+            moviesByCount.clear();
+        }
+
+        private void unlink(UUID movieId, int count) {
+            Set<UUID> movies = moviesByCount.get(count);
+            movies.remove(movieId);
+            if (movies.isEmpty()) {
+                moviesByCount.remove(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.InvalidTrendingWindowException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Time ranges {@code GET /movies/trending} can rank over, each split into a fixed number of buckets. Activity
+ * leaves the window one bucket at a time, so a window covers its duration minus at most one bucket.
+ */
+public enum TrendingWindow {
+
+    HOUR("hour", Duration.ofMinutes(1), 60),
+    DAY("day", Duration.ofMinutes(15), 96);
+
+    private final String name;
+    private final Duration bucketDuration;
+    private final int buckets;
+
+    TrendingWindow(String name, Duration bucketDuration, int buckets) {
+        this.name = name;
+        this.bucketDuration = bucketDuration;
+        this.buckets = buckets;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getBucketDuration() {
+        return bucketDuration;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public Duration getDuration() {
+        return bucketDuration.multipliedBy(buckets);
+    }
+
+    public static TrendingWindow parse(String window) {
+        return Arrays.stream(values())
+                .filter(value -> value.name.equalsIgnoreCase(window.trim()))
+                .findFirst()
+                .orElseThrow(() -> new InvalidTrendingWindowException("Unknown trending window [%s], expected any of %s".formatted(window,
+                        Arrays.stream(values()).map(TrendingWindow::getName).collect(Collectors.joining(", ", "[", "]")))));
+    }
+}
@@ -0,0 +1,6 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+
+public record UpsertResult(Review review, boolean created) {
+}
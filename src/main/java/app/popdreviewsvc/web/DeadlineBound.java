@@ -0,0 +1,22 @@
+package app.popdreviewsvc.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the handler under a {@link app.popdreviewsvc.repository.RequestDeadline}, taken from the
+ * {@value RequestDeadlineInterceptor#TIMEOUT_HEADER} header or else from {@link #defaultMillis()}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DeadlineBound {
+
+    /**
+     * Budget of a request without the header, or {@code -1} for {@code reviews.deadline.default-millis}.
+     */
+    long defaultMillis() default -1;
+}
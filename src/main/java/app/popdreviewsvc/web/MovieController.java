@@ -0,0 +1,46 @@
+package app.popdreviewsvc.web;
+
+import app.popdreviewsvc.service.TopRatedMoviesLeaderboard;
+import app.popdreviewsvc.service.TrendingMoviesTracker;
+import app.popdreviewsvc.service.TrendingWindow;
+import app.popdreviewsvc.web.dto.TopRatedMoviesSliceResponse;
+import app.popdreviewsvc.web.dto.TrendingMovieResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Rankings across movies, served from in-memory structures kept up to date by the review writes.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class MovieController {
+
+    private final TrendingMoviesTracker trendingMoviesTracker;
+    private final TopRatedMoviesLeaderboard topRatedMoviesLeaderboard;
+
+    public MovieController(TrendingMoviesTracker trendingMoviesTracker, TopRatedMoviesLeaderboard topRatedMoviesLeaderboard) {
+        this.trendingMoviesTracker = trendingMoviesTracker;
+        this.topRatedMoviesLeaderboard = topRatedMoviesLeaderboard;
+    }
+
+    @GetMapping("/movies/trending")
+    public ResponseEntity<List<TrendingMovieResponse>> getTrendingMovies(
+            @RequestParam(defaultValue = "hour") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<TrendingMovieResponse> trending = trendingMoviesTracker.getTrending(TrendingWindow.parse(window), limit);
+
+        return ResponseEntity.ok(trending);
+    }
+
+    @GetMapping("/movies/top")
+    public ResponseEntity<TopRatedMoviesSliceResponse> getTopRatedMovies(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(topRatedMoviesLeaderboard.getTopRated(cursor, size));
+    }
+}
@@ -0,0 +1,166 @@
+package app.popdreviewsvc.web;
+
+import app.popdreviewsvc.service.ReactiveReviewService;
+import app.popdreviewsvc.service.ReviewBatchService;
+import app.popdreviewsvc.service.ReviewSearchService;
+import app.popdreviewsvc.web.dto.BatchUpsertResponse;
+import app.popdreviewsvc.web.dto.MovieReviewStatsResponse;
+import app.popdreviewsvc.web.dto.MovieStatsLookupRequest;
+import app.popdreviewsvc.web.dto.ReviewLookupRequest;
+import app.popdreviewsvc.web.dto.ReviewRequest;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.dto.ReviewSearchHitResponse;
+import app.popdreviewsvc.web.dto.ReviewSliceResponse;
+import app.popdreviewsvc.web.dto.UserReviewsStatsResponse;
+import app.popdreviewsvc.web.mapper.DtoMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The {@link ReviewController} endpoints on the reactive Mongo driver. Handlers return {@link Mono}/{@link Flux},
+ * so the servlet thread is released as soon as the query is sent and the response is written when Mongo answers.
+ */
+@RestController
+@RequestMapping("/api/v2")
+public class ReactiveReviewController {
+
+    private final ReactiveReviewService reactiveReviewService;
+    private final ReviewBatchService reviewBatchService;
+    private final ReviewSearchService reviewSearchService;
+
+    public ReactiveReviewController(ReactiveReviewService reactiveReviewService, ReviewBatchService reviewBatchService,
+                                    ReviewSearchService reviewSearchService) {
+        this.reactiveReviewService = reactiveReviewService;
+        this.reviewBatchService = reviewBatchService;
+        this.reviewSearchService = reviewSearchService;
+    }
+
+    @PostMapping("/reviews")
+    public Mono<ResponseEntity<ReviewResponse>> upsertReview(@RequestBody ReviewRequest reviewRequest) {
+        return reactiveReviewService.upsert(reviewRequest)
+                .map(result -> ResponseEntity
+                        .status(result.created() ? HttpStatus.CREATED : HttpStatus.OK)
+                        .body(DtoMapper.from(result.review())));
+    }
+
+    // bulk writes stay on the blocking driver; run them off the request thread so it is still released
+    @PostMapping("/reviews/batch")
+    public Mono<ResponseEntity<BatchUpsertResponse>> upsertReviews(@RequestBody List<ReviewRequest> reviewRequests) {
+        return Mono.fromCallable(() -> reviewBatchService.upsertBatch(reviewRequests))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/reviews/lookup")
+    public Mono<ResponseEntity<Map<UUID, ReviewResponse>>> lookupReviews(@RequestBody ReviewLookupRequest lookupRequest) {
+        return Mono.fromCallable(() -> reviewBatchService.lookupReviews(lookupRequest.getUserId(), lookupRequest.getMovieIds()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/reviews/stats/lookup")
+    public Mono<ResponseEntity<Map<UUID, MovieReviewStatsResponse>>> lookupMovieReviewsStats(@RequestBody MovieStatsLookupRequest lookupRequest) {
+        return Mono.fromCallable(() -> reviewBatchService.lookupMovieReviewStats(lookupRequest.getMovieIds()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/reviews/search")
+    public Mono<ResponseEntity<List<ReviewSearchHitResponse>>> searchReviews(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) UUID movieId,
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return Mono.fromCallable(() -> reviewSearchService.search(q, movieId, userId, limit))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/reviews/{userId}/{movieId}")
+    public Mono<ResponseEntity<ReviewResponse>> getReviewByUserAndMovie(@PathVariable UUID userId, @PathVariable UUID movieId) {
+        return reactiveReviewService.findByUserIdAndMovieId(userId, movieId)
+                .map(review -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(DtoMapper.from(review)));
+    }
+
+    @DeleteMapping("/reviews/{userId}/{movieId}")
+    public Mono<ResponseEntity<Void>> deleteReview(@PathVariable UUID userId, @PathVariable UUID movieId) {
+        return reactiveReviewService.removeReview(userId, movieId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    @GetMapping("/reviews/{movieId}")
+    public Mono<ResponseEntity<List<ReviewResponse>>> getLatestReviewsForAMovie(@PathVariable UUID movieId) {
+        return reactiveReviewService.getLatestReviews(movieId, 5)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/reviews/{movieId}/page")
+    public Mono<ResponseEntity<Page<ReviewResponse>>> getReviewsForMovie(
+            @PathVariable UUID movieId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "5") int size) {
+        return reactiveReviewService.getReviewsForMovie(movieId, PageRequest.of(page, size))
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/reviews/{movieId}/slice")
+    public Mono<ResponseEntity<ReviewSliceResponse>> getReviewsForMovieByCursor(
+            @PathVariable UUID movieId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return reactiveReviewService.getReviewsForMovieAfter(movieId, cursor, size, includeTotal)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/reviews/{movieId}/stats")
+    public Mono<ResponseEntity<MovieReviewStatsResponse>> movieReviewsStats(@PathVariable UUID movieId) {
+        return reactiveReviewService.getMovieReviewStats(movieId)
+                .map(stats -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(DtoMapper.fromMovieReviewStats(stats)));
+    }
+
+    @GetMapping("/reviews/{userId}/user")
+    public Mono<ResponseEntity<UserReviewsStatsResponse>> userReviewsStats(@PathVariable UUID userId) {
+        return reactiveReviewService.getAllReviewedMoviesCountByUser(userId)
+                .map(moviesReviewedCount -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(DtoMapper.fromUserReviewsCount(moviesReviewedCount)));
+    }
+
+    @GetMapping("/reviews/{userId}/latest-reviews")
+    public Mono<ResponseEntity<List<ReviewResponse>>> latestReviewsByUser(@PathVariable UUID userId) {
+        return reactiveReviewService.getLatestReviewsByUserId(userId)
+                .map(ResponseEntity::ok);
+    }
+
+    // NDJSON Flux responses are streamed one element at a time, and the next one is only requested once it is written
+    @GetMapping(value = "/reviews/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReviewResponse> exportAllReviews() {
+        return reactiveReviewService.streamAllReviews();
+    }
+
+    @GetMapping(value = "/reviews/export/movie/{movieId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReviewResponse> exportReviewsForMovie(@PathVariable UUID movieId) {
+        return reactiveReviewService.streamReviewsForMovie(movieId);
+    }
+
+    @GetMapping(value = "/reviews/export/user/{userId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReviewResponse> exportReviewsByUser(@PathVariable UUID userId) {
+        return reactiveReviewService.streamReviewsByUser(userId);
+    }
+}
@@ -0,0 +1,62 @@
+package app.popdreviewsvc.web;
+
+import app.popdreviewsvc.exception.DeadlineExceededException;
+import app.popdreviewsvc.repository.RequestDeadline;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Starts the {@link RequestDeadline} of {@link DeadlineBound} handlers. A caller states how long it is willing to
+ * wait in {@value #TIMEOUT_HEADER} (milliseconds, capped at {@code reviews.deadline.max-millis}); otherwise the
+ * handler's default applies. A request that arrives with no time left is rejected without touching Mongo.
+ */
+public class RequestDeadlineInterceptor implements HandlerInterceptor {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final long defaultMillis;
+    private final long maxMillis;
+
+    public RequestDeadlineInterceptor(long defaultMillis, long maxMillis) {
+        this.defaultMillis = defaultMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        DeadlineBound deadlineBound = handlerMethod.getMethodAnnotation(DeadlineBound.class);
+        if (deadlineBound == null) {
+            return true;
+        }
+
+        long budgetMillis = Math.min(budgetMillis(request.getHeader(TIMEOUT_HEADER), deadlineBound), maxMillis);
+        if (budgetMillis <= 0) {
+            throw new DeadlineExceededException("Request arrived with no time left (%s: %d)".formatted(TIMEOUT_HEADER, budgetMillis));
+        }
+        RequestDeadline.start(Duration.ofMillis(budgetMillis));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDeadline.clear();
+    }
+
+    private long budgetMillis(String header, DeadlineBound deadlineBound) {
+        if (header != null) {
+            try {
+                return Long.parseLong(header.trim());
+            } catch (NumberFormatException e) {
+                // a malformed header is ignored rather than failing a request that could be served
+            }
+        }
+        return deadlineBound.defaultMillis() >= 0 ? deadlineBound.defaultMillis() : defaultMillis;
+    }
+}
@@ -1,40 +1,113 @@
 package app.popdreviewsvc.web;
 
+import app.popdreviewsvc.model.MovieReviewStats;
 import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.model.ReviewVersion;
+import app.popdreviewsvc.repository.ReadRouting;
+import app.popdreviewsvc.repository.ReviewField;
+import app.popdreviewsvc.service.ReviewBatchService;
+import app.popdreviewsvc.service.ReviewSearchService;
 import app.popdreviewsvc.service.ReviewService;
+import app.popdreviewsvc.service.UpsertResult;
+import app.popdreviewsvc.web.dto.BatchUpsertResponse;
 import app.popdreviewsvc.web.dto.MovieReviewStatsResponse;
+import app.popdreviewsvc.web.dto.MovieStatsLookupRequest;
+import app.popdreviewsvc.web.dto.ReviewLookupRequest;
 import app.popdreviewsvc.web.dto.ReviewRequest;
 import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.dto.ReviewSearchHitResponse;
+import app.popdreviewsvc.web.dto.ReviewSliceResponse;
 import app.popdreviewsvc.web.dto.UserReviewsStatsResponse;
 import app.popdreviewsvc.web.mapper.DtoMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/v1")
 public class ReviewController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    private static final long EXPORT_TIMEOUT_MILLIS = -1;
+
     private final ReviewService reviewService;
+    private final ReviewBatchService reviewBatchService;
+    private final ReviewSearchService reviewSearchService;
+    private final ReadRouting readRouting;
+    private final ObjectMapper objectMapper;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, ReviewBatchService reviewBatchService,
+                            ReviewSearchService reviewSearchService, ReadRouting readRouting, ObjectMapper objectMapper) {
         this.reviewService = reviewService;
+        this.reviewBatchService = reviewBatchService;
+        this.reviewSearchService = reviewSearchService;
+        this.readRouting = readRouting;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/reviews")
     public ResponseEntity<ReviewResponse> upsertReview(@RequestBody ReviewRequest reviewRequest) {
-        Review review = reviewService.upsert(reviewRequest);
+        UpsertResult result = reviewService.upsert(reviewRequest);
 
         return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(DtoMapper.from(review));
+                .status(result.created() ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(DtoMapper.from(result.review()));
+    }
+
+    @PostMapping("/reviews/batch")
+    public ResponseEntity<BatchUpsertResponse> upsertReviews(@RequestBody List<ReviewRequest> reviewRequests) {
+        BatchUpsertResponse response = reviewBatchService.upsertBatch(reviewRequests);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @DeadlineBound
+    @PostMapping("/reviews/lookup")
+    public ResponseEntity<Map<UUID, ReviewResponse>> lookupReviews(@RequestBody ReviewLookupRequest lookupRequest) {
+        Map<UUID, ReviewResponse> reviews = reviewBatchService.lookupReviews(lookupRequest.getUserId(), lookupRequest.getMovieIds());
+
+        return ResponseEntity.ok(reviews);
+    }
+
+    @DeadlineBound
+    @PostMapping("/reviews/stats/lookup")
+    public ResponseEntity<Map<UUID, MovieReviewStatsResponse>> lookupMovieReviewsStats(@RequestBody MovieStatsLookupRequest lookupRequest) {
+        Map<UUID, MovieReviewStatsResponse> stats = reviewBatchService.lookupMovieReviewStats(lookupRequest.getMovieIds());
+
+        return ResponseEntity.ok(stats);
     }
 
+    @DeadlineBound
+    @GetMapping("/reviews/search")
+    public ResponseEntity<List<ReviewSearchHitResponse>> searchReviews(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) UUID movieId,
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<ReviewSearchHitResponse> hits = reviewSearchService.search(q, movieId, userId, limit);
+
+        return ResponseEntity.ok(hits);
+    }
+
+    @DeadlineBound
     @GetMapping("/reviews/{userId}/{movieId}")
     public ResponseEntity<ReviewResponse> getReviewByUserAndMovie(@PathVariable UUID userId, @PathVariable UUID movieId) {
         Review review = reviewService.findByUserIdAndMovieId(userId, movieId);
@@ -51,45 +124,167 @@ public class ReviewController {
         return ResponseEntity.noContent().build();
     }
 
+    @DeadlineBound
     @GetMapping("/reviews/{movieId}")
-    public ResponseEntity<List<ReviewResponse>> getLatestReviewsForAMovie(@PathVariable UUID movieId) {
-        List<ReviewResponse> latestFiveReviews = reviewService.getLatestReviews(movieId, 5);
+    public ResponseEntity<List<?>> getLatestReviewsForAMovie(
+            @PathVariable UUID movieId,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        Set<ReviewField> reviewFields = ReviewField.parse(fields);
+        ReviewVersion version = reviewService.getMovieVersion(movieId);
+        if (notModified(webRequest, version)) {
+            return null;
+        }
 
-        return ResponseEntity.ok(latestFiveReviews);
+        List<ReviewResponse> latestFiveReviews = read(version, () -> reviewService.getLatestReviews(movieId, 5, reviewFields));
+
+        return ResponseEntity.ok(sparse(latestFiveReviews, reviewFields));
     }
 
+    @DeadlineBound
     @GetMapping("/reviews/{movieId}/page")
-    public ResponseEntity<Page<ReviewResponse>> getReviewsForMovie(
+    public ResponseEntity<Page<?>> getReviewsForMovie(
             @PathVariable UUID movieId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "5") int size) {
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        Set<ReviewField> reviewFields = ReviewField.parse(fields);
+        ReviewVersion version = reviewService.getMovieVersion(movieId);
+        if (notModified(webRequest, version)) {
+            return null;
+        }
+
+        Page<ReviewResponse> reviews = read(version, () -> reviewService.getReviewsForMovie(movieId, PageRequest.of(page, size), reviewFields));
+
+        return ResponseEntity.ok(
+                reviewFields == null ? reviews : reviews.map(review -> DtoMapper.fromReviewFields(review, reviewFields))
+        );
+    }
+
+    @DeadlineBound
+    @GetMapping("/reviews/{movieId}/slice")
+    public ResponseEntity<ReviewSliceResponse> getReviewsForMovieByCursor(
+            @PathVariable UUID movieId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            WebRequest webRequest) {
+        ReviewVersion version = reviewService.getMovieVersion(movieId);
+        if (notModified(webRequest, version)) {
+            return null;
+        }
+
         return ResponseEntity.ok(
-                reviewService.getReviewsForMovie(movieId, PageRequest.of(page, size))
+                read(version, () -> reviewService.getReviewsForMovieAfter(movieId, cursor, size, includeTotal))
         );
     }
 
+    @DeadlineBound
     @GetMapping("/reviews/{movieId}/stats")
-    public ResponseEntity<MovieReviewStatsResponse> movieReviewsStats(@PathVariable UUID movieId) {
-        Integer allReviewsCount = reviewService.getAllReviewsForAMovieCount(movieId);
+    public ResponseEntity<MovieReviewStatsResponse> movieReviewsStats(@PathVariable UUID movieId, WebRequest webRequest) {
+        ReviewVersion version = reviewService.getMovieVersion(movieId);
+        if (notModified(webRequest, version)) {
+            return null;
+        }
+
+        MovieReviewStats stats = read(version, () -> reviewService.getMovieReviewStats(movieId));
 
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(DtoMapper.fromMovieReviewsCount(allReviewsCount));
+                .body(DtoMapper.fromMovieReviewStats(stats));
     }
 
+    @DeadlineBound
     @GetMapping("/reviews/{userId}/user")
-    public ResponseEntity<UserReviewsStatsResponse> userReviewsStats(@PathVariable UUID userId) {
-        Integer moviesReviewedCount = reviewService.getAllReviewedMoviesCountByUser(userId);
+    public ResponseEntity<UserReviewsStatsResponse> userReviewsStats(@PathVariable UUID userId, WebRequest webRequest) {
+        ReviewVersion version = reviewService.getUserVersion(userId);
+        if (notModified(webRequest, version)) {
+            return null;
+        }
+
+        Integer moviesReviewedCount = read(version, () -> reviewService.getAllReviewedMoviesCountByUser(userId));
 
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .body(DtoMapper.fromUserReviewsCount(moviesReviewedCount));
     }
 
+    @DeadlineBound
     @GetMapping("/reviews/{userId}/latest-reviews")
-    public ResponseEntity<List<ReviewResponse>> latestReviewsByUser(@PathVariable UUID userId) {
-        List<ReviewResponse> latestReviews = reviewService.getLatestReviewsByUserId(userId);
+    public ResponseEntity<List<?>> latestReviewsByUser(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        Set<ReviewField> reviewFields = ReviewField.parse(fields);
+        ReviewVersion version = reviewService.getUserVersion(userId);
+        if (notModified(webRequest, version)) {
+            return null;
+        }
+
+        List<ReviewResponse> latestReviews = read(version, () -> reviewService.getLatestReviewsByUserId(userId, reviewFields));
+
+        return ResponseEntity.ok(sparse(latestReviews, reviewFields));
+    }
+
+    @GetMapping("/reviews/export")
+    public WebAsyncTask<Void> exportAllReviews(HttpServletResponse response) {
+        return ndjson(response, reviewService::streamAllReviews);
+    }
+
+    @GetMapping("/reviews/export/movie/{movieId}")
+    public WebAsyncTask<Void> exportReviewsForMovie(@PathVariable UUID movieId, HttpServletResponse response) {
+        return ndjson(response, () -> reviewService.streamReviewsForMovie(movieId));
+    }
+
+    @GetMapping("/reviews/export/user/{userId}")
+    public WebAsyncTask<Void> exportReviewsByUser(@PathVariable UUID userId, HttpServletResponse response) {
+        return ndjson(response, () -> reviewService.streamReviewsByUser(userId));
+    }
+
+    // the data must be at least as new as the version it is served under, so recent writes are read from the primary
+    private <T> T read(ReviewVersion version, Supplier<T> reader) {
+        return readRouting.consistentWith(version.getLastModified(), reader);
+    }
+
+    // true when the caller's copy is current and a 304 has been prepared, the data is then never read;
+    // otherwise the ETag and Last-Modified headers are set for the full response
+    private static boolean notModified(WebRequest webRequest, ReviewVersion version) {
+        return webRequest.checkNotModified(String.valueOf(version.getVersion()), version.getLastModified().toEpochMilli());
+    }
+
+    // full responses unless the caller asked for specific fields with fields=
+    private static List<?> sparse(List<ReviewResponse> reviews, Set<ReviewField> fields) {
+        if (fields == null) {
+            return reviews;
+        }
+
+        return reviews.stream().map(review -> DtoMapper.fromReviewFields(review, fields)).toList();
+    }
+
+    // the Mongo cursor is opened and closed inside the task, and blocking writes to the client throttle how fast it is read;
+    // exports run for as long as the client keeps reading, every other async request keeps the default timeout
+    private WebAsyncTask<Void> ndjson(HttpServletResponse response, Supplier<Stream<ReviewResponse>> reviews) {
+        response.setContentType(APPLICATION_NDJSON.toString());
+
+        return new WebAsyncTask<>(EXPORT_TIMEOUT_MILLIS, () -> {
+            try (Stream<ReviewResponse> stream = reviews.get()) {
+                writeNdjson(stream.iterator(), response.getOutputStream());
+            }
+            return null;
+        });
+    }
+
+    private void writeNdjson(Iterator<ReviewResponse> reviews, OutputStream outputStream) throws IOException {
+        int written = 0;
+        while (reviews.hasNext()) {
+            outputStream.write(objectMapper.writeValueAsBytes(reviews.next()));
+            outputStream.write('\n');
 
-        return ResponseEntity.ok(latestReviews);
+            if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                outputStream.flush();
+            }
+        }
+        outputStream.flush();
     }
 }
@@ -0,0 +1,7 @@
+package app.popdreviewsvc.web.dto;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    ERROR
+}
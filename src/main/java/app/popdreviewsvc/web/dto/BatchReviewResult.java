@@ -0,0 +1,17 @@
+package app.popdreviewsvc.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BatchReviewResult {
+
+    private Integer index;
+
+    private BatchItemStatus status;
+
+    private ReviewResponse review;
+
+    private String error;
+}
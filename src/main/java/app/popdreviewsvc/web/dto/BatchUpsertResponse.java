@@ -0,0 +1,19 @@
+package app.popdreviewsvc.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchUpsertResponse {
+
+    private List<BatchReviewResult> results;
+
+    private Integer created;
+
+    private Integer updated;
+
+    private Integer failed;
+}
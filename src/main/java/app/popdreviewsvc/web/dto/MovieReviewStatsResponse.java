@@ -3,9 +3,15 @@ package app.popdreviewsvc.web.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 @Builder
 public class MovieReviewStatsResponse {
 
     private Integer totalReviews;
+
+    private Double averageRating;
+
+    private Map<Integer, Long> ratingDistribution;
 }
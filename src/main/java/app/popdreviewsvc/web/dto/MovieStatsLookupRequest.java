@@ -0,0 +1,14 @@
+package app.popdreviewsvc.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class MovieStatsLookupRequest {
+
+    private List<UUID> movieIds;
+}
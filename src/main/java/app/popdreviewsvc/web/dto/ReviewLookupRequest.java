@@ -0,0 +1,16 @@
+package app.popdreviewsvc.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ReviewLookupRequest {
+
+    private UUID userId;
+
+    private List<UUID> movieIds;
+}
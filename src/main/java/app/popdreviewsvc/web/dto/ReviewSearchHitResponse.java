@@ -0,0 +1,14 @@
+package app.popdreviewsvc.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ReviewSearchHitResponse {
+
+    // BM25 relevance, only comparable between hits of the same search
+    private Double score;
+
+    private ReviewResponse review;
+}
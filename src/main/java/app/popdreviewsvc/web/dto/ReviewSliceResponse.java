@@ -0,0 +1,22 @@
+package app.popdreviewsvc.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ReviewSliceResponse {
+
+    private List<ReviewResponse> content;
+
+    private Integer size;
+
+    private Boolean hasNext;
+
+    private String nextCursor;
+
+    // approximate, taken from the movie stats document and only filled in when requested
+    private Long totalElements;
+}
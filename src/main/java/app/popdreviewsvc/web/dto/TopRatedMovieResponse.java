@@ -0,0 +1,20 @@
+package app.popdreviewsvc.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class TopRatedMovieResponse {
+
+    private UUID movieId;
+
+    // Bayesian average the leaderboard is ranked by
+    private Double score;
+
+    private Double averageRating;
+
+    private Long ratedReviews;
+}
@@ -0,0 +1,19 @@
+package app.popdreviewsvc.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TopRatedMoviesSliceResponse {
+
+    private List<TopRatedMovieResponse> content;
+
+    private Integer size;
+
+    private Boolean hasNext;
+
+    private String nextCursor;
+}
@@ -0,0 +1,15 @@
+package app.popdreviewsvc.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class TrendingMovieResponse {
+
+    private UUID movieId;
+
+    private Long reviews;
+}
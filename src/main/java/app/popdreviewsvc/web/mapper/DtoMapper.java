@@ -1,11 +1,17 @@
 package app.popdreviewsvc.web.mapper;
 
+import app.popdreviewsvc.model.MovieReviewStats;
 import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewField;
 import app.popdreviewsvc.web.dto.MovieReviewStatsResponse;
 import app.popdreviewsvc.web.dto.ReviewResponse;
 import app.popdreviewsvc.web.dto.UserReviewsStatsResponse;
 import lombok.experimental.UtilityClass;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 @UtilityClass
 public class DtoMapper {
 
@@ -21,8 +27,43 @@ public class DtoMapper {
                 .build();
     }
 
-    public static MovieReviewStatsResponse fromMovieReviewsCount(Integer movieReviewsCount) {
-        return MovieReviewStatsResponse.builder().totalReviews(movieReviewsCount).build();
+    /**
+     * Sparse fieldset of a review: only the requested fields, in a fixed order.
+     */
+    public static Map<String, Object> fromReviewFields(ReviewResponse review, Set<ReviewField> fields) {
+        Map<String, Object> sparse = new LinkedHashMap<>();
+        for (ReviewField field : fields) {
+            Object value = switch (field) {
+                case USER_ID -> review.getUserId();
+                case MOVIE_ID -> review.getMovieId();
+                case RATING -> review.getRating();
+                case TITLE -> review.getTitle();
+                case CONTENT -> review.getContent();
+                case SNIPPET -> ReviewField.snippet(review.getContent());
+                case CREATED_ON -> review.getCreatedOn();
+                case UPDATED_ON -> review.getUpdatedOn();
+            };
+            sparse.put(field.getProperty(), value);
+        }
+
+        return sparse;
+    }
+
+    public static MovieReviewStatsResponse fromMovieReviewStats(MovieReviewStats stats) {
+        long ratedReviews = stats.getRatedReviews() == null ? 0 : stats.getRatedReviews();
+        Double averageRating = ratedReviews > 0 ? (double) stats.getRatingSum() / ratedReviews : null;
+
+        Map<Integer, Long> ratingDistribution = new LinkedHashMap<>();
+        for (int rating = MovieReviewStats.MIN_RATING; rating <= MovieReviewStats.MAX_RATING; rating++) {
+            Long count = stats.getRatingDistribution() == null ? null : stats.getRatingDistribution().get(String.valueOf(rating));
+            ratingDistribution.put(rating, count == null ? 0L : count);
+        }
+
+        return MovieReviewStatsResponse.builder()
+                .totalReviews(stats.getTotalReviews().intValue())
+                .averageRating(averageRating)
+                .ratingDistribution(ratingDistribution)
+                .build();
     }
 
     public static UserReviewsStatsResponse fromUserReviewsCount(Integer movieReviewsCount) {
@@ -0,0 +1,118 @@
+package app.popdreviewsvc;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.service.MovieReviewsCache;
+import app.popdreviewsvc.service.ReviewService;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds a single movie with up to 100k reviews and measures the latest-5 endpoint query at each size.
+ * The movie reviews cache is turned off (depth 0) so every call reaches Mongo instead of the cached newest reviews.
+ * Run with {@code mvn test -Dtest=LatestReviewsBenchmarkITest -Dbenchmark=true}.
+ */
+@SpringBootTest(properties = "reviews.cache.movie-reviews.depth=0")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class LatestReviewsBenchmarkITest {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MovieReviewsCache movieReviewsCache;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+    }
+
+    @Test
+    void getLatestReviews_latencyStaysFlatAsMovieGrowsTo100kReviews() {
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        int seeded = 0;
+
+        for (int size : SIZES) {
+            seed(movieId, start, seeded, size);
+            seeded = size;
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                reviewService.getLatestReviews(movieId, 5);
+            }
+
+            assertNull(movieReviewsCache.getIfPresent(movieId), "latest reviews should be read from Mongo, not the cache");
+
+            long[] samples = new long[MEASURED_ITERATIONS];
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                long begin = System.nanoTime();
+                assertEquals(5, reviewService.getLatestReviews(movieId, 5).size());
+                samples[i] = System.nanoTime() - begin;
+            }
+            Arrays.sort(samples);
+
+            Document explain = mongoTemplate.getCollection("reviews")
+                    .find(new Document("movieId", movieId))
+                    .sort(new Document("updatedOn", -1))
+                    .limit(5)
+                    .explain();
+            Number docsExamined = explain.get("executionStats", Document.class).get("totalDocsExamined", Number.class);
+
+            System.out.printf("reviews=%d p50=%.3fms p99=%.3fms docsExamined=%s%n",
+                    size, samples[samples.length / 2] / 1e6, samples[samples.length * 99 / 100] / 1e6, docsExamined);
+
+            assertTrue(docsExamined.longValue() <= 5, "latest reviews query should be answered from the {movieId, updatedOn} index");
+        }
+    }
+
+    private void seed(UUID movieId, LocalDateTime start, int from, int to) {
+        List<Review> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = from; i < to; i++) {
+            LocalDateTime timestamp = start.plusSeconds(i);
+            batch.add(Review.builder()
+                    .id(UUID.randomUUID())
+                    .userId(UUID.randomUUID())
+                    .movieId(movieId)
+                    .rating(i % 10 + 1)
+                    .title("Title" + i)
+                    .content("Content" + i)
+                    .createdOn(timestamp)
+                    .updatedOn(timestamp)
+                    .build());
+
+            if (batch.size() == SEED_BATCH_SIZE) {
+                mongoTemplate.insert(batch, Review.class);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.insert(batch, Review.class);
+        }
+    }
+}
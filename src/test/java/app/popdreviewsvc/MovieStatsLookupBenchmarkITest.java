@@ -0,0 +1,142 @@
+package app.popdreviewsvc;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReviewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares rendering the stats of a catalog page with one {@code GET /reviews/{movieId}/stats} per movie
+ * against a single {@code POST /reviews/stats/lookup}, for 20 and 100 movies.
+ * Run with {@code mvn test -Dtest=MovieStatsLookupBenchmarkITest -Dbenchmark=true}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class MovieStatsLookupBenchmarkITest {
+
+    private static final int[] PAGE_SIZES = {20, 100};
+    private static final int REVIEWS_PER_MOVIE = 50;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MovieReviewStatsRepository movieReviewStatsRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+        movieReviewStatsRepository.deleteAll();
+    }
+
+    @Test
+    void catalogPageStats_perMovieVsBatchLookup() throws Exception {
+        List<UUID> movieIds = seed(PAGE_SIZES[PAGE_SIZES.length - 1]);
+
+        for (int pageSize : PAGE_SIZES) {
+            List<UUID> page = movieIds.subList(0, pageSize);
+            List<HttpRequest> perMovie = page.stream()
+                    .map(movieId -> HttpRequest.newBuilder(uri("/reviews/%s/stats".formatted(movieId))).GET().build())
+                    .toList();
+            HttpRequest lookup = HttpRequest.newBuilder(uri("/reviews/stats/lookup"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(page.stream()
+                            .map(movieId -> "\"" + movieId + "\"")
+                            .collect(Collectors.joining(",", "{\"movieIds\":[", "]}"))))
+                    .build();
+
+            long[] perMovieSamples = measure(perMovie);
+            long[] lookupSamples = measure(List.of(lookup));
+
+            System.out.printf("movies=%d per-movie p50=%.2fms p99=%.2fms | lookup p50=%.2fms p99=%.2fms%n", pageSize,
+                    perMovieSamples[perMovieSamples.length / 2] / 1e6, perMovieSamples[perMovieSamples.length * 99 / 100] / 1e6,
+                    lookupSamples[lookupSamples.length / 2] / 1e6, lookupSamples[lookupSamples.length * 99 / 100] / 1e6);
+        }
+    }
+
+    // time to get every response of the list, sent one after another like a page render would
+    private long[] measure(List<HttpRequest> requests) throws IOException, InterruptedException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            send(requests);
+        }
+
+        long[] samples = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long begin = System.nanoTime();
+            send(requests);
+            samples[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(samples);
+
+        return samples;
+    }
+
+    private void send(List<HttpRequest> requests) throws IOException, InterruptedException {
+        for (HttpRequest request : requests) {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            assertEquals(200, response.statusCode());
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:%d/api/v1%s".formatted(port, path));
+    }
+
+    private List<UUID> seed(int movies) {
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<UUID> movieIds = new ArrayList<>(movies);
+        List<Review> reviews = new ArrayList<>(movies * REVIEWS_PER_MOVIE);
+
+        for (int m = 0; m < movies; m++) {
+            UUID movieId = UUID.randomUUID();
+            movieIds.add(movieId);
+            for (int i = 0; i < REVIEWS_PER_MOVIE; i++) {
+                LocalDateTime timestamp = start.plusSeconds(i);
+                reviews.add(Review.builder()
+                        .id(UUID.randomUUID())
+                        .userId(UUID.randomUUID())
+                        .movieId(movieId)
+                        .rating(i % 10 + 1)
+                        .title("Title" + i)
+                        .content("Content" + i)
+                        .createdOn(timestamp)
+                        .updatedOn(timestamp)
+                        .build());
+            }
+        }
+        mongoTemplate.insert(reviews, Review.class);
+        movieReviewStatsRepository.rebuildFromReviews();
+
+        return movieIds;
+    }
+}
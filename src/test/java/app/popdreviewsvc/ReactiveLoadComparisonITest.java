@@ -0,0 +1,123 @@
+package app.popdreviewsvc;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires the same uncached page request at {@code /api/v1} and {@code /api/v2} with far more requests in flight
+ * than Tomcat has threads, and prints throughput and latency percentiles for both.
+ * Run with {@code mvn test -Dtest=ReactiveLoadComparisonITest -Dbenchmark=true}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server.tomcat.threads.max=16")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ReactiveLoadComparisonITest {
+
+    private static final int REVIEWS = 5_000;
+    private static final int IN_FLIGHT = 512;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int MEASURED_REQUESTS = 20_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+    }
+
+    @Test
+    void pageEndpoint_v1BlockingVsV2Reactive() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        seed(movieId);
+
+        for (String version : List.of("v1", "v2")) {
+            // page 1 is never served from the movie cache, so every request goes to Mongo
+            URI uri = URI.create("http://localhost:%d/api/%s/reviews/%s/page?page=1&size=20".formatted(port, version, movieId));
+
+            run(uri, WARMUP_REQUESTS);
+            long begin = System.nanoTime();
+            long[] samples = run(uri, MEASURED_REQUESTS);
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            Arrays.sort(samples);
+
+            System.out.printf("%s in-flight=%d tomcat-threads=16 throughput=%.0f req/s p50=%.2fms p99=%.2fms max=%.2fms%n",
+                    version, IN_FLIGHT, MEASURED_REQUESTS / seconds,
+                    samples[samples.length / 2] / 1e6, samples[samples.length * 99 / 100] / 1e6, samples[samples.length - 1] / 1e6);
+        }
+    }
+
+    private long[] run(URI uri, int requests) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        long[] samples = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        List<CompletableFuture<?>> responses = new ArrayList<>(requests);
+
+        for (int i = 0; i < requests; i++) {
+            int sample = i;
+            inFlight.acquire();
+            long sentAt = System.nanoTime();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        samples[sample] = System.nanoTime() - sentAt;
+                        if (error != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        inFlight.release();
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+
+        assertEquals(0, failures.get());
+        return samples;
+    }
+
+    private void seed(UUID movieId) {
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Review> reviews = new ArrayList<>(REVIEWS);
+        for (int i = 0; i < REVIEWS; i++) {
+            LocalDateTime timestamp = start.plusSeconds(i);
+            reviews.add(Review.builder()
+                    .id(UUID.randomUUID())
+                    .userId(UUID.randomUUID())
+                    .movieId(movieId)
+                    .rating(i % 10 + 1)
+                    .title("Title" + i)
+                    .content("Content" + i)
+                    .createdOn(timestamp)
+                    .updatedOn(timestamp)
+                    .build());
+        }
+        mongoTemplate.insert(reviews, Review.class);
+    }
+}
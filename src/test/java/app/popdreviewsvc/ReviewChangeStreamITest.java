@@ -0,0 +1,166 @@
+package app.popdreviewsvc;
+
+import app.popdreviewsvc.event.MovieReviewsInvalidatedEvent;
+import app.popdreviewsvc.event.ReviewChangeStreamSubscriber;
+import app.popdreviewsvc.event.ReviewInvalidationEvent;
+import app.popdreviewsvc.event.UserReviewsInvalidatedEvent;
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ChangeStreamOffsetRepository;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.service.MovieReviewsCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes reviews straight to the collection, the way another instance of the service would, and checks that they
+ * reach this instance through the change stream. Needs a single node replica set on localhost
+ * ({@code mongod --replSet rs0} followed by {@code rs.initiate()}), and MongoDB 6.0 for removals.
+ * Run with {@code mvn test -Dtest=ReviewChangeStreamITest -DreplicaSet=true}.
+ */
+@SpringBootTest(properties = {
+        "reviews.change-stream.enabled=true",
+        "reviews.change-stream.consumer-id=change-stream-itest",
+        "reviews.change-stream.checkpoint-interval-millis=100"
+})
+@Import(ReviewChangeStreamITest.EventRecorderConfig.class)
+@EnabledIfSystemProperty(named = "replicaSet", matches = "true")
+public class ReviewChangeStreamITest {
+
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    @Autowired
+    private ReviewChangeStreamSubscriber subscriber;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ChangeStreamOffsetRepository changeStreamOffsetRepository;
+
+    @Autowired
+    private MovieReviewsCache movieReviewsCache;
+
+    @Autowired
+    private EventRecorder eventRecorder;
+
+    @BeforeEach
+    void awaitStreamOpen() {
+        // a write made before the cursor is open is never seen, so keep writing until one comes through
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Review probe = reviewRepository.save(review(UUID.randomUUID(), UUID.randomUUID()));
+            if (await(() -> eventRecorder.events.contains(new MovieReviewsInvalidatedEvent(probe.getMovieId())), 500)) {
+                eventRecorder.events.clear();
+                return;
+            }
+        }
+        fail("Change stream did not open");
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewRepository.deleteAll();
+    }
+
+    @Test
+    void whenAnotherInstanceWritesReview_thenCachedMovieReviewsAreInvalidated() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        movieReviewsCache.get(movieId, id -> Page.empty());
+
+        reviewRepository.save(review(userId, movieId));
+
+        assertTrue(await(() -> movieReviewsCache.getIfPresent(movieId) == null, TIMEOUT_MILLIS));
+        assertTrue(await(() -> eventRecorder.events.contains(new UserReviewsInvalidatedEvent(userId)), TIMEOUT_MILLIS));
+    }
+
+    @Test
+    void whenAnotherInstanceRemovesReview_thenItsMovieAndUserAreInvalidated() {
+        Review review = reviewRepository.save(review(UUID.randomUUID(), UUID.randomUUID()));
+        assertTrue(await(() -> eventRecorder.events.contains(new MovieReviewsInvalidatedEvent(review.getMovieId())), TIMEOUT_MILLIS));
+        eventRecorder.events.clear();
+
+        reviewRepository.deleteById(review.getId());
+
+        assertTrue(await(() -> eventRecorder.events.containsAll(List.of(
+                new MovieReviewsInvalidatedEvent(review.getMovieId()),
+                new UserReviewsInvalidatedEvent(review.getUserId()))), TIMEOUT_MILLIS));
+    }
+
+    @Test
+    void whenRestarted_thenChangesMadeWhileStoppedAreReplayed() throws InterruptedException {
+        subscriber.stop();
+        assertTrue(changeStreamOffsetRepository.existsById("reviews:change-stream-itest"));
+
+        Review missed = reviewRepository.save(review(UUID.randomUUID(), UUID.randomUUID()));
+        subscriber.start();
+
+        assertTrue(await(() -> eventRecorder.events.contains(new MovieReviewsInvalidatedEvent(missed.getMovieId())), TIMEOUT_MILLIS));
+    }
+
+    private static boolean await(BooleanSupplier condition, long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Review review(UUID userId, UUID movieId) {
+        LocalDateTime now = LocalDateTime.now();
+        return Review.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .movieId(movieId)
+                .rating(7)
+                .title("Title")
+                .content("Content")
+                .createdOn(now)
+                .updatedOn(now)
+                .build();
+    }
+
+    static class EventRecorder {
+
+        final List<ReviewInvalidationEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void on(ReviewInvalidationEvent event) {
+            events.add(event);
+        }
+    }
+
+    @TestConfiguration
+    static class EventRecorderConfig {
+
+        @Bean
+        EventRecorder eventRecorder() {
+            return new EventRecorder();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package app.popdreviewsvc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Compares the time from launching the JVM to the first successful {@code GET /reviews/{userId}/latest-reviews}
+ * between the regular jar and the fast-start build (AOT-processed, CDS archive) of the same code. Both need to be
+ * built first, and the first request needs MongoDB.
+ * Run with {@code mvn -Pfast-start package -DskipTests} then {@code mvn test -Dtest=StartupBenchmarkITest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class StartupBenchmarkITest {
+
+    private static final int WARMUP_RUNS = 1;
+    private static final int MEASURED_RUNS = 5;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path FAST_START = TARGET.resolve("fast-start");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    void timeToFirstRequest_jarVsFastStart() throws Exception {
+        Path jar = applicationJar();
+        Path fastStartJar = FAST_START.resolve(jar.getFileName());
+        Path archive = FAST_START.resolve("application.jsa");
+        assertTrue(Files.exists(fastStartJar) && Files.exists(archive), "Build the fast-start mode first: mvn -Pfast-start package -DskipTests");
+
+        long[] jarSamples = measure(TARGET, List.of("-jar", jar.getFileName().toString()));
+        long[] fastStartSamples = measure(FAST_START, List.of(
+                "-XX:SharedArchiveFile=application.jsa",
+                "-Dspring.aot.enabled=true",
+                "-jar", fastStartJar.getFileName().toString()));
+
+        System.out.printf("time to first request: jar p50=%dms min=%dms | fast-start p50=%dms min=%dms%n",
+                jarSamples[jarSamples.length / 2] / 1_000_000, jarSamples[0] / 1_000_000,
+                fastStartSamples[fastStartSamples.length / 2] / 1_000_000, fastStartSamples[0] / 1_000_000);
+    }
+
+    // the first run of each mode only warms the file system cache
+    private long[] measure(Path directory, List<String> launch) throws IOException, InterruptedException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            timeToFirstRequest(directory, launch);
+        }
+
+        long[] samples = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            samples[i] = timeToFirstRequest(directory, launch);
+        }
+        Arrays.sort(samples);
+
+        return samples;
+    }
+
+    private long timeToFirstRequest(Path directory, List<String> launch) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(launch);
+        command.add("--server.port=" + port);
+        command.add("--spring.data.mongodb.uri=mongodb://localhost:27017/reviewsdb_test");
+        command.add("--spring.data.mongodb.database=reviewsdb_test");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:%d/api/v1/reviews/%s/latest-reviews"
+                .formatted(port, UUID.randomUUID()))).GET().build();
+
+        long begin = System.nanoTime();
+        Process application = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = begin + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!application.isAlive()) {
+                    fail("Application exited with " + application.exitValue() + " before serving a request: " + command);
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return System.nanoTime() - begin;
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            return fail("Application did not serve a request within " + STARTUP_TIMEOUT + ": " + command);
+        } finally {
+            application.destroy();
+            if (!application.waitFor(10, TimeUnit.SECONDS)) {
+                application.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static Path applicationJar() throws IOException {
+        try (var jars = Files.list(TARGET)) {
+            return jars.filter(path -> path.toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in target, run mvn package first"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
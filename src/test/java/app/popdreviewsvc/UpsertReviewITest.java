@@ -1,8 +1,11 @@
 package app.popdreviewsvc;
 
+import app.popdreviewsvc.model.MovieReviewStats;
 import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
 import app.popdreviewsvc.repository.ReviewRepository;
 import app.popdreviewsvc.service.ReviewService;
+import app.popdreviewsvc.service.UpsertResult;
 import app.popdreviewsvc.web.dto.ReviewRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -11,7 +14,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
@@ -26,9 +35,13 @@ public class UpsertReviewITest {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private MovieReviewStatsRepository movieReviewStatsRepository;
+
     @AfterEach
     void tearDown() {
         reviewRepository.deleteAll();
+        movieReviewStatsRepository.deleteAll();
     }
 
     @Test
@@ -44,7 +57,10 @@ public class UpsertReviewITest {
                 .content("Content")
                 .build();
 
-        Review createdReview = reviewService.upsert(reviewRequest);
+        UpsertResult result = reviewService.upsert(reviewRequest);
+        Review createdReview = result.review();
+
+        assertTrue(result.created());
 
         assertNotNull(createdReview.getId());
         assertEquals(userId, createdReview.getUserId());
@@ -89,7 +105,10 @@ public class UpsertReviewITest {
                 .content("Updated content")
                 .build();
 
-        Review updatedReview = reviewService.upsert(updateRequest);
+        UpsertResult result = reviewService.upsert(updateRequest);
+        Review updatedReview = result.review();
+
+        assertFalse(result.created());
 
         assertEquals(existingReview.getId(), updatedReview.getId());
         assertEquals(5, updatedReview.getRating());
@@ -152,11 +171,87 @@ public class UpsertReviewITest {
                 .title("Updated User1 Movie1")
                 .content("Updated Content1")
                 .build();
-        Review updated = reviewService.upsert(user1Movie1Update);
+        Review updated = reviewService.upsert(user1Movie1Update).review();
 
         assertEquals(3, reviewRepository.count());
         assertEquals(1, updated.getRating());
         assertEquals("Updated User1 Movie1", updated.getTitle());
         assertEquals("Updated Content1", updated.getContent());
     }
+
+    @Test
+    void upsertAndRemoveReview_shouldKeepMovieReviewStatsInSyncWithReviews() {
+        UUID movieId = UUID.randomUUID();
+        UUID user1 = UUID.randomUUID();
+        UUID user2 = UUID.randomUUID();
+
+        reviewService.upsert(ReviewRequest.builder().userId(user1).movieId(movieId).rating(8).content("Content1").build());
+        reviewService.upsert(ReviewRequest.builder().userId(user2).movieId(movieId).rating(6).content("Content2").build());
+        reviewService.upsert(ReviewRequest.builder().userId(user2).movieId(movieId).rating(9).content("Content2 edited").build());
+
+        MovieReviewStats stats = reviewService.getMovieReviewStats(movieId);
+        assertEquals(2L, stats.getTotalReviews());
+        assertEquals(17L, stats.getRatingSum());
+        assertEquals(1L, stats.getRatingDistribution().get("8"));
+        assertEquals(1L, stats.getRatingDistribution().get("9"));
+        assertEquals(0L, stats.getRatingDistribution().get("6"));
+
+        reviewService.removeReview(user1, movieId);
+
+        stats = reviewService.getMovieReviewStats(movieId);
+        assertEquals(1L, stats.getTotalReviews());
+        assertEquals(9L, stats.getRatingSum());
+
+        movieReviewStatsRepository.deleteAll();
+        reviewService.rebuildMovieReviewStats();
+
+        MovieReviewStats rebuilt = reviewService.getMovieReviewStats(movieId);
+        assertEquals(1L, rebuilt.getTotalReviews());
+        assertEquals(1L, rebuilt.getRatedReviews());
+        assertEquals(9L, rebuilt.getRatingSum());
+        assertEquals(1L, rebuilt.getRatingDistribution().get("9"));
+    }
+
+    @Test
+    void upsertReview_whenManyThreadsHammerTheSameKey_shouldCreateExactlyOnceAndNeverFail() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        int threads = 16;
+        int upsertsPerThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                int created = 0;
+                for (int i = 0; i < upsertsPerThread; i++) {
+                    ReviewRequest request = ReviewRequest.builder()
+                            .userId(userId)
+                            .movieId(movieId)
+                            .rating((thread + i) % 10 + 1)
+                            .content("Content " + thread + "-" + i)
+                            .build();
+                    if (reviewService.upsert(request).created()) {
+                        created++;
+                    }
+                }
+                return created;
+            }));
+        }
+        start.countDown();
+
+        int totalCreated = 0;
+        for (Future<Integer> future : futures) {
+            totalCreated += future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1, totalCreated);
+        assertEquals(1, reviewRepository.count());
+        assertEquals(1L, reviewService.getMovieReviewStats(movieId).getTotalReviews());
+        assertEquals(1L, reviewService.getMovieReviewStats(movieId).getRatedReviews());
+    }
 }
@@ -0,0 +1,47 @@
+package app.popdreviewsvc.config;
+
+import app.popdreviewsvc.exception.DeadlineExceededException;
+import app.popdreviewsvc.repository.RequestDeadline;
+import com.mongodb.MongoOperationTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineExceptionTranslatorUTest {
+
+    private final DeadlineExceptionTranslator translator = new DeadlineExceptionTranslator();
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void whenOperationTimesOutUnderARequestDeadline_thenItIsTranslatedToDeadlineExceeded() {
+        RequestDeadline.start(Duration.ofSeconds(1));
+        MongoOperationTimeoutException timeout = new MongoOperationTimeoutException("Operation exceeded the timeout limit");
+
+        DataAccessException translated = translator.translateExceptionIfPossible(timeout);
+
+        assertInstanceOf(DeadlineExceededException.class, translated);
+        assertSame(timeout, translated.getCause());
+    }
+
+    @Test
+    void whenOperationTimesOutWithoutARequestDeadline_thenItIsTranslatedAsUsual() {
+        DataAccessException translated = translator.translateExceptionIfPossible(new MongoOperationTimeoutException("Operation exceeded the timeout limit"));
+
+        assertFalse(translated instanceof DeadlineExceededException);
+    }
+
+    @Test
+    void whenDeadlineExceededIsThrownBeforeTheOperation_thenItIsKept() {
+        DeadlineExceededException exceeded = new DeadlineExceededException("Request deadline exceeded before querying the database");
+
+        assertSame(exceeded, translator.translateExceptionIfPossible(exceeded));
+    }
+}
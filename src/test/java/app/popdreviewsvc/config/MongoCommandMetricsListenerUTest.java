@@ -0,0 +1,75 @@
+package app.popdreviewsvc.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MongoCommandMetricsListenerUTest {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MongoCommandMetricsListener listener = new MongoCommandMetricsListener(meterRegistry);
+
+    @Test
+    void whenFindAndGetMoreSucceed_thenRecordReturnedDocumentsPerCommandAndCollection() {
+        run(1, "find", new BsonDocument("find", new BsonString("reviews")),
+                new BsonDocument("cursor", new BsonDocument("firstBatch", batchOf(3))));
+        run(2, "getMore", new BsonDocument("getMore", new BsonInt64(42)).append("collection", new BsonString("reviews")),
+                new BsonDocument("cursor", new BsonDocument("nextBatch", batchOf(5))));
+
+        DistributionSummary find = meterRegistry.get(MongoCommandMetricsListener.METRIC_NAME)
+                .tags("command", "find", "collection", "reviews").summary();
+        DistributionSummary getMore = meterRegistry.get(MongoCommandMetricsListener.METRIC_NAME)
+                .tags("command", "getMore", "collection", "reviews").summary();
+        assertEquals(3, find.totalAmount());
+        assertEquals(5, getMore.totalAmount());
+    }
+
+    @Test
+    void whenWriteCommandsSucceed_thenRecordAffectedDocuments() {
+        run(3, "update", new BsonDocument("update", new BsonString("movie_review_stats")),
+                new BsonDocument("n", new BsonInt32(7)));
+        run(4, "findAndModify", new BsonDocument("findAndModify", new BsonString("reviews")),
+                new BsonDocument("lastErrorObject", new BsonDocument("n", new BsonInt32(1))));
+
+        assertEquals(7, meterRegistry.get(MongoCommandMetricsListener.METRIC_NAME)
+                .tags("command", "update", "collection", "movie_review_stats").summary().totalAmount());
+        assertEquals(1, meterRegistry.get(MongoCommandMetricsListener.METRIC_NAME)
+                .tags("command", "findAndModify", "collection", "reviews").summary().totalAmount());
+    }
+
+    @Test
+    void whenCommandHasNoDocumentCount_thenNothingIsRecorded() {
+        run(5, "ping", new BsonDocument("ping", new BsonInt32(1)), new BsonDocument("ok", new BsonInt32(1)));
+
+        assertTrue(meterRegistry.find(MongoCommandMetricsListener.METRIC_NAME).meters().isEmpty());
+    }
+
+    private void run(int requestId, String commandName, BsonDocument command, BsonDocument response) {
+        listener.commandStarted(new CommandStartedEvent(null, 1L, requestId, CONNECTION, "reviewsdb", commandName, command));
+        listener.commandSucceeded(new CommandSucceededEvent(null, 1L, requestId, CONNECTION, "reviewsdb", commandName, response, 1_000_000L));
+    }
+
+    private static BsonArray batchOf(int size) {
+        BsonArray batch = new BsonArray();
+        for (int i = 0; i < size; i++) {
+            batch.add(new BsonDocument("_id", new BsonInt32(i)));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,81 @@
+package app.popdreviewsvc.config;
+
+import app.popdreviewsvc.exception.DeadlineExceededException;
+import app.popdreviewsvc.repository.ReadRouting;
+import app.popdreviewsvc.repository.RequestDeadline;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RequestAwareMongoTemplateUTest {
+
+    @Mock
+    private MongoDatabaseFactory mongoDatabaseFactory;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private MongoCollection<Document> secondaryCollection;
+
+    private final MappingMongoConverter mongoConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void whenNoRoutingIsSet_thenTheCollectionReadsFromThePrimaryWithoutTimeout() {
+        RequestAwareMongoTemplate template = new RequestAwareMongoTemplate(mongoDatabaseFactory, mongoConverter);
+
+        assertSame(collection, template.prepareCollection(collection));
+        verify(collection, never()).withReadPreference(any());
+        verify(collection, never()).withTimeout(anyLong(), any());
+    }
+
+    @Test
+    void whenRequestHasDeadline_thenTheCollectionTimesOutWhenItPasses() {
+        RequestAwareMongoTemplate template = new RequestAwareMongoTemplate(mongoDatabaseFactory, mongoConverter);
+        when(collection.withTimeout(longThat(millis -> millis > 0 && millis <= 2000), eq(TimeUnit.MILLISECONDS))).thenReturn(secondaryCollection);
+        RequestDeadline.start(Duration.ofSeconds(2));
+
+        assertSame(secondaryCollection, template.prepareCollection(collection));
+    }
+
+    @Test
+    void whenRequestDeadlineHasPassed_thenNoOperationIsStarted() {
+        RequestAwareMongoTemplate template = new RequestAwareMongoTemplate(mongoDatabaseFactory, mongoConverter);
+        RequestDeadline.start(Duration.ofMillis(-1));
+
+        assertThrows(DeadlineExceededException.class, () -> template.prepareCollection(collection));
+        verify(collection, never()).withTimeout(anyLong(), any());
+    }
+
+    @Test
+    void whenSecondaryReadsAreRouted_thenTheCollectionUsesTheirReadPreference() throws Throwable {
+        RequestAwareMongoTemplate template = new RequestAwareMongoTemplate(mongoDatabaseFactory, mongoConverter);
+        ReadRouting readRouting = new ReadRouting(true, 90);
+        when(collection.getReadPreference()).thenReturn(ReadPreference.primary());
+        when(collection.withReadPreference(readRouting.getSecondaryReads())).thenReturn(secondaryCollection);
+
+        assertSame(secondaryCollection, readRouting.onSecondary(() -> template.prepareCollection(collection)));
+    }
+}
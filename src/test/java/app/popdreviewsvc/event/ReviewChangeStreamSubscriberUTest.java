@@ -0,0 +1,96 @@
+package app.popdreviewsvc.event;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ChangeStreamOffsetRepository;
+import com.mongodb.client.model.changestream.OperationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewChangeStreamSubscriberUTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ChangeStreamOffsetRepository changeStreamOffsetRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void whenReviewIsWritten_thenItsMovieAndUserAreInvalidated() {
+        Review review = review(UUID.randomUUID(), UUID.randomUUID());
+
+        List<ReviewInvalidationEvent> events = ReviewChangeStreamSubscriber.invalidations(OperationType.UPDATE, review, null);
+
+        assertEquals(List.of(new MovieReviewsInvalidatedEvent(review.getMovieId()), new UserReviewsInvalidatedEvent(review.getUserId())), events);
+    }
+
+    @Test
+    void whenReviewIsRemoved_thenItsMovieAndUserAreTakenFromThePreImage() {
+        Review before = review(UUID.randomUUID(), UUID.randomUUID());
+
+        List<ReviewInvalidationEvent> events = ReviewChangeStreamSubscriber.invalidations(OperationType.DELETE, null, before);
+
+        assertEquals(List.of(new MovieReviewsInvalidatedEvent(before.getMovieId()), new UserReviewsInvalidatedEvent(before.getUserId())), events);
+    }
+
+    @Test
+    void whenReviewMovesToAnotherMovie_thenBothMoviesAreInvalidated() {
+        UUID userId = UUID.randomUUID();
+        Review before = review(userId, UUID.randomUUID());
+        Review after = review(userId, UUID.randomUUID());
+
+        List<ReviewInvalidationEvent> events = ReviewChangeStreamSubscriber.invalidations(OperationType.REPLACE, after, before);
+
+        assertEquals(List.of(
+                new MovieReviewsInvalidatedEvent(after.getMovieId()),
+                new MovieReviewsInvalidatedEvent(before.getMovieId()),
+                new UserReviewsInvalidatedEvent(userId)), events);
+    }
+
+    @Test
+    void whenRemovedReviewHasNoPreImage_thenEverythingIsInvalidated() {
+        assertEquals(List.of(new AllReviewsInvalidatedEvent()), ReviewChangeStreamSubscriber.invalidations(OperationType.DELETE, null, null));
+    }
+
+    @Test
+    void whenCollectionIsDropped_thenEverythingIsInvalidated() {
+        assertEquals(List.of(new AllReviewsInvalidatedEvent()), ReviewChangeStreamSubscriber.invalidations(OperationType.DROP, null, null));
+        assertEquals(List.of(new AllReviewsInvalidatedEvent()), ReviewChangeStreamSubscriber.invalidations(OperationType.INVALIDATE, null, null));
+    }
+
+    @Test
+    void whenOtherEventArrives_thenNothingIsInvalidated() {
+        assertTrue(ReviewChangeStreamSubscriber.invalidations(OperationType.OTHER, null, null).isEmpty());
+    }
+
+    @Test
+    void whenDisabled_thenTheStreamIsNotFollowed() throws InterruptedException {
+        ReviewChangeStreamSubscriber subscriber = new ReviewChangeStreamSubscriber(
+                mongoTemplate, changeStreamOffsetRepository, eventPublisher, false, true, "test", 1000);
+
+        subscriber.startIfEnabled();
+        subscriber.stop();
+
+        verifyNoInteractions(mongoTemplate, changeStreamOffsetRepository, eventPublisher);
+    }
+
+    private static Review review(UUID userId, UUID movieId) {
+        return Review.builder()
+                .userId(userId)
+                .movieId(movieId)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.Review;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedContentConverterUTest {
+
+    private static final int THRESHOLD = 100;
+
+    private MappingMongoConverter mongoConverter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = MongoCustomConversions.create(adapter -> adapter.configurePropertyConversions(
+                properties -> properties.registerConverter(Review.class, "content", new CompressedContentConverter(THRESHOLD))));
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        mongoConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        mongoConverter.setCustomConversions(conversions);
+        mongoConverter.afterPropertiesSet();
+    }
+
+    @Test
+    void whenContentReachesThreshold_thenStoreCompressedAndReadBackUnchanged() {
+        String content = "A long-form review that keeps going. ".repeat(50);
+
+        Document stored = write(content);
+
+        Binary binary = assertInstanceOf(Binary.class, stored.get("content"));
+        assertEquals(CompressedContentConverter.SUBTYPE, binary.getType());
+        assertTrue(binary.length() < content.length());
+        assertEquals(content, mongoConverter.read(Review.class, stored).getContent());
+    }
+
+    @Test
+    void whenContentIsBelowThreshold_thenStoreAsPlainString() {
+        Document stored = write("Short and sweet");
+
+        assertEquals("Short and sweet", stored.get("content"));
+        assertEquals("Short and sweet", mongoConverter.read(Review.class, stored).getContent());
+    }
+
+    @Test
+    void whenContentDoesNotShrink_thenStoreAsPlainString() {
+        // two bytes can't beat the zlib header and checksum
+        assertEquals("ab", new CompressedContentConverter(1).compressIfLarge("ab"));
+    }
+
+    @Test
+    void whenUpsertUpdateSetsContent_thenItIsCompressedLikeASave() {
+        Review review = Review.builder().id(UUID.randomUUID()).content("x".repeat(THRESHOLD * 10)).build();
+        UpdateMapper updateMapper = new UpdateMapper(mongoConverter);
+
+        Document mapped = updateMapper.getMappedObject(ReviewRepositoryImpl.upsertUpdate(review).getUpdateObject(),
+                mongoConverter.getMappingContext().getPersistentEntity(Review.class));
+
+        assertInstanceOf(Binary.class, mapped.get("$set", Document.class).get("content"));
+    }
+
+    @Test
+    void whenContentIsNull_thenUpsertUpdateSetsNullAndReadsBackNull() {
+        Review review = Review.builder().id(UUID.randomUUID()).build();
+        UpdateMapper updateMapper = new UpdateMapper(mongoConverter);
+
+        Document mapped = updateMapper.getMappedObject(ReviewRepositoryImpl.upsertUpdate(review).getUpdateObject(),
+                mongoConverter.getMappingContext().getPersistentEntity(Review.class));
+
+        Document set = mapped.get("$set", Document.class);
+        assertTrue(set.containsKey("content"));
+        assertNull(set.get("content"));
+        assertNull(mongoConverter.read(Review.class, new Document("_id", review.getId()).append("content", null)).getContent());
+        assertNull(new CompressedContentConverter(THRESHOLD).read(null, null));
+    }
+
+    private Document write(String content) {
+        Document stored = new Document();
+        mongoConverter.write(Review.builder().id(UUID.randomUUID()).content(content).build(), stored);
+        return stored;
+    }
+}
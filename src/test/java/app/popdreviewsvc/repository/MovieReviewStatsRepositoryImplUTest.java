@@ -0,0 +1,30 @@
+package app.popdreviewsvc.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieReviewStatsRepositoryImplUTest {
+
+    @Test
+    void rebuildPipeline_mergesIntoStatsInsteadOfReplacingTheCollection() {
+        List<Document> pipeline = MovieReviewStatsRepositoryImpl.rebuildPipeline("movie_review_stats", "rebuild-1");
+
+        Document merge = pipeline.get(pipeline.size() - 1).get("$merge", Document.class);
+        assertEquals("movie_review_stats", merge.getString("into"));
+        assertEquals("replace", merge.getString("whenMatched"));
+        assertEquals("insert", merge.getString("whenNotMatched"));
+        assertTrue(pipeline.stream().noneMatch(stage -> stage.containsKey("$out")));
+    }
+
+    @Test
+    void rebuildPipeline_marksEveryMergedDocumentWithTheRebuildId() {
+        List<Document> pipeline = MovieReviewStatsRepositoryImpl.rebuildPipeline("movie_review_stats", "rebuild-1");
+
+        Document set = pipeline.get(pipeline.size() - 2).get("$set", Document.class);
+        assertEquals("rebuild-1", set.getString(MovieReviewStatsRepositoryImpl.REBUILD_ID));
+    }
+}
@@ -0,0 +1,68 @@
+package app.popdreviewsvc.repository;
+
+import com.mongodb.ReadPreference;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadRoutingUTest {
+
+    private final ReadRouting readRouting = new ReadRouting(true, 120);
+
+    @Test
+    void whenSecondaryReadsRun_thenTheyUseSecondaryPreferredWithMaxStaleness() throws Throwable {
+        ReadPreference routed = readRouting.onSecondary(ReadRouting::current);
+
+        assertEquals(ReadPreference.secondaryPreferred(120, TimeUnit.SECONDS), routed);
+        assertNull(ReadRouting.current());
+    }
+
+    @Test
+    void whenRoutingIsDisabled_thenReadsStayOnThePrimary() throws Throwable {
+        ReadRouting disabled = new ReadRouting(false, 120);
+
+        assertNull(disabled.onSecondary(ReadRouting::current));
+        assertNull(disabled.consistentWith(Instant.now(), ReadRouting::current));
+    }
+
+    @Test
+    void whenDataWasModifiedWithinTheStalenessBound_thenSecondaryReadsArePinnedToThePrimary() {
+        ReadPreference routed = readRouting.consistentWith(Instant.now().minusSeconds(30), this::secondaryRead);
+
+        assertEquals(ReadPreference.primary(), routed);
+        assertNull(ReadRouting.current());
+    }
+
+    @Test
+    void whenDataIsOlderThanTheStalenessBound_thenSecondaryReadsAreRouted() {
+        ReadPreference routed = readRouting.consistentWith(Instant.now().minus(Duration.ofHours(1)), this::secondaryRead);
+
+        assertEquals(readRouting.getSecondaryReads(), routed);
+    }
+
+    @Test
+    void whenReadFails_thenTheRoutingIsCleared() {
+        assertThrows(IllegalStateException.class, () -> readRouting.onSecondary(() -> {
+            throw new IllegalStateException("Mongo is down");
+        }));
+        assertNull(ReadRouting.current());
+    }
+
+    @Test
+    void whenMaxStalenessIsBelowTheMongoMinimum_thenRoutingIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ReadRouting(true, 30));
+    }
+
+    // what the aspect does around a @SecondaryReads method
+    private ReadPreference secondaryRead() {
+        try {
+            return readRouting.onSecondary(ReadRouting::current);
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.exception.InvalidFieldsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReviewFieldUTest {
+
+    @Test
+    void whenParseFieldList_thenIgnoreBlanksAndWhitespace() {
+        assertEquals(EnumSet.of(ReviewField.TITLE, ReviewField.RATING, ReviewField.UPDATED_ON),
+                ReviewField.parse(" title, rating,,updatedOn "));
+    }
+
+    @Test
+    void whenParseNothing_thenAllFieldsAreReturned() {
+        assertNull(ReviewField.parse(null));
+        assertNull(ReviewField.parse(" "));
+        assertNull(ReviewField.parse(","));
+    }
+
+    @Test
+    void whenParseUnknownField_thenThrowInvalidFieldsException() {
+        InvalidFieldsException e = assertThrows(InvalidFieldsException.class, () -> ReviewField.parse("title,Content"));
+
+        assertTrue(e.getMessage().contains("[Content]"));
+    }
+
+    @Test
+    void whenSnippet_thenCutAtSnippetLengthCodePointsAndKeepShortContent() {
+        String emoji = "🎬";
+        String snippet = ReviewField.snippet(emoji.repeat(ReviewField.SNIPPET_LENGTH + 5));
+
+        assertEquals(ReviewField.SNIPPET_LENGTH, snippet.codePointCount(0, snippet.length()));
+        assertEquals(snippet, ReviewField.snippet(snippet));
+        assertEquals("Short", ReviewField.snippet("Short"));
+        assertNull(ReviewField.snippet(null));
+    }
+}
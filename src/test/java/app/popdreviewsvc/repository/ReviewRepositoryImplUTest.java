@@ -0,0 +1,106 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.Review;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewRepositoryImplUTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private ReviewRepositoryImpl reviewRepository;
+
+    @Test
+    void whenFindLatestByMovieIdWithSnippet_thenProjectRequestedFieldsAndCutContentInTheDatabase() {
+        UUID movieId = UUID.randomUUID();
+
+        reviewRepository.findLatestByMovieId(movieId, PageRequest.of(2, 10), EnumSet.of(ReviewField.TITLE, ReviewField.SNIPPET));
+
+        Query query = captureQuery();
+        Document fields = query.getFieldsObject();
+        assertEquals(1, fields.get("title"));
+        Document snippet = ((MongoExpression) fields.get("content")).toDocument();
+        assertEquals(List.of(new Document("$eq", List.of(new Document("$type", "$content"), "string")),
+                        new Document("$substrCP", List.of("$content", 0, ReviewField.SNIPPET_LENGTH)),
+                        "$content"),
+                snippet.get("$cond"));
+        assertFalse(fields.containsKey("rating"));
+        assertEquals(new Document("updatedOn", -1), query.getSortObject());
+        assertEquals(20, query.getSkip());
+        assertEquals(10, query.getLimit());
+    }
+
+    @Test
+    void whenFindLatestByUserIdWithSnippetAndContent_thenReadFullContent() {
+        reviewRepository.findLatestByUserId(UUID.randomUUID(), 20, EnumSet.of(ReviewField.CONTENT, ReviewField.SNIPPET));
+
+        Query query = captureQuery();
+        assertEquals(new Document("content", 1), query.getFieldsObject());
+        assertEquals(new Document("createdOn", -1), query.getSortObject());
+        assertEquals(20, query.getLimit());
+    }
+
+    @Test
+    void whenBulkUpsertIfUnchanged_thenGuardEachUpsertWithTheStoredUpdatedOnAndReportDuplicatesAsConflicts() {
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class)).thenReturn(bulkOperations);
+        MongoBulkWriteException failure = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0),
+                        new BulkWriteError(2, "bad value", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException(failure.getMessage(), failure));
+        LocalDateTime storedAt = LocalDateTime.now().minusDays(1);
+        Review edit = Review.builder().id(UUID.randomUUID()).userId(UUID.randomUUID()).movieId(UUID.randomUUID()).build();
+        Review stored = Review.builder().id(edit.getId()).userId(edit.getUserId()).movieId(edit.getMovieId()).updatedOn(storedAt).build();
+        Review created = Review.builder().id(UUID.randomUUID()).userId(UUID.randomUUID()).movieId(UUID.randomUUID()).build();
+
+        BulkUpsertResult result = reviewRepository.bulkUpsertIfUnchanged(List.of(edit, created), Arrays.asList(stored, null));
+
+        assertEquals(Set.of(0), result.conflictedIndexes());
+        assertEquals(Map.of(1, "bad value"), result.failedIndexes());
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations, times(2)).upsert(queries.capture(), any(Update.class));
+        assertEquals(storedAt, queries.getAllValues().get(0).getQueryObject().get("updatedOn"));
+        assertEquals(new Document("$exists", false), queries.getAllValues().get(1).getQueryObject().get("updatedOn"));
+    }
+
+    private Query captureQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Review.class));
+        return query.getValue();
+    }
+}
@@ -0,0 +1,62 @@
+package app.popdreviewsvc.repository;
+
+import app.popdreviewsvc.model.ReviewVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewVersionRepositoryImplUTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private ReviewVersionRepositoryImpl reviewVersionRepository;
+
+    @Test
+    void whenGetCurrentOfStoredKey_thenReturnIt() {
+        ReviewVersion stored = new ReviewVersion("movie:1", 3L, Instant.now());
+        ReviewVersion all = new ReviewVersion(ReviewVersion.ALL_KEY, 2L, Instant.now());
+        when(mongoTemplate.find(any(Query.class), eq(ReviewVersion.class))).thenReturn(List.of(all, stored));
+
+        assertSame(stored, reviewVersionRepository.getCurrent("movie:1"));
+    }
+
+    @Test
+    void whenGetCurrentOfUnknownKey_thenReturnBaselineWithoutWriting() {
+        when(mongoTemplate.find(any(Query.class), eq(ReviewVersion.class))).thenReturn(List.of());
+
+        ReviewVersion version = reviewVersionRepository.getCurrent("movie:1");
+
+        assertEquals("movie:1", version.getKey());
+        assertEquals(0L, version.getVersion());
+        assertEquals(Instant.EPOCH, version.getLastModified());
+        verify(mongoTemplate, only()).find(any(Query.class), eq(ReviewVersion.class));
+    }
+
+    @Test
+    void whenGetCurrentOfUnknownKeyAfterBumpAll_thenBaselineFollowsTheAllVersion() {
+        Instant lastModified = Instant.now();
+        ReviewVersion all = new ReviewVersion(ReviewVersion.ALL_KEY, 4L, lastModified);
+        when(mongoTemplate.find(any(Query.class), eq(ReviewVersion.class))).thenReturn(List.of(all));
+
+        ReviewVersion version = reviewVersionRepository.getCurrent("movie:1");
+
+        assertEquals(-4L, version.getVersion());
+        assertEquals(lastModified, version.getLastModified());
+    }
+}
@@ -0,0 +1,72 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.ConcurrencyLimitExceededException;
+import app.popdreviewsvc.service.ConcurrencyLimited.Kind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimiterUTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void whenLimitOfAKindIsReached_thenItsCallsAreRejectedAndCountedWhileTheOtherKindIsAdmitted() throws Throwable {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 50, 500, 1, 200, 1, 2.0, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> write = executor.submit(() -> {
+                try {
+                    return limiter.execute(Kind.WRITE, () -> {
+                        started.countDown();
+                        release.await();
+                        return "written";
+                    });
+                } catch (Throwable e) {
+                    throw new AssertionError(e);
+                }
+            });
+            started.await();
+
+            assertThrows(ConcurrencyLimitExceededException.class, () -> limiter.execute(Kind.WRITE, () -> "rejected"));
+            assertEquals("read", limiter.execute(Kind.READ, () -> "read"));
+
+            release.countDown();
+            assertEquals("written", write.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, meterRegistry.get("reviews.concurrency.rejected").tag("operation", "write").counter().count());
+        assertEquals(0, meterRegistry.get("reviews.concurrency.rejected").tag("operation", "read").counter().count());
+        assertEquals(1, meterRegistry.get("reviews.concurrency.limit").tag("operation", "write").gauge().value());
+    }
+
+    @Test
+    void whenCallFailsOnTheDatabase_thenTheLimitOfItsKindBacksOff() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(true, 50, 500, 20, 200, 4, 2.0, meterRegistry);
+
+        assertThrows(DataAccessResourceFailureException.class, () -> limiter.execute(Kind.READ, () -> {
+            throw new DataAccessResourceFailureException("Mongo is down");
+        }));
+
+        assertEquals(45, limiter.getLimit(Kind.READ).getLimit());
+        assertEquals(0, limiter.getLimit(Kind.READ).getInflight());
+    }
+
+    @Test
+    void whenDisabled_thenEveryCallIsAdmitted() throws Throwable {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(false, 1, 1, 1, 1, 1, 2.0, meterRegistry);
+
+        assertEquals("nested", limiter.execute(Kind.WRITE, () -> limiter.execute(Kind.WRITE, () -> "nested")));
+    }
+}
@@ -0,0 +1,79 @@
+package app.popdreviewsvc.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GradientConcurrencyLimitUTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void whenLimitIsReached_thenFurtherCallsAreRejectedUntilOneCompletes() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 2.0);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.release(MILLIS, false);
+
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInflight());
+    }
+
+    @Test
+    void whenLatencyRises_thenLimitShrinks() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(100, 4, 200, 2.0);
+        for (int i = 0; i < 200; i++) {
+            sample(limit, MILLIS);
+        }
+        assertEquals(100, limit.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            sample(limit, 20 * MILLIS);
+        }
+
+        assertTrue(limit.getLimit() < 50, "limit " + limit.getLimit());
+    }
+
+    @Test
+    void whenSaturatedAtSteadyLatency_thenLimitGrowsUpToMax() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 4, 40, 2.0);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            limit.release(MILLIS, false);
+            while (limit.tryAcquire()) {
+                // keep every admitted slot busy
+            }
+        }
+
+        assertEquals(40, limit.getLimit());
+    }
+
+    @Test
+    void whenCallFailsOnTheDatabase_thenLimitBacksOff() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(100, 4, 200, 2.0);
+
+        assertTrue(limit.tryAcquire());
+        limit.release(MILLIS, true);
+
+        assertEquals(90, limit.getLimit());
+        assertEquals(0, limit.getInflight());
+    }
+
+    @Test
+    void whenLimitsAreInconsistent_thenTheyAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimit(50, 4, 20, 2.0));
+    }
+
+    private static void sample(GradientConcurrencyLimit limit, long rttNanos) {
+        assertTrue(limit.tryAcquire());
+        limit.release(rttNanos, false);
+    }
+}
@@ -0,0 +1,228 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.NotFoundException;
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReactiveMovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReactiveReviewRepository;
+import app.popdreviewsvc.repository.ReactiveReviewVersionRepository;
+import app.popdreviewsvc.repository.ReviewChange;
+import app.popdreviewsvc.web.dto.ReviewRequest;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveReviewServiceUTest {
+
+    @Mock
+    private ReactiveReviewRepository reactiveReviewRepository;
+
+    @Mock
+    private ReactiveMovieReviewStatsRepository reactiveMovieReviewStatsRepository;
+
+    @Mock
+    private ReactiveReviewVersionRepository reactiveReviewVersionRepository;
+
+    @Mock
+    private TrendingMoviesTracker trendingMoviesTracker;
+
+    @Mock
+    private TopRatedMoviesLeaderboard topRatedMoviesLeaderboard;
+
+    @Mock
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Mock
+    private ReviewWriteBuffer reviewWriteBuffer;
+
+    @Mock
+    private ReviewBatchService reviewBatchService;
+
+    @Spy
+    private MovieReviewsCache movieReviewsCache = new MovieReviewsCache(100, 5, new SimpleMeterRegistry());
+
+    @InjectMocks
+    private ReactiveReviewService reactiveReviewService;
+
+    @Test
+    void whenUpsert_andReviewDoesNotExist_thenReportCreatedAndCountNewReview() {
+        UUID movieId = UUID.randomUUID();
+        ReviewRequest request = ReviewRequest.builder().userId(UUID.randomUUID()).movieId(movieId).rating(5).content("New").build();
+        when(reactiveReviewRepository.upsertByUserIdAndMovieId(any(Review.class))).thenReturn(Mono.empty());
+        when(reactiveMovieReviewStatsRepository.applyReviewChange(movieId, 1, null, 5)).thenReturn(Mono.empty());
+        when(reactiveReviewVersionRepository.bump(Set.of(movieId), Set.of(request.getUserId()))).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveReviewService.upsert(request))
+                .assertNext(result -> {
+                    assertTrue(result.created());
+                    assertEquals("New", result.review().getContent());
+                })
+                .verifyComplete();
+
+        verify(movieReviewsCache).invalidate(movieId);
+        verify(trendingMoviesTracker).record(eq(movieId), any());
+    }
+
+    @Test
+    void whenUpsert_andReviewAlreadyExists_thenKeepIdAndCreatedOnAndMoveRating() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        Review previous = review(userId, movieId, 3, LocalDateTime.now().minusDays(2));
+        ReviewRequest request = ReviewRequest.builder().userId(userId).movieId(movieId).rating(8).content("Edited").build();
+        when(reactiveReviewRepository.upsertByUserIdAndMovieId(any(Review.class))).thenReturn(Mono.just(previous));
+        when(reactiveMovieReviewStatsRepository.applyReviewChange(movieId, 0, 3, 8)).thenReturn(Mono.empty());
+        when(reactiveReviewVersionRepository.bump(Set.of(movieId), Set.of(userId))).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveReviewService.upsert(request))
+                .assertNext(result -> {
+                    assertFalse(result.created());
+                    assertEquals(previous.getId(), result.review().getId());
+                    assertEquals(previous.getCreatedOn(), result.review().getCreatedOn());
+                })
+                .verifyComplete();
+
+        verify(reactiveMovieReviewStatsRepository, never()).applyReviewChange(movieId, 1, null, 8);
+        verify(topRatedMoviesLeaderboard).apply(new ReviewChange(movieId, 0, 3, 8));
+    }
+
+    @Test
+    void whenRemoveReview_andReviewDoesNotExist_thenErrorWithNotFoundAndDeleteNothing() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        when(reactiveReviewRepository.findByUserIdAndMovieId(userId, movieId)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveReviewService.removeReview(userId, movieId))
+                .expectError(NotFoundException.class)
+                .verify();
+
+        verify(reactiveReviewRepository, never()).delete(any());
+    }
+
+    @Test
+    void whenRemoveReview_thenDeleteDecrementStatsAndInvalidateCache() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        Review review = review(userId, movieId, 6, LocalDateTime.now());
+        when(reactiveReviewRepository.findByUserIdAndMovieId(userId, movieId)).thenReturn(Mono.just(review));
+        when(reactiveReviewRepository.delete(review)).thenReturn(Mono.empty());
+        when(reactiveMovieReviewStatsRepository.applyReviewChange(movieId, -1, 6, null)).thenReturn(Mono.empty());
+        when(reactiveReviewVersionRepository.bump(Set.of(movieId), Set.of(userId))).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveReviewService.removeReview(userId, movieId))
+                .verifyComplete();
+
+        verify(movieReviewsCache).invalidate(movieId);
+    }
+
+    @Test
+    void whenRemoveReview_andSaveIsBuffered_thenTheFlushDoesNotWriteItBack() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        ReviewWriteBuffer buffer = new ReviewWriteBuffer(reviewBatchService, true, 60_000, 4, 10);
+        ReactiveReviewService coalescing = new ReactiveReviewService(reactiveReviewRepository, reactiveMovieReviewStatsRepository,
+                movieReviewsCache, reactiveReviewVersionRepository, trendingMoviesTracker, topRatedMoviesLeaderboard, reviewSearchIndex, buffer);
+        buffer.put(review(userId, movieId, 7, LocalDateTime.now()));
+        when(reactiveReviewRepository.findByUserIdAndMovieId(userId, movieId)).thenReturn(Mono.empty());
+
+        StepVerifier.create(coalescing.removeReview(userId, movieId))
+                .verifyComplete();
+
+        assertEquals(0, buffer.flush());
+        verifyNoInteractions(reviewBatchService);
+        verify(reactiveReviewRepository, never()).delete(any());
+        verify(reviewSearchIndex).remove(userId, movieId);
+    }
+
+    @Test
+    void whenGetLatestReviews_andMovieIsCached_thenServeFromCacheWithoutQuerying() {
+        UUID movieId = UUID.randomUUID();
+        List<ReviewResponse> cached = List.of(
+                ReviewResponse.builder().movieId(movieId).title("Title1").build(),
+                ReviewResponse.builder().movieId(movieId).title("Title2").build()
+        );
+        movieReviewsCache.get(movieId, id -> new PageImpl<>(cached, PageRequest.of(0, 5), 2));
+
+        StepVerifier.create(reactiveReviewService.getLatestReviews(movieId, 1))
+                .assertNext(latest -> assertEquals(List.of(cached.get(0)), latest))
+                .verifyComplete();
+
+        verifyNoInteractions(reactiveReviewRepository);
+    }
+
+    @Test
+    void whenGetLatestReviews_andMovieIsNotCached_thenQueryWithoutPopulatingCache() {
+        UUID movieId = UUID.randomUUID();
+        when(reactiveReviewRepository.findByMovieIdOrderByUpdatedOnDesc(movieId, PageRequest.of(0, 5)))
+                .thenReturn(Flux.just(review(UUID.randomUUID(), movieId, 7, LocalDateTime.now())));
+
+        StepVerifier.create(reactiveReviewService.getLatestReviews(movieId, 5))
+                .assertNext(latest -> assertEquals(1, latest.size()))
+                .verifyComplete();
+
+        assertNull(movieReviewsCache.getIfPresent(movieId));
+    }
+
+    @Test
+    void whenGetReviewsForMovieAfter_andMoreReviewsExist_thenReturnSizeReviewsAndNextCursor() {
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        Review first = review(UUID.randomUUID(), movieId, 5, now);
+        Review second = review(UUID.randomUUID(), movieId, 6, now.minusMinutes(1));
+        Review third = review(UUID.randomUUID(), movieId, 7, now.minusMinutes(2));
+        when(reactiveReviewRepository.findByMovieIdOrderByUpdatedOnDescIdDesc(movieId, PageRequest.of(0, 3)))
+                .thenReturn(Flux.just(first, second, third));
+
+        StepVerifier.create(reactiveReviewService.getReviewsForMovieAfter(movieId, null, 2, false))
+                .assertNext(slice -> {
+                    assertEquals(2, slice.getContent().size());
+                    assertTrue(slice.getHasNext());
+                    assertEquals(ReviewCursor.of(second).encode(), slice.getNextCursor());
+                    assertNull(slice.getTotalElements());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenGetAllReviewedMoviesCountByUser_andUserHasNoReviews_thenErrorWithNotFound() {
+        UUID userId = UUID.randomUUID();
+        when(reactiveReviewRepository.countByUserId(userId)).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(reactiveReviewService.getAllReviewedMoviesCountByUser(userId))
+                .expectError(NotFoundException.class)
+                .verify();
+
+        verify(reactiveMovieReviewStatsRepository, never()).applyReviewChange(any(), anyInt(), any(), any());
+    }
+
+    private static Review review(UUID userId, UUID movieId, int rating, LocalDateTime timestamp) {
+        return Review.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .movieId(movieId)
+                .rating(rating)
+                .content("Content")
+                .createdOn(timestamp)
+                .updatedOn(timestamp)
+                .build();
+    }
+}
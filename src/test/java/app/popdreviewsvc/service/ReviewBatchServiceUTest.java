@@ -0,0 +1,282 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.BatchSizeExceededException;
+import app.popdreviewsvc.exception.InvalidLookupException;
+import app.popdreviewsvc.model.MovieReviewStats;
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.BulkUpsertResult;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReviewChange;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.repository.ReviewVersionRepository;
+import app.popdreviewsvc.web.dto.BatchItemStatus;
+import app.popdreviewsvc.web.dto.BatchUpsertResponse;
+import app.popdreviewsvc.web.dto.MovieReviewStatsResponse;
+import app.popdreviewsvc.web.dto.ReviewRequest;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewBatchServiceUTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private MovieReviewStatsRepository movieReviewStatsRepository;
+
+    @Mock
+    private ReviewVersionRepository reviewVersionRepository;
+
+    @Mock
+    private TopRatedMoviesLeaderboard topRatedMoviesLeaderboard;
+
+    @Mock
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Mock
+    private TrendingMoviesTracker trendingMoviesTracker;
+
+    @Captor
+    private ArgumentCaptor<List<ReviewChange>> changes;
+
+    @Captor
+    private ArgumentCaptor<List<Review>> reviews;
+
+    private ReviewBatchService reviewBatchService;
+
+    @BeforeEach
+    void setUp() {
+        MovieReviewsCache movieReviewsCache = new MovieReviewsCache(100, 5, new SimpleMeterRegistry());
+        reviewBatchService = new ReviewBatchService(reviewRepository, movieReviewStatsRepository, movieReviewsCache, reviewVersionRepository,
+                topRatedMoviesLeaderboard, reviewSearchIndex, trendingMoviesTracker, 3);
+    }
+
+    @Test
+    void whenUpsertBatch_thenReportCreatedUpdatedAndFailedPerItem() {
+        UUID movieId = UUID.randomUUID();
+        UUID existingUserId = UUID.randomUUID();
+        LocalDateTime createdOn = LocalDateTime.now().minusDays(3);
+        Review existing = Review.builder()
+                .id(UUID.randomUUID())
+                .userId(existingUserId)
+                .movieId(movieId)
+                .rating(2)
+                .createdOn(createdOn)
+                .updatedOn(createdOn)
+                .build();
+        List<ReviewRequest> requests = List.of(
+                ReviewRequest.builder().userId(UUID.randomUUID()).movieId(movieId).rating(7).content("New").build(),
+                ReviewRequest.builder().userId(existingUserId).movieId(movieId).rating(9).content("Edited").build(),
+                ReviewRequest.builder().userId(UUID.randomUUID()).movieId(movieId).rating(4).content("Rejected").build()
+        );
+        when(reviewRepository.findAllByUserIdAndMovieIdPairs(anyList())).thenReturn(List.of(existing));
+        when(reviewRepository.bulkUpsertIfUnchanged(anyList(), anyList()))
+                .thenReturn(new BulkUpsertResult(Set.of(0), Map.of(2, "write failed")));
+
+        BatchUpsertResponse response = reviewBatchService.upsertBatch(requests);
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getFailed());
+        assertEquals(BatchItemStatus.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(BatchItemStatus.UPDATED, response.getResults().get(1).getStatus());
+        assertEquals(createdOn, response.getResults().get(1).getReview().getCreatedOn());
+        assertEquals(BatchItemStatus.ERROR, response.getResults().get(2).getStatus());
+        assertEquals("write failed", response.getResults().get(2).getError());
+
+        verify(movieReviewStatsRepository).applyReviewChanges(changes.capture());
+        assertThat(changes.getValue()).containsExactly(
+                new ReviewChange(movieId, 1, null, 7),
+                new ReviewChange(movieId, 0, 2, 9)
+        );
+        verify(topRatedMoviesLeaderboard).applyAll(changes.getValue());
+        verify(reviewVersionRepository).bump(eq(Set.of(movieId)), argThat(users -> users.size() == 2 && users.contains(existingUserId)));
+        // the failed item is not counted as trending activity
+        verify(trendingMoviesTracker, times(2)).record(eq(movieId), any(LocalDateTime.class));
+    }
+
+    @Test
+    void whenUpsertBatch_withDuplicateAndInvalidItems_thenOnlyLastDuplicateIsWritten() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        List<ReviewRequest> requests = List.of(
+                ReviewRequest.builder().userId(userId).movieId(movieId).rating(3).content("First").build(),
+                ReviewRequest.builder().userId(null).movieId(movieId).rating(3).content("No user").build(),
+                ReviewRequest.builder().userId(userId).movieId(movieId).rating(8).content("Second").build()
+        );
+        when(reviewRepository.findAllByUserIdAndMovieIdPairs(anyList())).thenReturn(List.of());
+        when(reviewRepository.bulkUpsertIfUnchanged(anyList(), anyList()))
+                .thenReturn(new BulkUpsertResult(Set.of(0), Map.of()));
+
+        BatchUpsertResponse response = reviewBatchService.upsertBatch(requests);
+
+        assertEquals(BatchItemStatus.ERROR, response.getResults().get(0).getStatus());
+        assertEquals(BatchItemStatus.ERROR, response.getResults().get(1).getStatus());
+        assertEquals(BatchItemStatus.CREATED, response.getResults().get(2).getStatus());
+        assertEquals("Second", response.getResults().get(2).getReview().getContent());
+
+        verify(reviewRepository).bulkUpsertIfUnchanged(reviews.capture(), anyList());
+        assertEquals(1, reviews.getValue().size());
+    }
+
+    @Test
+    void whenUpsertBatch_andBatchIsTooLarge_thenThrowWithoutWriting() {
+        List<ReviewRequest> requests = List.of(
+                ReviewRequest.builder().userId(UUID.randomUUID()).movieId(UUID.randomUUID()).build(),
+                ReviewRequest.builder().userId(UUID.randomUUID()).movieId(UUID.randomUUID()).build(),
+                ReviewRequest.builder().userId(UUID.randomUUID()).movieId(UUID.randomUUID()).build(),
+                ReviewRequest.builder().userId(UUID.randomUUID()).movieId(UUID.randomUUID()).build()
+        );
+
+        assertThrows(BatchSizeExceededException.class, () -> reviewBatchService.upsertBatch(requests));
+        verify(reviewRepository, never()).bulkUpsertIfUnchanged(any(), any());
+    }
+
+    @Test
+    void whenLookupReviews_thenQueryOnceAndKeyFoundReviewsByMovieInRequestOrder() {
+        UUID userId = UUID.randomUUID();
+        UUID reviewed = UUID.randomUUID();
+        UUID notReviewed = UUID.randomUUID();
+        UUID alsoReviewed = UUID.randomUUID();
+        when(reviewRepository.findAllByUserIdAndMovieIdIn(userId, Set.of(reviewed, notReviewed, alsoReviewed))).thenReturn(List.of(
+                Review.builder().userId(userId).movieId(alsoReviewed).rating(3).build(),
+                Review.builder().userId(userId).movieId(reviewed).rating(8).build()
+        ));
+
+        Map<UUID, ReviewResponse> reviews = reviewBatchService.lookupReviews(userId, List.of(reviewed, notReviewed, alsoReviewed));
+
+        assertThat(reviews.keySet()).containsExactly(reviewed, alsoReviewed);
+        assertEquals(8, reviews.get(reviewed).getRating());
+        assertEquals(3, reviews.get(alsoReviewed).getRating());
+        verify(reviewRepository).findAllByUserIdAndMovieIdIn(any(), any());
+        verifyNoMoreInteractions(reviewRepository);
+    }
+
+    @Test
+    void whenLookupReviews_withoutUserOrWithTooManyMovies_thenThrowWithoutQuerying() {
+        List<UUID> tooMany = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        assertThrows(InvalidLookupException.class, () -> reviewBatchService.lookupReviews(null, List.of(UUID.randomUUID())));
+        assertThrows(BatchSizeExceededException.class, () -> reviewBatchService.lookupReviews(UUID.randomUUID(), tooMany));
+        assertEquals(Map.of(), reviewBatchService.lookupReviews(UUID.randomUUID(), List.of()));
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void whenLookupMovieReviewStats_thenQueryOnceAndReturnZeroesForMoviesWithoutReviews() {
+        UUID rated = UUID.randomUUID();
+        UUID unreviewed = UUID.randomUUID();
+        when(movieReviewStatsRepository.findAllById(Set.of(rated, unreviewed))).thenReturn(List.of(
+                MovieReviewStats.builder().movieId(rated).totalReviews(3L).ratedReviews(2L).ratingSum(15L)
+                        .ratingDistribution(Map.of("7", 1L, "8", 1L)).build()
+        ));
+
+        Map<UUID, MovieReviewStatsResponse> stats = reviewBatchService.lookupMovieReviewStats(List.of(unreviewed, rated));
+
+        assertThat(stats.keySet()).containsExactly(unreviewed, rated);
+        assertEquals(3, stats.get(rated).getTotalReviews());
+        assertEquals(7.5, stats.get(rated).getAverageRating());
+        assertEquals(0, stats.get(unreviewed).getTotalReviews());
+        assertNull(stats.get(unreviewed).getAverageRating());
+        assertEquals(0L, stats.get(unreviewed).getRatingDistribution().get(10));
+        verify(movieReviewStatsRepository).findAllById(any());
+        verifyNoMoreInteractions(movieReviewStatsRepository);
+    }
+
+    @Test
+    void whenApplyReviews_andStoredReviewIsNewer_thenSkipOlderReviewAndReportIt() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime savedAt = LocalDateTime.now().minusSeconds(5);
+        Review delayed = Review.builder().id(UUID.randomUUID()).userId(userId).movieId(movieId).rating(4).updatedOn(savedAt).build();
+        Review stored = Review.builder().id(UUID.randomUUID()).userId(userId).movieId(movieId).rating(9).updatedOn(savedAt.plusSeconds(1)).build();
+        when(reviewRepository.findAllByUserIdAndMovieIdPairs(anyList())).thenReturn(List.of(stored));
+
+        BulkUpsertResult result = reviewBatchService.applyReviews(List.of(delayed));
+
+        assertEquals(Map.of(0, "Superseded by a newer write"), result.failedIndexes());
+        verify(reviewRepository, never()).bulkUpsertIfUnchanged(any(), any());
+        verifyNoInteractions(movieReviewStatsRepository);
+    }
+
+    @Test
+    void whenApplyReviews_andReviewIsStoredConcurrently_thenRetryAndTakeStatsFromTheRealPreviousReview() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        Review review = Review.builder().id(UUID.randomUUID()).userId(userId).movieId(movieId).rating(8).createdOn(now).updatedOn(now).build();
+        Review concurrent = Review.builder().id(UUID.randomUUID()).userId(userId).movieId(movieId).rating(3)
+                .createdOn(now.minusSeconds(1)).updatedOn(now.minusSeconds(1)).build();
+        when(reviewRepository.findAllByUserIdAndMovieIdPairs(anyList())).thenReturn(List.of());
+        when(reviewRepository.bulkUpsertIfUnchanged(anyList(), anyList()))
+                .thenReturn(new BulkUpsertResult(Set.of(), Map.of(), Set.of(0)));
+        when(reviewRepository.upsertUnlessNewer(review)).thenReturn(Optional.of(concurrent));
+
+        BulkUpsertResult result = reviewBatchService.applyReviews(List.of(review));
+
+        assertEquals(Set.of(), result.insertedIndexes());
+        assertEquals(Map.of(), result.failedIndexes());
+        assertEquals(concurrent.getId(), review.getId());
+        assertEquals(concurrent.getCreatedOn(), review.getCreatedOn());
+        verify(movieReviewStatsRepository).applyReviewChanges(List.of(new ReviewChange(movieId, 0, 3, 8)));
+    }
+
+    @Test
+    void whenApplyReviews_andNewerReviewIsStoredConcurrently_thenReportItAsSuperseded() {
+        LocalDateTime now = LocalDateTime.now();
+        Review review = Review.builder().id(UUID.randomUUID()).userId(UUID.randomUUID()).movieId(UUID.randomUUID()).rating(8).updatedOn(now).build();
+        when(reviewRepository.findAllByUserIdAndMovieIdPairs(anyList())).thenReturn(List.of());
+        when(reviewRepository.bulkUpsertIfUnchanged(anyList(), anyList()))
+                .thenReturn(new BulkUpsertResult(Set.of(), Map.of(), Set.of(0)));
+        when(reviewRepository.upsertUnlessNewer(review)).thenThrow(new DuplicateKeyException("E11000"));
+
+        BulkUpsertResult result = reviewBatchService.applyReviews(List.of(review));
+
+        assertEquals(Map.of(0, "Superseded by a newer write"), result.failedIndexes());
+        verifyNoInteractions(movieReviewStatsRepository, topRatedMoviesLeaderboard, reviewSearchIndex);
+    }
+
+    @Test
+    void whenApplyReviews_thenWriteOnlyWhileTheStoredReviewIsTheOneRead() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        Review stored = Review.builder().id(UUID.randomUUID()).userId(userId).movieId(movieId).rating(2).updatedOn(now.minusDays(1)).build();
+        Review edit = Review.builder().id(UUID.randomUUID()).userId(userId).movieId(movieId).rating(6).updatedOn(now).build();
+        Review created = Review.builder().id(UUID.randomUUID()).userId(UUID.randomUUID()).movieId(movieId).rating(9).updatedOn(now).build();
+        when(reviewRepository.findAllByUserIdAndMovieIdPairs(anyList())).thenReturn(List.of(stored));
+        when(reviewRepository.bulkUpsertIfUnchanged(anyList(), anyList()))
+                .thenReturn(new BulkUpsertResult(Set.of(1), Map.of()));
+
+        reviewBatchService.applyReviews(List.of(edit, created));
+
+        verify(reviewRepository).bulkUpsertIfUnchanged(eq(List.of(edit, created)), reviews.capture());
+        assertThat(reviews.getValue()).containsExactly(stored, null);
+        verify(reviewRepository, never()).upsertUnlessNewer(any());
+        verify(movieReviewStatsRepository).applyReviewChanges(List.of(
+                new ReviewChange(movieId, 0, 2, 6),
+                new ReviewChange(movieId, 1, null, 9)));
+    }
+}
@@ -0,0 +1,122 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.BulkUpsertResult;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.repository.ReviewVersionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewImportServiceUTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private MovieReviewStatsRepository movieReviewStatsRepository;
+
+    @Mock
+    private ReviewVersionRepository reviewVersionRepository;
+
+    @TempDir
+    private Path tempDir;
+
+    private ReviewImportService reviewImportService;
+
+    private final List<Review> written = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new ParameterNamesModule());
+        reviewImportService = new ReviewImportService(reviewRepository, movieReviewStatsRepository, reviewVersionRepository, objectMapper, 3, 2, 60);
+    }
+
+    @Test
+    void whenImportFiles_thenAllRecordsAreBulkWrittenInBatchesAndStatsRebuilt() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            ndjson.append("{\"userId\":\"%s\",\"movieId\":\"%s\",\"rating\":%d,\"content\":\"Content%d\",\"createdOn\":\"2020-01-01T10:00:00\"}\n"
+                    .formatted(UUID.randomUUID(), movieId, i % 10 + 1, i));
+        }
+        Path file = Files.writeString(tempDir.resolve("reviews.ndjson"), ndjson.toString());
+        recordBulkWrites();
+
+        ReviewImportService.ImportSummary summary = reviewImportService.importFiles(List.of(file));
+
+        assertEquals(10, summary.read());
+        assertEquals(10, summary.written());
+        assertEquals(0, summary.failed());
+        assertEquals(10, written.size());
+        assertEquals(LocalDateTime.of(2020, 1, 1, 10, 0), written.get(0).getCreatedOn());
+        assertEquals(written.get(0).getCreatedOn(), written.get(0).getUpdatedOn());
+        verify(reviewRepository, atLeast(4)).bulkUpsertByUserIdAndMovieId(anyList());
+        verify(movieReviewStatsRepository).rebuildFromReviews();
+        verify(reviewVersionRepository).bumpAll();
+    }
+
+    @Test
+    void whenImportFiles_withCsvAndRepeatedKeys_thenLastRecordOfAKeyWins() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        String csv = """
+                userId,movieId,rating,title,content
+                %s,%s,3,First,"Draft, unfinished"
+                ,%s,5,No user,Skipped
+                %s,%s,,Second,Final
+                """.formatted(userId, movieId, movieId, userId, movieId);
+        Path file = Files.writeString(tempDir.resolve("reviews.csv"), csv);
+        recordBulkWrites();
+
+        ReviewImportService.ImportSummary summary = reviewImportService.importFiles(List.of(file));
+
+        assertEquals(3, summary.read());
+        assertEquals(1, summary.skipped());
+        assertEquals(1, written.size());
+        Review review = written.get(0);
+        assertEquals("Second", review.getTitle());
+        assertEquals("Final", review.getContent());
+        assertNull(review.getRating());
+    }
+
+    @Test
+    void whenImportFiles_andAWriterFails_thenImportFailsInsteadOfHanging() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            ndjson.append("{\"userId\":\"%s\",\"movieId\":\"%s\"}\n".formatted(UUID.randomUUID(), UUID.randomUUID()));
+        }
+        Path file = Files.writeString(tempDir.resolve("reviews.ndjson"), ndjson.toString());
+        when(reviewRepository.bulkUpsertByUserIdAndMovieId(anyList())).thenThrow(new IllegalStateException("Mongo is down"));
+
+        assertThrows(IllegalStateException.class, () -> reviewImportService.importFiles(List.of(file)));
+        verify(movieReviewStatsRepository, never()).rebuildFromReviews();
+    }
+
+    private void recordBulkWrites() {
+        when(reviewRepository.bulkUpsertByUserIdAndMovieId(anyList())).thenAnswer(invocation -> {
+            List<Review> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return new BulkUpsertResult(Set.of(), Map.of());
+        });
+    }
+}
@@ -0,0 +1,184 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewSearchIndexUTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        reviewSearchIndex = new ReviewSearchIndex(reviewRepository, true);
+    }
+
+    @Test
+    void whenSearching_thenReviewsAreRankedByRelevance() {
+        Review focused = review("Soundtrack", "The soundtrack carries every scene, what a soundtrack.", NOW);
+        Review passing = review("Long and slow", "Slow pacing, weak dialogue, the soundtrack is fine and the cast tries hard.", NOW);
+        Review unrelated = review("Great cast", "Great acting from the whole cast.", NOW);
+        Stream.of(focused, passing, unrelated).forEach(reviewSearchIndex::index);
+
+        List<ReviewSearchHit> hits = reviewSearchIndex.search("SOUNDTRACK", null, null, 10);
+
+        assertEquals(List.of(ReviewKey.of(focused), ReviewKey.of(passing)), hits.stream().map(ReviewSearchHit::key).toList());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void whenSearchingForSeveralTerms_thenReviewsWithMoreOfThemRankHigher() {
+        Review both = review(null, "Moody score and a clever twist.", NOW);
+        Review one = review(null, "A clever script.", NOW);
+        Stream.of(one, both).forEach(reviewSearchIndex::index);
+
+        List<ReviewSearchHit> hits = reviewSearchIndex.search("clever twist", null, null, 10);
+
+        assertEquals(List.of(ReviewKey.of(both), ReviewKey.of(one)), hits.stream().map(ReviewSearchHit::key).toList());
+    }
+
+    @Test
+    void whenFilteringByMovieOrUser_thenOnlyTheirReviewsMatch() {
+        Review first = review(null, "Haunting soundtrack", NOW);
+        Review second = review(null, "Haunting soundtrack", NOW);
+        Stream.of(first, second).forEach(reviewSearchIndex::index);
+
+        assertEquals(List.of(ReviewKey.of(second)), keys(reviewSearchIndex.search("soundtrack", second.getMovieId(), null, 10)));
+        assertEquals(List.of(ReviewKey.of(first)), keys(reviewSearchIndex.search("soundtrack", null, first.getUserId(), 10)));
+        assertTrue(reviewSearchIndex.search("soundtrack", first.getMovieId(), second.getUserId(), 10).isEmpty());
+    }
+
+    @Test
+    void whenReviewIsReplacedOrRemoved_thenOnlyItsLatestVersionIsFound() {
+        Review original = review(null, "Forgettable soundtrack", NOW);
+        Review edited = Review.builder()
+                .id(original.getId())
+                .userId(original.getUserId())
+                .movieId(original.getMovieId())
+                .content("Forgettable plot")
+                .updatedOn(NOW.plusMinutes(1))
+                .build();
+        Review other = review(null, "Forgettable ending", NOW);
+        Stream.of(original, edited, other).forEach(reviewSearchIndex::index);
+        // an older version streamed by the startup build doesn't overwrite the newer write
+        reviewSearchIndex.index(original);
+
+        assertTrue(reviewSearchIndex.search("soundtrack", null, null, 10).isEmpty());
+        assertEquals(List.of(ReviewKey.of(edited)), keys(reviewSearchIndex.search("plot", null, null, 10)));
+
+        reviewSearchIndex.remove(other.getUserId(), other.getMovieId());
+
+        assertEquals(List.of(ReviewKey.of(edited)), keys(reviewSearchIndex.search("forgettable", null, null, 10)));
+    }
+
+    @Test
+    void whenQueryHasOnlyStopWordsOrLimitIsNotPositive_thenNothingIsFound() {
+        reviewSearchIndex.index(review(null, "The end of it", NOW));
+
+        assertTrue(reviewSearchIndex.search("the of it", null, null, 10).isEmpty());
+        assertTrue(reviewSearchIndex.search("end", null, null, 0).isEmpty());
+    }
+
+    @Test
+    void whenManyReviewsAreReplaced_thenTheIndexIsCompactedAndStillSearchable() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        for (int i = 0; i < 25_000; i++) {
+            reviewSearchIndex.index(Review.builder().userId(userId).movieId(movieId)
+                    .content("draft" + i + " soundtrack").updatedOn(NOW.plusSeconds(i)).build());
+        }
+
+        List<ReviewSearchHit> hits = reviewSearchIndex.search("soundtrack draft24999 draft3", null, null, 10);
+
+        assertEquals(List.of(new ReviewKey(userId, movieId)), keys(hits));
+    }
+
+    @Test
+    void whenACommonTermCannotChangeTheTopHits_thenTheyAreStillFoundThroughTheRareTerm() {
+        List<Review> reviews = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String content = i % 1_000 == 7 ? "spooky spooky score" : i % 100 == 0 ? "spooky score" : "score";
+            reviews.add(review(null, content, NOW));
+        }
+        reviews.forEach(reviewSearchIndex::index);
+
+        List<ReviewSearchHit> hits = reviewSearchIndex.search("score spooky", null, null, 5);
+
+        assertEquals(IntStream.range(0, 5).mapToObj(i -> ReviewKey.of(reviews.get(i * 1_000 + 7))).collect(Collectors.toSet()), Set.copyOf(keys(hits)));
+    }
+
+    @Test
+    void whenLimitIsSmall_thenTheHitsAreTheBestOfALargerSearch() {
+        Random random = new Random(42);
+        for (int i = 0; i < 3_000; i++) {
+            StringBuilder content = new StringBuilder();
+            for (int word = 0; word < 12; word++) {
+                content.append("word").append((int) (Math.pow(random.nextDouble(), 3) * 200)).append(' ');
+            }
+            reviewSearchIndex.index(review(null, content.toString(), NOW));
+        }
+
+        for (String query : List.of("word0 word1", "word0 word7 word150", "word2 word3 word199")) {
+            List<ReviewSearchHit> all = reviewSearchIndex.search(query, null, null, ReviewSearchIndex.MAX_RESULTS);
+            List<ReviewSearchHit> top = reviewSearchIndex.search(query, null, null, 5);
+
+            assertEquals(all.subList(0, 5).stream().map(ReviewSearchHit::score).toList(), top.stream().map(ReviewSearchHit::score).toList(), query);
+        }
+    }
+
+    @Test
+    void whenBuilt_thenEveryStoredReviewIsSearchable() {
+        Review stored = review("Score", "Sweeping orchestral score", NOW);
+        when(reviewRepository.streamSearchableReviews()).thenReturn(Stream.of(stored));
+
+        assertEquals(1, reviewSearchIndex.build());
+        assertEquals(List.of(ReviewKey.of(stored)), keys(reviewSearchIndex.search("orchestral", null, null, 10)));
+    }
+
+    @Test
+    void whenDisabled_thenNothingIsIndexed() {
+        ReviewSearchIndex disabled = new ReviewSearchIndex(reviewRepository, false);
+
+        disabled.index(review(null, "Soundtrack", NOW));
+
+        assertTrue(disabled.search("soundtrack", null, null, 10).isEmpty());
+    }
+
+    private static List<ReviewKey> keys(List<ReviewSearchHit> hits) {
+        return hits.stream().map(ReviewSearchHit::key).toList();
+    }
+
+    private static Review review(String title, String content, LocalDateTime updatedOn) {
+        return Review.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .movieId(UUID.randomUUID())
+                .title(title)
+                .content(content)
+                .updatedOn(updatedOn)
+                .build();
+    }
+}
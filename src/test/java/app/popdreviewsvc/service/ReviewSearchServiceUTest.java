@@ -0,0 +1,82 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.InvalidSearchQueryException;
+import app.popdreviewsvc.exception.SearchUnavailableException;
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.web.dto.ReviewSearchHitResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewSearchServiceUTest {
+
+    @Mock
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @InjectMocks
+    private ReviewSearchService reviewSearchService;
+
+    @Test
+    void whenSearching_thenHitsAreReadWithOneQueryAndKeepTheirRanking() {
+        Review best = review("Best");
+        Review second = review("Second");
+        Review removed = review("Removed meanwhile");
+        UUID movieId = best.getMovieId();
+        when(reviewSearchIndex.isEnabled()).thenReturn(true);
+        when(reviewSearchIndex.search("soundtrack", movieId, null, 10)).thenReturn(List.of(
+                new ReviewSearchHit(ReviewKey.of(best), 3.5),
+                new ReviewSearchHit(ReviewKey.of(removed), 2.0),
+                new ReviewSearchHit(ReviewKey.of(second), 1.5)));
+        when(reviewRepository.findAllByUserIdAndMovieIdPairs(anyList())).thenReturn(List.of(second, best));
+
+        List<ReviewSearchHitResponse> hits = reviewSearchService.search("soundtrack", movieId, null, 10);
+
+        assertEquals(List.of("Best", "Second"), hits.stream().map(hit -> hit.getReview().getContent()).toList());
+        assertEquals(3.5, hits.get(0).getScore());
+        verify(reviewRepository, times(1)).findAllByUserIdAndMovieIdPairs(anyList());
+    }
+
+    @Test
+    void whenNothingMatches_thenMongoIsNotQueried() {
+        when(reviewSearchIndex.isEnabled()).thenReturn(true);
+        when(reviewSearchIndex.search("nothing", null, null, 10)).thenReturn(List.of());
+
+        assertTrue(reviewSearchService.search("nothing", null, null, 10).isEmpty());
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void whenQueryIsBlank_thenThrowInvalidSearchQueryException() {
+        when(reviewSearchIndex.isEnabled()).thenReturn(true);
+
+        assertThrows(InvalidSearchQueryException.class, () -> reviewSearchService.search(" ", null, null, 10));
+    }
+
+    @Test
+    void whenSearchIsDisabled_thenThrowSearchUnavailableException() {
+        assertThrows(SearchUnavailableException.class, () -> reviewSearchService.search("soundtrack", null, null, 10));
+    }
+
+    private static Review review(String content) {
+        return Review.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .movieId(UUID.randomUUID())
+                .content(content)
+                .build();
+    }
+}
@@ -1,25 +1,45 @@
 package app.popdreviewsvc.service;
 
+import app.popdreviewsvc.exception.InvalidCursorException;
+import app.popdreviewsvc.exception.InvalidPageSizeException;
 import app.popdreviewsvc.exception.NotFoundException;
+import app.popdreviewsvc.model.MovieReviewStats;
 import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.model.ReviewVersion;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReviewChange;
+import app.popdreviewsvc.repository.ReviewField;
 import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.repository.ReviewVersionRepository;
+import app.popdreviewsvc.repository.ReviewStorageStats;
 import app.popdreviewsvc.web.dto.ReviewRequest;
 import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.dto.ReviewSliceResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
@@ -33,6 +53,27 @@ public class ReviewServiceUTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private MovieReviewStatsRepository movieReviewStatsRepository;
+
+    @Mock
+    private ReviewVersionRepository reviewVersionRepository;
+
+    @Mock
+    private ReviewWriteBuffer reviewWriteBuffer;
+
+    @Mock
+    private TrendingMoviesTracker trendingMoviesTracker;
+
+    @Mock
+    private TopRatedMoviesLeaderboard topRatedMoviesLeaderboard;
+
+    @Mock
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Spy
+    private MovieReviewsCache movieReviewsCache = new MovieReviewsCache(100, 5, new SimpleMeterRegistry());
+
     @InjectMocks
     private ReviewService reviewService;
 
@@ -47,16 +88,14 @@ public class ReviewServiceUTest {
                 .title("Great movie!")
                 .content("This is an amazing film.")
                 .build();
-        when(reviewRepository.findByUserIdAndMovieId(userId, movieId)).thenReturn(Optional.empty());
-        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> {
-            Review review = invocation.getArgument(0);
-            review.setId(UUID.randomUUID());
-            return review;
-        });
+        when(reviewRepository.upsertByUserIdAndMovieId(any(Review.class))).thenReturn(Optional.empty());
 
-        Review result = reviewService.upsert(request);
+        UpsertResult upsertResult = reviewService.upsert(request);
+        Review result = upsertResult.review();
 
+        assertTrue(upsertResult.created());
         assertNotNull(result);
+        assertNotNull(result.getId());
         assertEquals(5, result.getRating());
         assertEquals("Great movie!", result.getTitle());
         assertEquals("This is an amazing film.", result.getContent());
@@ -64,7 +103,13 @@ public class ReviewServiceUTest {
         assertEquals(movieId, result.getMovieId());
         assertThat(result.getCreatedOn()).isCloseTo(LocalDateTime.now(), within(2, ChronoUnit.SECONDS));
         assertThat(result.getUpdatedOn()).isCloseTo(LocalDateTime.now(), within(2, ChronoUnit.SECONDS));
-        verify(reviewRepository).save(any(Review.class));
+        verify(reviewRepository).upsertByUserIdAndMovieId(any(Review.class));
+        verify(reviewRepository, never()).findByUserIdAndMovieId(any(), any());
+        verify(reviewRepository, never()).save(any());
+        verify(movieReviewStatsRepository).applyReviewChange(movieId, 1, null, 5);
+        verify(reviewVersionRepository).bump(Set.of(movieId), Set.of(userId));
+        verify(trendingMoviesTracker).record(movieId, result.getUpdatedOn());
+        verify(reviewSearchIndex).index(result);
     }
 
     @Test
@@ -72,6 +117,7 @@ public class ReviewServiceUTest {
         UUID userId = UUID.randomUUID();
         UUID movieId = UUID.randomUUID();
         UUID reviewId = UUID.randomUUID();
+        LocalDateTime originalCreatedOn = LocalDateTime.now().minusDays(1);
         ReviewRequest request = ReviewRequest.builder()
                 .userId(userId)
                 .movieId(movieId)
@@ -86,21 +132,25 @@ public class ReviewServiceUTest {
                 .rating(3)
                 .title("Old title")
                 .content("Old content")
-                .createdOn(LocalDateTime.now().minusDays(1))
-                .updatedOn(LocalDateTime.now().minusDays(1))
+                .createdOn(originalCreatedOn)
+                .updatedOn(originalCreatedOn)
                 .build();
-        when(reviewRepository.findByUserIdAndMovieId(userId, movieId)).thenReturn(Optional.of(existingReview));
-        when(reviewRepository.save(any(Review.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reviewRepository.upsertByUserIdAndMovieId(any(Review.class))).thenReturn(Optional.of(existingReview));
 
-        Review result = reviewService.upsert(request);
+        UpsertResult upsertResult = reviewService.upsert(request);
+        Review result = upsertResult.review();
 
+        assertFalse(upsertResult.created());
         assertNotNull(result);
         assertEquals(reviewId, result.getId());
+        assertEquals(originalCreatedOn, result.getCreatedOn());
         assertEquals(4, result.getRating());
         assertEquals("Updated title", result.getTitle());
         assertEquals("Updated content", result.getContent());
         assertThat(result.getUpdatedOn()).isCloseTo(LocalDateTime.now(), within(2, ChronoUnit.SECONDS));
-        verify(reviewRepository).save(existingReview);
+        verify(reviewRepository, never()).save(any());
+        verify(movieReviewStatsRepository).applyReviewChange(movieId, 0, 3, 4);
+        verify(topRatedMoviesLeaderboard).apply(new ReviewChange(movieId, 0, 3, 4));
     }
 
     @Test
@@ -150,6 +200,10 @@ public class ReviewServiceUTest {
         reviewService.removeReview(userId, movieId);
 
         verify(reviewRepository).delete(review);
+        verify(movieReviewStatsRepository).applyReviewChange(movieId, -1, 5, null);
+        verify(topRatedMoviesLeaderboard).apply(new ReviewChange(movieId, -1, 5, null));
+        verify(reviewSearchIndex).remove(userId, movieId);
+        verify(reviewVersionRepository).bump(Set.of(movieId), Set.of(userId));
     }
 
     @Test
@@ -160,6 +214,18 @@ public class ReviewServiceUTest {
 
         assertThrows(NotFoundException.class, () -> reviewService.removeReview(userId, movieId));
         verify(reviewRepository, never()).delete(any());
+        verifyNoInteractions(movieReviewStatsRepository);
+        verifyNoInteractions(reviewVersionRepository);
+    }
+
+    @Test
+    void whenGetMovieVersion_thenReadVersionWithoutTouchingReviews() {
+        UUID movieId = UUID.randomUUID();
+        ReviewVersion version = ReviewVersion.builder().key(ReviewVersion.movieKey(movieId)).version(7L).lastModified(Instant.now()).build();
+        when(reviewVersionRepository.getCurrent("movie:" + movieId)).thenReturn(version);
+
+        assertSame(version, reviewService.getMovieVersion(movieId));
+        verifyNoInteractions(reviewRepository);
     }
 
     @Test
@@ -171,28 +237,29 @@ public class ReviewServiceUTest {
                 Review.builder().movieId(movieId).userId(UUID.randomUUID()).rating(4).title("Title2").content("Content2").createdOn(now).updatedOn(now).build(),
                 Review.builder().movieId(movieId).userId(UUID.randomUUID()).rating(3).title("Title3").content("Content3").createdOn(now).updatedOn(now).build()
         );
-        when(reviewRepository.findAllByMovieIdOrderByUpdatedOnDesc(movieId)).thenReturn(reviews);
+        when(reviewRepository.findByMovieIdOrderByUpdatedOnDesc(movieId, PageRequest.of(0, 5))).thenReturn(new PageImpl<>(reviews));
 
-        List<ReviewResponse> result = reviewService.getLatestReviews(movieId, 3);
+        List<ReviewResponse> result = reviewService.getLatestReviews(movieId, 2);
 
         assertNotNull(result);
-        assertEquals(3, result.size());
+        assertEquals(2, result.size());
+        assertEquals("Title1", result.get(0).getTitle());
     }
 
     @Test
     void whenGetLatestReviews_andNoReviewsExist_thenThrowException() {
         UUID movieId = UUID.randomUUID();
-        when(reviewRepository.findAllByMovieIdOrderByUpdatedOnDesc(movieId)).thenReturn(List.of());
+        when(reviewRepository.findByMovieIdOrderByUpdatedOnDesc(movieId, PageRequest.of(0, 5))).thenReturn(Page.empty());
 
         assertThrows(NotFoundException.class, () -> reviewService.getLatestReviews(movieId, 5));
     }
 
     @Test
-    void whenGetLatestReviews_andMoreThanRequestedReviewsExist_thenReturnOnlyRequestedCount() {
+    void whenGetLatestReviews_andCountExceedsCacheDepth_thenLimitIsPushedDownToRepository() {
         UUID movieId = UUID.randomUUID();
         LocalDateTime now = LocalDateTime.now();
         List<Review> reviews = new java.util.ArrayList<>();
-        for (int i = 0; i < 10; i++) {
+        for (int i = 0; i < 8; i++) {
             reviews.add(Review.builder()
                     .movieId(movieId)
                     .userId(UUID.randomUUID())
@@ -203,12 +270,44 @@ public class ReviewServiceUTest {
                     .updatedOn(now)
                     .build());
         }
-        when(reviewRepository.findAllByMovieIdOrderByUpdatedOnDesc(movieId)).thenReturn(reviews);
+        when(reviewRepository.findAllByMovieIdOrderByUpdatedOnDesc(movieId, Limit.of(8))).thenReturn(reviews);
 
-        List<ReviewResponse> result = reviewService.getLatestReviews(movieId, 5);
+        List<ReviewResponse> result = reviewService.getLatestReviews(movieId, 8);
 
         assertNotNull(result);
-        assertEquals(5, result.size());
+        assertEquals(8, result.size());
+        verify(reviewRepository).findAllByMovieIdOrderByUpdatedOnDesc(movieId, Limit.of(8));
+    }
+
+    @Test
+    void whenGetLatestReviews_andFirstPageRequested_thenBothAreServedFromOneCachedQuery() {
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        List<Review> reviews = List.of(
+                Review.builder().movieId(movieId).userId(UUID.randomUUID()).rating(5).title("Title1").content("Content1").createdOn(now).updatedOn(now).build(),
+                Review.builder().movieId(movieId).userId(UUID.randomUUID()).rating(4).title("Title2").content("Content2").createdOn(now).updatedOn(now).build()
+        );
+        when(reviewRepository.findByMovieIdOrderByUpdatedOnDesc(movieId, PageRequest.of(0, 5))).thenReturn(new PageImpl<>(reviews, PageRequest.of(0, 5), 2));
+
+        reviewService.getLatestReviews(movieId, 5);
+        reviewService.getLatestReviews(movieId, 5);
+        Page<ReviewResponse> firstPage = reviewService.getReviewsForMovie(movieId, PageRequest.of(0, 1));
+
+        assertEquals(1, firstPage.getContent().size());
+        assertEquals(2, firstPage.getTotalElements());
+        verify(reviewRepository, times(1)).findByMovieIdOrderByUpdatedOnDesc(movieId, PageRequest.of(0, 5));
+    }
+
+    @Test
+    void whenUpsert_thenCachedReviewsOfThatMovieAreInvalidated() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        ReviewRequest request = ReviewRequest.builder().userId(userId).movieId(movieId).rating(5).content("Content").build();
+        when(reviewRepository.upsertByUserIdAndMovieId(any(Review.class))).thenReturn(Optional.empty());
+
+        reviewService.upsert(request);
+
+        verify(movieReviewsCache).invalidate(movieId);
     }
 
     @Test
@@ -230,25 +329,152 @@ public class ReviewServiceUTest {
     }
 
     @Test
-    void whenGetAllReviewsForAMovieCount_andReviewsExist_thenReturnCount() {
+    void whenGetReviewsForMovie_withFields_thenQueryOnlyThoseFieldsAndCountSeparately() {
         UUID movieId = UUID.randomUUID();
-        List<Review> reviews = List.of(
-                Review.builder().movieId(movieId).rating(5).build(),
-                Review.builder().movieId(movieId).rating(4).build()
-        );
-        when(reviewRepository.findAllByMovieId(movieId)).thenReturn(reviews);
+        Pageable pageable = PageRequest.of(1, 2);
+        Set<ReviewField> fields = EnumSet.of(ReviewField.TITLE, ReviewField.RATING);
+        when(reviewRepository.findLatestByMovieId(movieId, pageable, fields)).thenReturn(List.of(
+                Review.builder().rating(5).title("Title1").build(),
+                Review.builder().rating(4).title("Title2").build()
+        ));
+        when(reviewRepository.countByMovieId(movieId)).thenReturn(7L);
 
-        Integer result = reviewService.getAllReviewsForAMovieCount(movieId);
+        Page<ReviewResponse> result = reviewService.getReviewsForMovie(movieId, pageable, fields);
 
-        assertEquals(2, result);
+        assertEquals(2, result.getContent().size());
+        assertEquals(7, result.getTotalElements());
+        assertNull(result.getContent().get(0).getContent());
+        verify(reviewRepository, never()).findByMovieIdOrderByUpdatedOnDesc(any(), any());
     }
 
     @Test
-    void whenGetAllReviewsForAMovieCount_andNoReviewsExist_thenThrowNotFoundException() {
+    void whenGetLatestReviews_withFieldsAndCountExceedsCacheDepth_thenUseProjectedQuery() {
         UUID movieId = UUID.randomUUID();
-        when(reviewRepository.findAllByMovieId(movieId)).thenReturn(List.of());
+        Set<ReviewField> fields = EnumSet.of(ReviewField.TITLE);
+        when(reviewRepository.findLatestByMovieId(movieId, PageRequest.of(0, 8), fields))
+                .thenReturn(List.of(Review.builder().title("Title1").build()));
 
-        assertThrows(NotFoundException.class, () -> reviewService.getAllReviewsForAMovieCount(movieId));
+        List<ReviewResponse> result = reviewService.getLatestReviews(movieId, 8, fields);
+
+        assertEquals("Title1", result.get(0).getTitle());
+        verify(reviewRepository, never()).findAllByMovieIdOrderByUpdatedOnDesc(any(), any());
+    }
+
+    @Test
+    void whenGetLatestReviewsByUserId_withFields_thenUseProjectedQuery() {
+        UUID userId = UUID.randomUUID();
+        Set<ReviewField> fields = EnumSet.of(ReviewField.SNIPPET, ReviewField.CREATED_ON);
+        when(reviewRepository.findLatestByUserId(userId, 20, fields))
+                .thenReturn(List.of(Review.builder().content("Short").createdOn(LocalDateTime.now()).build()));
+
+        List<ReviewResponse> result = reviewService.getLatestReviewsByUserId(userId, fields);
+
+        assertEquals(1, result.size());
+        verify(reviewRepository, never()).findAllByUserIdOrderByCreatedOnDesc(any(), any());
+    }
+
+    @Test
+    void whenGetReviewsForMovieAfter_withoutCursor_thenReturnFirstSliceWithNextCursorAndNoCount() {
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        Review newest = Review.builder().id(UUID.randomUUID()).movieId(movieId).userId(UUID.randomUUID()).rating(5).createdOn(now).updatedOn(now).build();
+        Review older = Review.builder().id(UUID.randomUUID()).movieId(movieId).userId(UUID.randomUUID()).rating(4).createdOn(now).updatedOn(now.minusMinutes(1)).build();
+        Pageable pageable = PageRequest.of(0, 2);
+        when(reviewRepository.findSliceByMovieIdOrderByUpdatedOnDescIdDesc(movieId, pageable))
+                .thenReturn(new SliceImpl<>(List.of(newest, older), pageable, true));
+
+        ReviewSliceResponse result = reviewService.getReviewsForMovieAfter(movieId, null, 2, false);
+
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.getHasNext());
+        assertEquals(ReviewCursor.of(older), ReviewCursor.decode(result.getNextCursor()));
+        assertNull(result.getTotalElements());
+        verifyNoInteractions(movieReviewStatsRepository);
+    }
+
+    @Test
+    void whenGetReviewsForMovieAfter_withCursor_thenSeekPastCursorAndReturnApproximateTotal() {
+        UUID movieId = UUID.randomUUID();
+        ReviewCursor cursor = new ReviewCursor(LocalDateTime.now().minusMinutes(1), UUID.randomUUID());
+        Review last = Review.builder().id(UUID.randomUUID()).movieId(movieId).userId(UUID.randomUUID()).rating(3).updatedOn(LocalDateTime.now().minusMinutes(2)).build();
+        Pageable pageable = PageRequest.of(0, 2);
+        when(reviewRepository.findSliceByMovieIdAfterCursor(movieId, cursor.updatedOn(), cursor.id(), pageable))
+                .thenReturn(new SliceImpl<>(List.of(last), pageable, false));
+        when(movieReviewStatsRepository.findById(movieId))
+                .thenReturn(Optional.of(MovieReviewStats.builder().movieId(movieId).totalReviews(3L).build()));
+
+        ReviewSliceResponse result = reviewService.getReviewsForMovieAfter(movieId, cursor.encode(), 2, true);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.getHasNext());
+        assertNull(result.getNextCursor());
+        assertEquals(3L, result.getTotalElements());
+        verify(reviewRepository, never()).findByMovieIdOrderByUpdatedOnDesc(any(), any());
+    }
+
+    @Test
+    void whenGetReviewsForMovieAfter_withMalformedCursor_thenThrowInvalidCursorException() {
+        UUID movieId = UUID.randomUUID();
+
+        assertThrows(InvalidCursorException.class, () -> reviewService.getReviewsForMovieAfter(movieId, "not-a-cursor", 5, false));
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void whenGetReviewsForMovieAfter_withSizeBelowOne_thenThrowInvalidPageSizeException() {
+        UUID movieId = UUID.randomUUID();
+
+        assertThrows(InvalidPageSizeException.class, () -> reviewService.getReviewsForMovieAfter(movieId, null, 0, false));
+        assertThrows(InvalidPageSizeException.class, () -> reviewService.getReviewsForMovieAfter(movieId, null, -1, false));
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void whenGetReviewsForMovieAfter_withSizeAboveMaximum_thenReadAtMostMaximum() {
+        UUID movieId = UUID.randomUUID();
+        Pageable pageable = PageRequest.of(0, ReviewService.MAX_SLICE_SIZE);
+        when(reviewRepository.findSliceByMovieIdOrderByUpdatedOnDescIdDesc(movieId, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        ReviewSliceResponse result = reviewService.getReviewsForMovieAfter(movieId, null, 10_000, false);
+
+        assertEquals(ReviewService.MAX_SLICE_SIZE, result.getSize());
+        verify(reviewRepository).findSliceByMovieIdOrderByUpdatedOnDescIdDesc(movieId, pageable);
+    }
+
+    @Test
+    void whenGetMovieReviewStats_andReviewsExist_thenReturnStatsDocument() {
+        UUID movieId = UUID.randomUUID();
+        MovieReviewStats stats = MovieReviewStats.builder()
+                .movieId(movieId)
+                .totalReviews(2L)
+                .ratedReviews(2L)
+                .ratingSum(9L)
+                .ratingDistribution(Map.of("5", 1L, "4", 1L))
+                .build();
+        when(movieReviewStatsRepository.findById(movieId)).thenReturn(Optional.of(stats));
+
+        MovieReviewStats result = reviewService.getMovieReviewStats(movieId);
+
+        assertEquals(2L, result.getTotalReviews());
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void whenGetMovieReviewStats_andNoStatsDocumentExists_thenThrowNotFoundException() {
+        UUID movieId = UUID.randomUUID();
+        when(movieReviewStatsRepository.findById(movieId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> reviewService.getMovieReviewStats(movieId));
+    }
+
+    @Test
+    void whenGetMovieReviewStats_andAllReviewsWereRemoved_thenThrowNotFoundException() {
+        UUID movieId = UUID.randomUUID();
+        MovieReviewStats stats = MovieReviewStats.builder().movieId(movieId).totalReviews(0L).ratedReviews(0L).ratingSum(0L).build();
+        when(movieReviewStatsRepository.findById(movieId)).thenReturn(Optional.of(stats));
+
+        assertThrows(NotFoundException.class, () -> reviewService.getMovieReviewStats(movieId));
     }
 
     @Test
@@ -282,7 +508,7 @@ public class ReviewServiceUTest {
                 Review.builder().userId(userId).movieId(UUID.randomUUID()).rating(5).title("Title1").content("Content1").createdOn(now).updatedOn(now).build(),
                 Review.builder().userId(userId).movieId(UUID.randomUUID()).rating(4).title("Title2").content("Content2").createdOn(now).updatedOn(now).build()
         );
-        when(reviewRepository.findAllByUserIdOrderByCreatedOnDesc(userId)).thenReturn(reviews);
+        when(reviewRepository.findAllByUserIdOrderByCreatedOnDesc(userId, Limit.of(20))).thenReturn(reviews);
 
         List<ReviewResponse> result = reviewService.getLatestReviewsByUserId(userId);
 
@@ -293,17 +519,17 @@ public class ReviewServiceUTest {
     @Test
     void whenGetLatestReviewsByUserId_andNoReviewsExist_thenThrowNotFoundException() {
         UUID userId = UUID.randomUUID();
-        when(reviewRepository.findAllByUserIdOrderByCreatedOnDesc(userId)).thenReturn(List.of());
+        when(reviewRepository.findAllByUserIdOrderByCreatedOnDesc(userId, Limit.of(20))).thenReturn(List.of());
 
         assertThrows(NotFoundException.class, () -> reviewService.getLatestReviewsByUserId(userId));
     }
 
     @Test
-    void whenGetLatestReviewsByUserId_andMoreThan20ReviewsExist_thenReturnOnly20() {
+    void whenGetLatestReviewsByUserId_thenOnly20AreRequestedFromRepository() {
         UUID userId = UUID.randomUUID();
         LocalDateTime now = LocalDateTime.now();
         List<Review> reviews = new java.util.ArrayList<>();
-        for (int i = 0; i < 25; i++) {
+        for (int i = 0; i < 20; i++) {
             reviews.add(Review.builder()
                     .userId(userId)
                     .movieId(UUID.randomUUID())
@@ -314,11 +540,108 @@ public class ReviewServiceUTest {
                     .updatedOn(now)
                     .build());
         }
-        when(reviewRepository.findAllByUserIdOrderByCreatedOnDesc(userId)).thenReturn(reviews);
+        when(reviewRepository.findAllByUserIdOrderByCreatedOnDesc(userId, Limit.of(20))).thenReturn(reviews);
 
         List<ReviewResponse> result = reviewService.getLatestReviewsByUserId(userId);
 
         assertNotNull(result);
         assertEquals(20, result.size());
+        verify(reviewRepository).findAllByUserIdOrderByCreatedOnDesc(userId, Limit.of(20));
+    }
+
+    @Test
+    void whenStreamReviewsForMovie_thenMapLazilyAndCloseUnderlyingCursor() {
+        UUID movieId = UUID.randomUUID();
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Review> cursor = Stream.of(
+                Review.builder().movieId(movieId).userId(UUID.randomUUID()).rating(5).title("Title1").build(),
+                Review.builder().movieId(movieId).userId(UUID.randomUUID()).rating(4).title("Title2").build()
+        ).onClose(() -> closed.set(true));
+        when(reviewRepository.streamAllByMovieId(movieId)).thenReturn(cursor);
+
+        List<ReviewResponse> result;
+        try (Stream<ReviewResponse> stream = reviewService.streamReviewsForMovie(movieId)) {
+            result = stream.toList();
+        }
+
+        assertEquals(2, result.size());
+        assertEquals("Title1", result.get(0).getTitle());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void whenCompressStoredContent_thenCompressThroughRepositoryAndReturnCount() {
+        ReviewStorageStats before = new ReviewStorageStats(10, 0, 50_000, 5_000, 20_000, 4_096, 30_000L);
+        ReviewStorageStats after = new ReviewStorageStats(10, 8, 14_000, 1_400, 9_000, 4_096, 12_000L);
+        when(reviewRepository.getStorageStats()).thenReturn(before, after);
+        when(reviewRepository.compressStoredContent()).thenReturn(8L);
+
+        long compressed = reviewService.compressStoredContent();
+
+        assertEquals(8, compressed);
+        var inOrder = inOrder(reviewRepository);
+        inOrder.verify(reviewRepository).getStorageStats();
+        inOrder.verify(reviewRepository).compressStoredContent();
+        inOrder.verify(reviewRepository).getStorageStats();
+        verifyNoInteractions(movieReviewStatsRepository);
+    }
+
+    @Test
+    void whenUpsert_withWriteCoalescing_andReviewIsPending_thenBufferWithoutWritingAndKeepIdentity() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime createdOn = LocalDateTime.now().minusDays(1);
+        Review pending = Review.builder().id(UUID.randomUUID()).userId(userId).movieId(movieId).rating(3).createdOn(createdOn).build();
+        when(reviewWriteBuffer.isEnabled()).thenReturn(true);
+        when(reviewWriteBuffer.get(new ReviewKey(userId, movieId))).thenReturn(pending);
+
+        UpsertResult result = reviewService.upsert(ReviewRequest.builder().userId(userId).movieId(movieId).rating(9).content("Final").build());
+
+        assertFalse(result.created());
+        assertEquals(pending.getId(), result.review().getId());
+        assertEquals(createdOn, result.review().getCreatedOn());
+        verify(reviewWriteBuffer).put(result.review());
+        verifyNoInteractions(reviewRepository, movieReviewStatsRepository, reviewVersionRepository);
+    }
+
+    @Test
+    void whenUpsert_withWriteCoalescing_andNothingIsStoredOrPending_thenReportCreated() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        when(reviewWriteBuffer.isEnabled()).thenReturn(true);
+        when(reviewRepository.findByUserIdAndMovieId(userId, movieId)).thenReturn(Optional.empty());
+
+        UpsertResult result = reviewService.upsert(ReviewRequest.builder().userId(userId).movieId(movieId).rating(9).content("First").build());
+
+        assertTrue(result.created());
+        verify(reviewWriteBuffer).put(result.review());
+        verify(reviewRepository, never()).upsertByUserIdAndMovieId(any());
+        verifyNoInteractions(movieReviewStatsRepository);
+    }
+
+    @Test
+    void whenFindByUserIdAndMovieId_withWriteCoalescing_thenPendingReviewWinsOverStoredOne() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        Review pending = Review.builder().userId(userId).movieId(movieId).content("Pending").build();
+        when(reviewWriteBuffer.isEnabled()).thenReturn(true);
+        when(reviewWriteBuffer.get(new ReviewKey(userId, movieId))).thenReturn(pending);
+
+        assertSame(pending, reviewService.findByUserIdAndMovieId(userId, movieId));
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void whenRemoveReview_withWriteCoalescing_andReviewWasNeverFlushed_thenOnlyDropPendingReview() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        when(reviewWriteBuffer.isEnabled()).thenReturn(true);
+        when(reviewWriteBuffer.remove(new ReviewKey(userId, movieId))).thenReturn(Review.builder().userId(userId).movieId(movieId).build());
+        when(reviewRepository.findByUserIdAndMovieId(userId, movieId)).thenReturn(Optional.empty());
+
+        reviewService.removeReview(userId, movieId);
+
+        verify(reviewRepository, never()).delete(any());
+        verifyNoInteractions(movieReviewStatsRepository);
     }
 }
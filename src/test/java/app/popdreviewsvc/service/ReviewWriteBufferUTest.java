@@ -0,0 +1,187 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.BulkUpsertResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewWriteBufferUTest {
+
+    @Mock
+    private ReviewBatchService reviewBatchService;
+
+    private ReviewWriteBuffer reviewWriteBuffer;
+
+    @BeforeEach
+    void setUp() {
+        reviewWriteBuffer = new ReviewWriteBuffer(reviewBatchService, true, 60_000, 4, 2);
+    }
+
+    @Test
+    void whenSameReviewIsSavedRepeatedly_thenOnlyTheLastSaveIsFlushed() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        Review first = review(userId, movieId, "First");
+        Review last = review(userId, movieId, "Last");
+        List<List<Review>> flushed = recordFlushes();
+
+        reviewWriteBuffer.put(first);
+        reviewWriteBuffer.put(last);
+
+        assertSame(last, reviewWriteBuffer.get(new ReviewKey(userId, movieId)));
+        assertEquals(1, reviewWriteBuffer.flush());
+        assertEquals(List.of(List.of(last)), flushed);
+        assertNull(reviewWriteBuffer.get(new ReviewKey(userId, movieId)));
+    }
+
+    @Test
+    void whenFlushing_thenPendingReviewsAreWrittenInBatches() {
+        List<List<Review>> flushed = recordFlushes();
+        for (int i = 0; i < 5; i++) {
+            reviewWriteBuffer.put(review(UUID.randomUUID(), UUID.randomUUID(), "Content" + i));
+        }
+
+        assertEquals(5, reviewWriteBuffer.flush());
+        assertEquals(List.of(2, 2, 1), flushed.stream().map(List::size).toList());
+        assertEquals(0, reviewWriteBuffer.flush());
+    }
+
+    @Test
+    void whenFlushFails_thenReviewsStayReadableAndAreRetriedWithoutOverwritingNewerSaves() {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        Review stale = review(userId, movieId, "Stale");
+        Review other = review(UUID.randomUUID(), UUID.randomUUID(), "Other");
+        Review newer = review(userId, movieId, "Newer");
+        reviewWriteBuffer.put(stale);
+        reviewWriteBuffer.put(other);
+        when(reviewBatchService.applyReviews(anyList())).thenAnswer(invocation -> {
+            // a save made while the batch is being written
+            reviewWriteBuffer.put(newer);
+            throw new IllegalStateException("Mongo is down");
+        });
+
+        assertEquals(0, reviewWriteBuffer.flush());
+
+        assertSame(newer, reviewWriteBuffer.get(new ReviewKey(userId, movieId)));
+        assertSame(other, reviewWriteBuffer.get(ReviewKey.of(other)));
+    }
+
+    @Test
+    void whenReviewIsRemoved_thenItIsNotFlushed() {
+        Review review = review(UUID.randomUUID(), UUID.randomUUID(), "Deleted");
+        reviewWriteBuffer.put(review);
+
+        assertSame(review, reviewWriteBuffer.remove(ReviewKey.of(review)));
+        assertEquals(0, reviewWriteBuffer.flush());
+        verifyNoInteractions(reviewBatchService);
+    }
+
+    @Test
+    void whenReviewIsRemovedWhileBeingFlushed_thenRemoveWaitsForTheWrite() throws Exception {
+        Review review = review(UUID.randomUUID(), UUID.randomUUID(), "Flushing");
+        reviewWriteBuffer.put(review);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        when(reviewBatchService.applyReviews(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            written.await();
+            return new BulkUpsertResult(Set.of(0), Map.of());
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> flush = executor.submit(reviewWriteBuffer::flush);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Review> removed = CompletableFuture.supplyAsync(() -> reviewWriteBuffer.remove(ReviewKey.of(review)));
+            assertThrows(TimeoutException.class, () -> removed.get(100, TimeUnit.MILLISECONDS));
+
+            written.countDown();
+            assertEquals(1, flush.get(5, TimeUnit.SECONDS));
+            // the review is in MongoDB now, the delete has to go there
+            assertNull(removed.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenReviewIsRemovedWhileItsFlushFails_thenTheRequeuedReviewIsDropped() throws Exception {
+        Review review = review(UUID.randomUUID(), UUID.randomUUID(), "Flushing");
+        reviewWriteBuffer.put(review);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch failing = new CountDownLatch(1);
+        when(reviewBatchService.applyReviews(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            failing.await();
+            throw new IllegalStateException("Mongo is down");
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> flush = executor.submit(reviewWriteBuffer::flush);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Review> removed = CompletableFuture.supplyAsync(() -> reviewWriteBuffer.remove(ReviewKey.of(review)));
+            failing.countDown();
+
+            assertEquals(0, flush.get(5, TimeUnit.SECONDS));
+            assertSame(review, removed.get(5, TimeUnit.SECONDS));
+            assertNull(reviewWriteBuffer.get(ReviewKey.of(review)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenStopped_thenPendingReviewsAreFlushed() throws InterruptedException {
+        List<List<Review>> flushed = recordFlushes();
+        reviewWriteBuffer.start();
+        Review review = review(UUID.randomUUID(), UUID.randomUUID(), "Saved before shutdown");
+        reviewWriteBuffer.put(review);
+
+        reviewWriteBuffer.stop();
+
+        assertEquals(List.of(List.of(review)), flushed);
+    }
+
+    private List<List<Review>> recordFlushes() {
+        List<List<Review>> flushed = new ArrayList<>();
+        when(reviewBatchService.applyReviews(anyList())).thenAnswer(invocation -> {
+            flushed.add(List.copyOf(invocation.<List<Review>>getArgument(0)));
+            return new BulkUpsertResult(Set.of(), Map.of());
+        });
+        return flushed;
+    }
+
+    private static Review review(UUID userId, UUID movieId, String content) {
+        return Review.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .movieId(movieId)
+                .content(content)
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+}
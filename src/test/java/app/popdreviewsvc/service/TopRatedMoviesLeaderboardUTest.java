@@ -0,0 +1,125 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.exception.InvalidCursorException;
+import app.popdreviewsvc.exception.InvalidPageSizeException;
+import app.popdreviewsvc.model.MovieReviewStats;
+import app.popdreviewsvc.repository.MovieReviewStatsRepository;
+import app.popdreviewsvc.repository.ReviewChange;
+import app.popdreviewsvc.web.dto.TopRatedMovieResponse;
+import app.popdreviewsvc.web.dto.TopRatedMoviesSliceResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TopRatedMoviesLeaderboardUTest {
+
+    @Mock
+    private MovieReviewStatsRepository movieReviewStatsRepository;
+
+    private TopRatedMoviesLeaderboard topRatedMoviesLeaderboard;
+
+    @BeforeEach
+    void setUp() {
+        topRatedMoviesLeaderboard = new TopRatedMoviesLeaderboard(movieReviewStatsRepository, 2, -1);
+    }
+
+    @Test
+    void whenRebuilt_thenMoviesAreRankedByBayesianAverageAroundTheMeanOfAllRatings() {
+        UUID manyGoodRatings = UUID.randomUUID();
+        UUID singlePerfectRating = UUID.randomUUID();
+        UUID fewBadRatings = UUID.randomUUID();
+        when(movieReviewStatsRepository.streamRatedMovies()).thenReturn(Stream.of(
+                stats(singlePerfectRating, 1, 10),
+                stats(manyGoodRatings, 10, 90),
+                stats(fewBadRatings, 3, 3)));
+
+        assertEquals(3, topRatedMoviesLeaderboard.rebuild());
+
+        // prior mean 103 / 14, weighted by 2
+        List<TopRatedMovieResponse> top = topRatedMoviesLeaderboard.getTopRated(null, 10).getContent();
+        assertEquals(List.of(manyGoodRatings, singlePerfectRating, fewBadRatings), top.stream().map(TopRatedMovieResponse::getMovieId).toList());
+        assertEquals((2 * 103.0 / 14 + 90) / 12, top.get(0).getScore(), 1e-9);
+        assertEquals(9.0, top.get(0).getAverageRating());
+        assertEquals(10L, top.get(0).getRatedReviews());
+    }
+
+    @Test
+    void whenRatingsChange_thenTheMovieMovesByTheDelta() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        topRatedMoviesLeaderboard.apply(new ReviewChange(first, 1, null, 8));
+        topRatedMoviesLeaderboard.apply(new ReviewChange(second, 1, null, 7));
+        assertEquals(List.of(first, second), ranking());
+
+        topRatedMoviesLeaderboard.applyAll(List.of(
+                new ReviewChange(first, 0, 8, 2),
+                new ReviewChange(second, 1, null, 9)));
+
+        assertEquals(List.of(second, first), ranking());
+        TopRatedMovieResponse top = topRatedMoviesLeaderboard.getTopRated(null, 1).getContent().get(0);
+        assertEquals(2L, top.getRatedReviews());
+        assertEquals(8.0, top.getAverageRating());
+    }
+
+    @Test
+    void whenTheLastRatingIsRemoved_thenTheMovieLeavesTheLeaderboard() {
+        UUID movieId = UUID.randomUUID();
+        topRatedMoviesLeaderboard.apply(new ReviewChange(movieId, 1, null, 6));
+        topRatedMoviesLeaderboard.apply(new ReviewChange(movieId, 1, null, null));
+
+        topRatedMoviesLeaderboard.apply(new ReviewChange(movieId, -1, 6, null));
+
+        assertTrue(ranking().isEmpty());
+    }
+
+    @Test
+    void whenPagingWithTheCursor_thenEveryMovieIsReturnedOnce() {
+        for (int rating = 1; rating <= 5; rating++) {
+            topRatedMoviesLeaderboard.apply(new ReviewChange(UUID.randomUUID(), 1, null, rating));
+        }
+
+        TopRatedMoviesSliceResponse first = topRatedMoviesLeaderboard.getTopRated(null, 2);
+        TopRatedMoviesSliceResponse second = topRatedMoviesLeaderboard.getTopRated(first.getNextCursor(), 2);
+        TopRatedMoviesSliceResponse third = topRatedMoviesLeaderboard.getTopRated(second.getNextCursor(), 2);
+
+        assertTrue(first.getHasNext());
+        assertTrue(second.getHasNext());
+        assertFalse(third.getHasNext());
+        assertNull(third.getNextCursor());
+        assertEquals(1, third.getContent().size());
+        assertEquals(List.of(5.0, 4.0, 3.0, 2.0, 1.0), Stream.of(first, second, third)
+                .flatMap(slice -> slice.getContent().stream())
+                .map(TopRatedMovieResponse::getAverageRating)
+                .toList());
+    }
+
+    @Test
+    void whenCursorIsInvalid_thenThrowInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> topRatedMoviesLeaderboard.getTopRated("broken", 5));
+    }
+
+    @Test
+    void whenSizeIsBelowOne_thenThrowInvalidPageSizeException() {
+        assertThrows(InvalidPageSizeException.class, () -> topRatedMoviesLeaderboard.getTopRated(null, 0));
+    }
+
+    private List<UUID> ranking() {
+        return topRatedMoviesLeaderboard.getTopRated(null, TopRatedMoviesLeaderboard.MAX_PAGE_SIZE).getContent().stream()
+                .map(TopRatedMovieResponse::getMovieId)
+                .toList();
+    }
+
+    private static MovieReviewStats stats(UUID movieId, long ratedReviews, long ratingSum) {
+        return MovieReviewStats.builder().movieId(movieId).ratedReviews(ratedReviews).ratingSum(ratingSum).build();
+    }
+}
@@ -0,0 +1,130 @@
+package app.popdreviewsvc.service;
+
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.repository.ReviewRepository;
+import app.popdreviewsvc.web.dto.TrendingMovieResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TrendingMoviesTrackerUTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0, 30);
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    private TrendingMoviesTracker trendingMoviesTracker;
+
+    @BeforeEach
+    void setUp() {
+        trendingMoviesTracker = new TrendingMoviesTracker(reviewRepository, false, 3);
+    }
+
+    @Test
+    void whenMoviesAreReviewed_thenTheMostReviewedComeFirst() {
+        UUID hot = UUID.randomUUID();
+        UUID warm = UUID.randomUUID();
+        UUID cold = UUID.randomUUID();
+        record(hot, 3);
+        record(warm, 2);
+        record(cold, 1);
+
+        List<TrendingMovieResponse> trending = trendingMoviesTracker.getTrending(TrendingWindow.HOUR, 2, NOW);
+
+        assertEquals(List.of(hot, warm), trending.stream().map(TrendingMovieResponse::getMovieId).toList());
+        assertEquals(List.of(3L, 2L), trending.stream().map(TrendingMovieResponse::getReviews).toList());
+    }
+
+    @Test
+    void whenActivityIsOlderThanTheWindow_thenItIsNoLongerCounted() {
+        UUID movieId = UUID.randomUUID();
+        trendingMoviesTracker.record(movieId, NOW.minusMinutes(90));
+        trendingMoviesTracker.record(movieId, NOW.minusMinutes(5));
+
+        assertEquals(1L, trendingMoviesTracker.getTrending(TrendingWindow.HOUR, 10, NOW).get(0).getReviews());
+        assertEquals(2L, trendingMoviesTracker.getTrending(TrendingWindow.DAY, 10, NOW).get(0).getReviews());
+        assertTrue(trendingMoviesTracker.getTrending(TrendingWindow.HOUR, 10, NOW.plusHours(1)).isEmpty());
+        assertTrue(trendingMoviesTracker.getTrending(TrendingWindow.DAY, 10, NOW.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void whenABucketIsFull_thenANewMovieTakesOverTheLeastCountedOne() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID least = UUID.randomUUID();
+        record(first, 3);
+        record(second, 2);
+        record(least, 1);
+        UUID overflow = UUID.randomUUID();
+        record(overflow, 5);
+
+        List<TrendingMovieResponse> trending = trendingMoviesTracker.getTrending(TrendingWindow.HOUR, 10, NOW);
+
+        assertEquals(3, trending.size());
+        // 5 writes on top of the evicted counter of 1, overcounted by at most that
+        assertEquals(overflow, trending.get(0).getMovieId());
+        assertEquals(6L, trending.get(0).getReviews());
+        assertEquals(List.of(first, second), trending.stream().skip(1).map(TrendingMovieResponse::getMovieId).toList());
+        assertTrue(trending.stream().noneMatch(movie -> movie.getMovieId().equals(least)));
+    }
+
+    @Test
+    void whenNewMoviesKeepArriving_thenEachEvictsTheLeastCountedMovieOfTheMoment() {
+        UUID top = UUID.randomUUID();
+        UUID middle = UUID.randomUUID();
+        UUID least = UUID.randomUUID();
+        record(top, 5);
+        record(middle, 3);
+        record(least, 1);
+        UUID firstNewcomer = UUID.randomUUID();
+        UUID secondNewcomer = UUID.randomUUID();
+        // takes over 1 and counts 2, then is the least counted movie itself and is taken over with 2 + 1
+        record(firstNewcomer, 1);
+        record(secondNewcomer, 1);
+
+        List<TrendingMovieResponse> trending = trendingMoviesTracker.getTrending(TrendingWindow.HOUR, 10, NOW);
+
+        assertEquals(Map.of(top, 5L, middle, 3L, secondNewcomer, 3L),
+                trending.stream().collect(Collectors.toMap(TrendingMovieResponse::getMovieId, TrendingMovieResponse::getReviews)));
+    }
+
+    @Test
+    void whenSeeded_thenRecentReviewsAreCounted() {
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime recent = LocalDateTime.now().minusMinutes(1);
+        when(reviewRepository.streamMovieActivitySince(any())).thenReturn(Stream.of(
+                Review.builder().movieId(movieId).updatedOn(recent).build(),
+                Review.builder().movieId(movieId).updatedOn(recent).build()));
+
+        assertEquals(2, trendingMoviesTracker.seed());
+        assertEquals(2L, trendingMoviesTracker.getTrending(TrendingWindow.HOUR, 10).get(0).getReviews());
+    }
+
+    @Test
+    void whenLimitIsNotPositive_thenNothingIsReturned() {
+        record(UUID.randomUUID(), 1);
+
+        assertTrue(trendingMoviesTracker.getTrending(TrendingWindow.HOUR, 0, NOW).isEmpty());
+    }
+
+    private void record(UUID movieId, int times) {
+        for (int i = 0; i < times; i++) {
+            trendingMoviesTracker.record(movieId, NOW.minusSeconds(10));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package app.popdreviewsvc.web;
+
+import app.popdreviewsvc.exception.InvalidCursorException;
+import app.popdreviewsvc.exception.InvalidPageSizeException;
+import app.popdreviewsvc.service.TopRatedMoviesLeaderboard;
+import app.popdreviewsvc.service.TrendingMoviesTracker;
+import app.popdreviewsvc.service.TrendingWindow;
+import app.popdreviewsvc.web.dto.TopRatedMovieResponse;
+import app.popdreviewsvc.web.dto.TopRatedMoviesSliceResponse;
+import app.popdreviewsvc.web.dto.TrendingMovieResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(MovieController.class)
+public class MovieControllerApiTest {
+
+    @MockitoBean
+    private TrendingMoviesTracker trendingMoviesTracker;
+
+    @MockitoBean
+    private TopRatedMoviesLeaderboard topRatedMoviesLeaderboard;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getTrendingMovies_shouldReturn200OkAndReturnTheLastHourByDefault() throws Exception {
+        UUID hot = UUID.randomUUID();
+        UUID warm = UUID.randomUUID();
+        when(trendingMoviesTracker.getTrending(TrendingWindow.HOUR, 10)).thenReturn(List.of(
+                TrendingMovieResponse.builder().movieId(hot).reviews(12L).build(),
+                TrendingMovieResponse.builder().movieId(warm).reviews(3L).build()));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/movies/trending");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].movieId").value(hot.toString()))
+                .andExpect(jsonPath("$[0].reviews").value(12))
+                .andExpect(jsonPath("$[1].movieId").value(warm.toString()));
+    }
+
+    @Test
+    void getTrendingMovies_withWindowAndLimit_shouldReturn200Ok() throws Exception {
+        when(trendingMoviesTracker.getTrending(TrendingWindow.DAY, 3)).thenReturn(List.of());
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/movies/trending")
+                .param("window", "day")
+                .param("limit", "3");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        verify(trendingMoviesTracker).getTrending(TrendingWindow.DAY, 3);
+    }
+
+    @Test
+    void getTrendingMovies_whenWindowIsUnknown_shouldReturn400BadRequest() throws Exception {
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/movies/trending")
+                .param("window", "week");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("week")));
+        verifyNoInteractions(trendingMoviesTracker);
+    }
+
+    @Test
+    void getTopRatedMovies_shouldReturn200OkAndReturnTheFirstSliceByDefault() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        when(topRatedMoviesLeaderboard.getTopRated(null, 20)).thenReturn(TopRatedMoviesSliceResponse.builder()
+                .content(List.of(TopRatedMovieResponse.builder().movieId(movieId).score(8.5).averageRating(9.0).ratedReviews(40L).build()))
+                .size(20)
+                .hasNext(true)
+                .nextCursor("next")
+                .build());
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/movies/top");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].movieId").value(movieId.toString()))
+                .andExpect(jsonPath("$.content[0].score").value(8.5))
+                .andExpect(jsonPath("$.content[0].ratedReviews").value(40))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getTopRatedMovies_whenCursorIsInvalid_shouldReturn400BadRequest() throws Exception {
+        when(topRatedMoviesLeaderboard.getTopRated("broken", 5)).thenThrow(new InvalidCursorException("Invalid cursor [broken]"));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/movies/top")
+                .param("cursor", "broken")
+                .param("size", "5");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor [broken]"));
+    }
+
+    @Test
+    void getTopRatedMovies_whenSizeIsBelowOne_shouldReturn400BadRequest() throws Exception {
+        when(topRatedMoviesLeaderboard.getTopRated(null, 0)).thenThrow(new InvalidPageSizeException("size must be at least 1, got [0]"));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/movies/top")
+                .param("size", "0");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("size must be at least 1, got [0]"));
+    }
+}
@@ -0,0 +1,246 @@
+package app.popdreviewsvc.web;
+
+import app.popdreviewsvc.exception.InvalidCursorException;
+import app.popdreviewsvc.exception.NotFoundException;
+import app.popdreviewsvc.model.MovieReviewStats;
+import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.service.ReactiveReviewService;
+import app.popdreviewsvc.service.ReviewBatchService;
+import app.popdreviewsvc.service.ReviewSearchService;
+import app.popdreviewsvc.service.UpsertResult;
+import app.popdreviewsvc.web.dto.BatchUpsertResponse;
+import app.popdreviewsvc.web.dto.ReviewResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveReviewController.class)
+public class ReactiveReviewControllerApiTest {
+
+    @MockitoBean
+    private ReactiveReviewService reactiveReviewService;
+
+    @MockitoBean
+    private ReviewBatchService reviewBatchService;
+
+    @MockitoBean
+    private ReviewSearchService reviewSearchService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void postUpsertReview_shouldReturn201CreatedAndReturnReviewResponse() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        Review review = review(userId, movieId, 5, "Great movie!");
+        when(reactiveReviewService.upsert(any())).thenReturn(Mono.just(new UpsertResult(review, true)));
+
+        String requestBody = """
+                {
+                    "userId": "%s",
+                    "movieId": "%s",
+                    "rating": 5,
+                    "title": "Great movie!",
+                    "content": "This is an amazing film."
+                }
+                """.formatted(userId, movieId);
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v2/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody);
+
+        performAsync(httpRequest)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.userId").value(userId.toString()))
+                .andExpect(jsonPath("$.movieId").value(movieId.toString()))
+                .andExpect(jsonPath("$.rating").value(5))
+                .andExpect(jsonPath("$.title").value("Great movie!"));
+
+        verify(reactiveReviewService).upsert(any());
+    }
+
+    @Test
+    void postUpsertReview_whenReviewAlreadyExisted_shouldReturn200Ok() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        when(reactiveReviewService.upsert(any())).thenReturn(Mono.just(new UpsertResult(review(userId, movieId, 8, "Edited"), false)));
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v2/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        { "userId": "%s", "movieId": "%s", "rating": 8, "title": "Edited" }
+                        """.formatted(userId, movieId));
+
+        performAsync(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rating").value(8));
+    }
+
+    @Test
+    void postUpsertReviews_shouldReturn200OkFromTheBatchService() throws Exception {
+        when(reviewBatchService.upsertBatch(anyList())).thenReturn(BatchUpsertResponse.builder()
+                .results(List.of())
+                .created(0)
+                .updated(0)
+                .failed(0)
+                .build());
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v2/reviews/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]");
+
+        performAsync(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0));
+
+        verify(reviewBatchService).upsertBatch(anyList());
+    }
+
+    @Test
+    void getReviewByUserAndMovie_whenReviewNotFound_shouldReturn404NotFound() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        when(reactiveReviewService.findByUserIdAndMovieId(userId, movieId))
+                .thenReturn(Mono.error(new NotFoundException("Review not found")));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v2/reviews/{userId}/{movieId}", userId, movieId);
+
+        performAsync(httpRequest)
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Review not found"));
+    }
+
+    @Test
+    void deleteReview_shouldReturn204NoContent() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        when(reactiveReviewService.removeReview(userId, movieId)).thenReturn(Mono.empty());
+
+        MockHttpServletRequestBuilder httpRequest = delete("/api/v2/reviews/{userId}/{movieId}", userId, movieId);
+
+        performAsync(httpRequest)
+                .andExpect(status().isNoContent());
+
+        verify(reactiveReviewService).removeReview(userId, movieId);
+    }
+
+    @Test
+    void getReviewsForMovie_shouldReturn200OkAndReturnPageOfReviewResponses() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        List<ReviewResponse> content = List.of(ReviewResponse.builder().movieId(movieId).title("Title1").build());
+        when(reactiveReviewService.getReviewsForMovie(movieId, PageRequest.of(1, 1)))
+                .thenReturn(Mono.just(new PageImpl<>(content, PageRequest.of(1, 1), 3)));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v2/reviews/{movieId}/page", movieId)
+                .param("page", "1")
+                .param("size", "1");
+
+        performAsync(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Title1"))
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    void getReviewsForMovieByCursor_whenCursorIsInvalid_shouldReturn400BadRequest() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        when(reactiveReviewService.getReviewsForMovieAfter(movieId, "garbage", 5, false))
+                .thenReturn(Mono.error(new InvalidCursorException("Invalid cursor")));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v2/reviews/{movieId}/slice", movieId)
+                .param("cursor", "garbage");
+
+        performAsync(httpRequest)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getMovieReviewStats_shouldReturn200OkAndReturnMovieReviewStatsResponse() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        MovieReviewStats stats = MovieReviewStats.builder()
+                .movieId(movieId)
+                .totalReviews(2L)
+                .ratedReviews(2L)
+                .ratingSum(15L)
+                .ratingDistribution(Map.of("7", 1L, "8", 1L))
+                .build();
+        when(reactiveReviewService.getMovieReviewStats(movieId)).thenReturn(Mono.just(stats));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v2/reviews/{movieId}/stats", movieId);
+
+        performAsync(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalReviews").value(2))
+                .andExpect(jsonPath("$.averageRating").value(7.5));
+    }
+
+    @Test
+    void exportReviewsForMovie_shouldStreamOneJsonDocumentPerLine() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        when(reactiveReviewService.streamReviewsForMovie(movieId)).thenReturn(Flux.just(
+                ReviewResponse.builder().userId(UUID.randomUUID()).movieId(movieId).title("Title1").build(),
+                ReviewResponse.builder().userId(UUID.randomUUID()).movieId(movieId).title("Title2").build()
+        ));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v2/reviews/export/movie/{movieId}", movieId);
+
+        String body = performAsync(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"Title1\""));
+        assertTrue(lines[1].contains("\"title\":\"Title2\""));
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder httpRequest) throws Exception {
+        MvcResult asyncResult = mockMvc.perform(httpRequest)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(asyncResult));
+    }
+
+    private static Review review(UUID userId, UUID movieId, int rating, String title) {
+        LocalDateTime now = LocalDateTime.now();
+
+        return Review.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .movieId(movieId)
+                .rating(rating)
+                .title(title)
+                .content("This is an amazing film.")
+                .createdOn(now)
+                .updatedOn(now)
+                .build();
+    }
+}
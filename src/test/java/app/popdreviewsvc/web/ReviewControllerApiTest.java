@@ -1,39 +1,91 @@
 package app.popdreviewsvc.web;
 
+import app.popdreviewsvc.exception.BatchSizeExceededException;
+import app.popdreviewsvc.exception.ConcurrencyLimitExceededException;
+import app.popdreviewsvc.exception.DeadlineExceededException;
+import app.popdreviewsvc.exception.InvalidCursorException;
+import app.popdreviewsvc.exception.InvalidLookupException;
+import app.popdreviewsvc.exception.InvalidPageSizeException;
 import app.popdreviewsvc.exception.NotFoundException;
+import app.popdreviewsvc.exception.SearchUnavailableException;
+import app.popdreviewsvc.model.MovieReviewStats;
 import app.popdreviewsvc.model.Review;
+import app.popdreviewsvc.model.ReviewVersion;
+import app.popdreviewsvc.repository.ReadRouting;
+import app.popdreviewsvc.repository.ReviewField;
+import app.popdreviewsvc.service.ReviewBatchService;
+import app.popdreviewsvc.service.ReviewSearchService;
 import app.popdreviewsvc.service.ReviewService;
+import app.popdreviewsvc.service.UpsertResult;
+import app.popdreviewsvc.web.dto.BatchItemStatus;
+import app.popdreviewsvc.web.dto.BatchReviewResult;
+import app.popdreviewsvc.web.dto.BatchUpsertResponse;
+import app.popdreviewsvc.web.dto.MovieReviewStatsResponse;
 import app.popdreviewsvc.web.dto.ReviewResponse;
+import app.popdreviewsvc.web.dto.ReviewSearchHitResponse;
+import app.popdreviewsvc.web.dto.ReviewSliceResponse;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ReviewController.class)
+@Import(ReadRouting.class)
 public class ReviewControllerApiTest {
 
     @MockitoBean
     private ReviewService reviewService;
 
+    @MockitoBean
+    private ReviewBatchService reviewBatchService;
+
+    @MockitoBean
+    private ReviewSearchService reviewSearchService;
+
     @Autowired
     private MockMvc mockMvc;
 
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-05-01T10:15:30Z");
+
+    @BeforeEach
+    void setUp() {
+        when(reviewService.getMovieVersion(any())).thenReturn(ReviewVersion.builder().version(3L).lastModified(LAST_MODIFIED).build());
+        when(reviewService.getUserVersion(any())).thenReturn(ReviewVersion.builder().version(9L).lastModified(LAST_MODIFIED).build());
+    }
+
     @Test
     void postUpsertReview_shouldReturn201CreatedAndReturnReviewResponse() throws Exception {
         UUID userId = UUID.randomUUID();
@@ -49,7 +101,7 @@ public class ReviewControllerApiTest {
                 .createdOn(now)
                 .updatedOn(now)
                 .build();
-        when(reviewService.upsert(any())).thenReturn(review);
+        when(reviewService.upsert(any())).thenReturn(new UpsertResult(review, true));
 
         String requestBody = """
                 {
@@ -76,6 +128,132 @@ public class ReviewControllerApiTest {
         verify(reviewService).upsert(any());
     }
 
+    @Test
+    void postUpsertReview_whenReviewAlreadyExisted_shouldReturn200OkAndReturnReviewResponse() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        Review review = Review.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .movieId(movieId)
+                .rating(3)
+                .title("Changed my mind")
+                .content("It was just fine.")
+                .createdOn(now.minusDays(1))
+                .updatedOn(now)
+                .build();
+        when(reviewService.upsert(any())).thenReturn(new UpsertResult(review, false));
+
+        String requestBody = """
+                {
+                    "userId": "%s",
+                    "movieId": "%s",
+                    "rating": 3,
+                    "title": "Changed my mind",
+                    "content": "It was just fine."
+                }
+                """.formatted(userId, movieId);
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v1/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody);
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rating").value(3))
+                .andExpect(jsonPath("$.title").value("Changed my mind"));
+
+        verify(reviewService).upsert(any());
+    }
+
+    @Test
+    void postUpsertReviews_shouldReturn200OkAndReturnPerItemResults() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        BatchUpsertResponse response = BatchUpsertResponse.builder()
+                .results(List.of(
+                        BatchReviewResult.builder().index(0).status(BatchItemStatus.CREATED)
+                                .review(ReviewResponse.builder().movieId(movieId).rating(5).build()).build(),
+                        BatchReviewResult.builder().index(1).status(BatchItemStatus.ERROR)
+                                .error("userId and movieId are required").build()))
+                .created(1)
+                .updated(0)
+                .failed(1)
+                .build();
+        when(reviewBatchService.upsertBatch(any())).thenReturn(response);
+
+        String requestBody = """
+                [
+                    { "userId": "%s", "movieId": "%s", "rating": 5, "content": "Great" },
+                    { "movieId": "%s", "rating": 1, "content": "Missing user" }
+                ]
+                """.formatted(UUID.randomUUID(), movieId, movieId);
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v1/reviews/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody);
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("ERROR"))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1));
+
+        verify(reviewBatchService).upsertBatch(any());
+    }
+
+    @Test
+    void postUpsertReviews_whenBatchIsTooLarge_shouldReturn400BadRequest() throws Exception {
+        when(reviewBatchService.upsertBatch(any())).thenThrow(new BatchSizeExceededException("Batch too large"));
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v1/reviews/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void postLookupReviews_shouldReturn200OkAndReturnReviewsKeyedByMovieId() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID reviewed = UUID.randomUUID();
+        UUID notReviewed = UUID.randomUUID();
+        when(reviewBatchService.lookupReviews(userId, List.of(reviewed, notReviewed)))
+                .thenReturn(Map.of(reviewed, ReviewResponse.builder().userId(userId).movieId(reviewed).rating(7).build()));
+
+        String requestBody = """
+                { "userId": "%s", "movieIds": ["%s", "%s"] }
+                """.formatted(userId, reviewed, notReviewed);
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v1/reviews/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody);
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$['%s'].rating".formatted(reviewed)).value(7))
+                .andExpect(jsonPath("$['%s']".formatted(notReviewed)).doesNotExist());
+
+        verify(reviewBatchService).lookupReviews(userId, List.of(reviewed, notReviewed));
+    }
+
+    @Test
+    void postLookupReviews_whenUserIdIsMissing_shouldReturn400BadRequest() throws Exception {
+        when(reviewBatchService.lookupReviews(isNull(), any())).thenThrow(new InvalidLookupException("userId is required"));
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v1/reviews/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"movieIds\": [] }");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("userId is required"));
+    }
+
     @Test
     void getReviewByUserAndMovie_shouldReturn200OkAndReturnReviewResponse() throws Exception {
         UUID userId = UUID.randomUUID();
@@ -173,7 +351,7 @@ public class ReviewControllerApiTest {
                         .updatedOn(now)
                         .build()
         );
-        when(reviewService.getLatestReviews(movieId, 5)).thenReturn(responses);
+        when(reviewService.getLatestReviews(movieId, 5, null)).thenReturn(responses);
 
         MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}", movieId);
 
@@ -183,13 +361,13 @@ public class ReviewControllerApiTest {
                 .andExpect(jsonPath("$[0].rating").value(5))
                 .andExpect(jsonPath("$[1].rating").value(4));
 
-        verify(reviewService).getLatestReviews(movieId, 5);
+        verify(reviewService).getLatestReviews(movieId, 5, null);
     }
 
     @Test
     void getLatestReviewsForAMovie_whenNoReviewsFound_shouldReturn404NotFound() throws Exception {
         UUID movieId = UUID.randomUUID();
-        when(reviewService.getLatestReviews(movieId, 5))
+        when(reviewService.getLatestReviews(movieId, 5, null))
                 .thenThrow(new NotFoundException("No reviews found"));
 
         MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}", movieId);
@@ -197,7 +375,7 @@ public class ReviewControllerApiTest {
         mockMvc.perform(httpRequest)
                 .andExpect(status().isNotFound());
 
-        verify(reviewService).getLatestReviews(movieId, 5);
+        verify(reviewService).getLatestReviews(movieId, 5, null);
     }
 
     @Test
@@ -225,7 +403,7 @@ public class ReviewControllerApiTest {
                         .build()
         );
         Page<ReviewResponse> page = new PageImpl<>(responses, PageRequest.of(0, 5), 2);
-        when(reviewService.getReviewsForMovie(eq(movieId), any())).thenReturn(page);
+        when(reviewService.getReviewsForMovie(eq(movieId), any(), isNull())).thenReturn(page);
 
         MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/page", movieId)
                 .param("page", "0")
@@ -238,27 +416,179 @@ public class ReviewControllerApiTest {
                 .andExpect(jsonPath("$.content[1].rating").value(4))
                 .andExpect(jsonPath("$.totalElements").value(2));
 
-        verify(reviewService).getReviewsForMovie(eq(movieId), any());
+        verify(reviewService).getReviewsForMovie(eq(movieId), any(), isNull());
+    }
+
+    @Test
+    void getLatestReviewsForAMovie_withFields_shouldReturnOnlyRequestedFields() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        List<ReviewResponse> responses = List.of(
+                ReviewResponse.builder().movieId(movieId).rating(5).title("Title1").content("x".repeat(300)).build()
+        );
+        Set<ReviewField> fields = EnumSet.of(ReviewField.TITLE, ReviewField.RATING, ReviewField.SNIPPET);
+        when(reviewService.getLatestReviews(movieId, 5, fields)).thenReturn(responses);
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}", movieId)
+                .param("fields", "title,rating,snippet");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Title1"))
+                .andExpect(jsonPath("$[0].rating").value(5))
+                .andExpect(jsonPath("$[0].snippet").value("x".repeat(ReviewField.SNIPPET_LENGTH)))
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(jsonPath("$[0].movieId").doesNotExist());
+
+        verify(reviewService).getLatestReviews(movieId, 5, fields);
+    }
+
+    @Test
+    void getReviewsForMovie_withFields_shouldKeepPageMetadataAndReturnOnlyRequestedFields() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        Page<ReviewResponse> page = new PageImpl<>(
+                List.of(ReviewResponse.builder().movieId(movieId).rating(7).title("Title1").build()),
+                PageRequest.of(1, 1), 3);
+        when(reviewService.getReviewsForMovie(movieId, PageRequest.of(1, 1), EnumSet.of(ReviewField.TITLE))).thenReturn(page);
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/page", movieId)
+                .param("page", "1")
+                .param("size", "1")
+                .param("fields", "title");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Title1"))
+                .andExpect(jsonPath("$.content[0].rating").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    void getLatestReviewsByUser_withUnknownField_shouldReturn400BadRequest() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{userId}/latest-reviews", userId)
+                .param("fields", "title,likes");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("likes")));
+
+        verifyNoInteractions(reviewService);
+    }
+
+    @Test
+    void getReviewsForMovieByCursor_shouldReturn200OkAndReturnSliceWithNextCursor() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        ReviewSliceResponse slice = ReviewSliceResponse.builder()
+                .content(List.of(ReviewResponse.builder()
+                        .userId(UUID.randomUUID())
+                        .movieId(movieId)
+                        .rating(5)
+                        .title("Title1")
+                        .content("Content1")
+                        .createdOn(now)
+                        .updatedOn(now)
+                        .build()))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("next-token")
+                .build();
+        when(reviewService.getReviewsForMovieAfter(movieId, "token", 1, false)).thenReturn(slice);
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/slice", movieId)
+                .param("cursor", "token")
+                .param("size", "1");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(reviewService).getReviewsForMovieAfter(movieId, "token", 1, false);
+    }
+
+    @Test
+    void getReviewsForMovieByCursor_whenCursorIsInvalid_shouldReturn400BadRequest() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        when(reviewService.getReviewsForMovieAfter(movieId, "broken", 5, false))
+                .thenThrow(new InvalidCursorException("Invalid cursor [broken]"));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/slice", movieId)
+                .param("cursor", "broken");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getReviewsForMovieByCursor_whenSizeIsBelowOne_shouldReturn400BadRequest() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        when(reviewService.getReviewsForMovieAfter(movieId, null, 0, false))
+                .thenThrow(new InvalidPageSizeException("size must be at least 1, got [0]"));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/slice", movieId)
+                .param("size", "0");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("size must be at least 1, got [0]"));
     }
 
     @Test
     void getMovieReviewStats_shouldReturn200OkAndReturnMovieReviewStatsResponse() throws Exception {
         UUID movieId = UUID.randomUUID();
-        when(reviewService.getAllReviewsForAMovieCount(movieId)).thenReturn(10);
+        MovieReviewStats stats = MovieReviewStats.builder()
+                .movieId(movieId)
+                .totalReviews(10L)
+                .ratedReviews(4L)
+                .ratingSum(30L)
+                .ratingDistribution(Map.of("6", 1L, "8", 3L))
+                .build();
+        when(reviewService.getMovieReviewStats(movieId)).thenReturn(stats);
 
         MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/stats", movieId);
 
         mockMvc.perform(httpRequest)
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.totalReviews").value(10));
+                .andExpect(jsonPath("$.totalReviews").value(10))
+                .andExpect(jsonPath("$.averageRating").value(7.5))
+                .andExpect(jsonPath("$.ratingDistribution.8").value(3))
+                .andExpect(jsonPath("$.ratingDistribution.1").value(0));
+
+        verify(reviewService).getMovieReviewStats(movieId);
+    }
+
+    @Test
+    void postLookupMovieReviewStats_shouldReturn200OkAndReturnStatsKeyedByMovieId() throws Exception {
+        UUID rated = UUID.randomUUID();
+        UUID unreviewed = UUID.randomUUID();
+        Map<UUID, MovieReviewStatsResponse> stats = new LinkedHashMap<>();
+        stats.put(rated, MovieReviewStatsResponse.builder().totalReviews(4).averageRating(6.5).build());
+        stats.put(unreviewed, MovieReviewStatsResponse.builder().totalReviews(0).build());
+        when(reviewBatchService.lookupMovieReviewStats(List.of(rated, unreviewed))).thenReturn(stats);
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v1/reviews/stats/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        { "movieIds": ["%s", "%s"] }
+                        """.formatted(rated, unreviewed));
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['%s'].totalReviews".formatted(rated)).value(4))
+                .andExpect(jsonPath("$['%s'].averageRating".formatted(rated)).value(6.5))
+                .andExpect(jsonPath("$['%s'].totalReviews".formatted(unreviewed)).value(0));
 
-        verify(reviewService).getAllReviewsForAMovieCount(movieId);
+        verify(reviewService, never()).getMovieReviewStats(any());
     }
 
     @Test
     void getMovieReviewStats_whenNoReviewsFound_shouldReturn404NotFound() throws Exception {
         UUID movieId = UUID.randomUUID();
-        when(reviewService.getAllReviewsForAMovieCount(movieId))
+        when(reviewService.getMovieReviewStats(movieId))
                 .thenThrow(new NotFoundException("No reviews found"));
 
         MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/stats", movieId);
@@ -266,7 +596,7 @@ public class ReviewControllerApiTest {
         mockMvc.perform(httpRequest)
                 .andExpect(status().isNotFound());
 
-        verify(reviewService).getAllReviewsForAMovieCount(movieId);
+        verify(reviewService).getMovieReviewStats(movieId);
     }
 
     @Test
@@ -321,7 +651,7 @@ public class ReviewControllerApiTest {
                         .updatedOn(now)
                         .build()
         );
-        when(reviewService.getLatestReviewsByUserId(userId)).thenReturn(responses);
+        when(reviewService.getLatestReviewsByUserId(userId, null)).thenReturn(responses);
 
         MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{userId}/latest-reviews", userId);
 
@@ -331,13 +661,60 @@ public class ReviewControllerApiTest {
                 .andExpect(jsonPath("$[0].rating").value(5))
                 .andExpect(jsonPath("$[1].rating").value(4));
 
-        verify(reviewService).getLatestReviewsByUserId(userId);
+        verify(reviewService).getLatestReviewsByUserId(userId, null);
+    }
+
+    @Test
+    void getLatestReviewsForAMovie_whenETagMatches_shouldReturn304WithoutReadingReviews() throws Exception {
+        UUID movieId = UUID.randomUUID();
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}", movieId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(reviewService).getMovieVersion(movieId);
+        verify(reviewService, never()).getLatestReviews(any(), anyInt(), any());
+    }
+
+    @Test
+    void getMovieReviewStats_whenNotModifiedSince_shouldReturn304WithoutReadingStats() throws Exception {
+        UUID movieId = UUID.randomUUID();
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/stats", movieId)
+                .header(HttpHeaders.IF_MODIFIED_SINCE, DateTimeFormatter.RFC_1123_DATE_TIME.format(LAST_MODIFIED.atZone(ZoneOffset.UTC)));
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isNotModified());
+
+        verify(reviewService, never()).getMovieReviewStats(any());
+    }
+
+    @Test
+    void getLatestReviewsByUser_whenETagIsStale_shouldReturn200OkWithCurrentETag() throws Exception {
+        UUID userId = UUID.randomUUID();
+        List<ReviewResponse> responses = List.of(ReviewResponse.builder().userId(userId).rating(5).title("Title1").build());
+        when(reviewService.getLatestReviewsByUserId(userId, null)).thenReturn(responses);
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{userId}/latest-reviews", userId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"8\"");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"9\""))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED.toEpochMilli()))
+                .andExpect(jsonPath("$[0].title").value("Title1"));
+
+        verify(reviewService).getUserVersion(userId);
     }
 
     @Test
     void getLatestReviewsByUser_whenNoReviewsFound_shouldReturn404NotFound() throws Exception {
         UUID userId = UUID.randomUUID();
-        when(reviewService.getLatestReviewsByUserId(userId))
+        when(reviewService.getLatestReviewsByUserId(userId, null))
                 .thenThrow(new NotFoundException("No reviews found"));
 
         MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{userId}/latest-reviews", userId);
@@ -345,6 +722,109 @@ public class ReviewControllerApiTest {
         mockMvc.perform(httpRequest)
                 .andExpect(status().isNotFound());
 
-        verify(reviewService).getLatestReviewsByUserId(userId);
+        verify(reviewService).getLatestReviewsByUserId(userId, null);
+    }
+
+    @Test
+    void exportReviewsForMovie_shouldStreamOneJsonDocumentPerLine() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        Stream<ReviewResponse> reviews = Stream.of(
+                ReviewResponse.builder().userId(UUID.randomUUID()).movieId(movieId).rating(5).title("Title1").createdOn(now).updatedOn(now).build(),
+                ReviewResponse.builder().userId(UUID.randomUUID()).movieId(movieId).rating(4).title("Title2").createdOn(now).updatedOn(now).build()
+        );
+        when(reviewService.streamReviewsForMovie(movieId)).thenReturn(reviews);
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/export/movie/{movieId}", movieId);
+
+        MvcResult asyncResult = mockMvc.perform(httpRequest)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertTrue(asyncResult.getRequest().getAsyncContext().getTimeout() <= 0, "exports should not time out");
+
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"Title1\""));
+        assertTrue(lines[1].contains("\"title\":\"Title2\""));
+        verify(reviewService).streamReviewsForMovie(movieId);
+    }
+
+    @Test
+    void getSearchReviews_shouldReturn200OkAndReturnRankedHits() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        when(reviewSearchService.search("soundtrack", movieId, null, 5)).thenReturn(List.of(
+                ReviewSearchHitResponse.builder()
+                        .score(4.2)
+                        .review(ReviewResponse.builder().movieId(movieId).content("What a soundtrack").build())
+                        .build()));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/search")
+                .param("q", "soundtrack")
+                .param("movieId", movieId.toString())
+                .param("limit", "5");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].score").value(4.2))
+                .andExpect(jsonPath("$[0].review.content").value("What a soundtrack"));
+        verify(reviewService, never()).getLatestReviews(any(), anyInt(), any());
+    }
+
+    @Test
+    void getSearchReviews_whenSearchIsDisabled_shouldReturn503ServiceUnavailable() throws Exception {
+        when(reviewSearchService.search("soundtrack", null, null, 10)).thenThrow(new SearchUnavailableException("Review search is disabled"));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/search")
+                .param("q", "soundtrack");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Review search is disabled"));
+    }
+
+    @Test
+    void postReview_whenWriteLimitIsReached_shouldReturn503WithRetryAfter() throws Exception {
+        when(reviewService.upsert(any())).thenThrow(new ConcurrencyLimitExceededException("Too many concurrent review writes, limit is 20"));
+
+        MockHttpServletRequestBuilder httpRequest = post("/api/v1/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"userId": "%s", "movieId": "%s", "rating": 8, "content": "Content"}
+                        """.formatted(UUID.randomUUID(), UUID.randomUUID()));
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Too many concurrent review writes, limit is 20"));
+    }
+
+    @Test
+    void getReviewStats_whenRequestArrivesWithNoTimeLeft_shouldReturn504WithoutQuerying() throws Exception {
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/stats", UUID.randomUUID())
+                .header(RequestDeadlineInterceptor.TIMEOUT_HEADER, "0");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isGatewayTimeout());
+        verifyNoInteractions(reviewService);
+    }
+
+    @Test
+    void getReviewsPage_whenDatabaseOutlivesTheDeadline_shouldReturn504() throws Exception {
+        UUID movieId = UUID.randomUUID();
+        when(reviewService.getMovieVersion(movieId)).thenThrow(new DeadlineExceededException("Request deadline exceeded while waiting for the database"));
+
+        MockHttpServletRequestBuilder httpRequest = get("/api/v1/reviews/{movieId}/page", movieId)
+                .header(RequestDeadlineInterceptor.TIMEOUT_HEADER, "250");
+
+        mockMvc.perform(httpRequest)
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.message").value("Request deadline exceeded while waiting for the database"));
     }
 }